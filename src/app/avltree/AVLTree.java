@@ -1,9 +1,35 @@
 package app.avltree;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * AVLTree class implementing a self-balancing binary search tree.
+ * <p>
+ * Nodes are ordered by the composite key (value, index): values by their
+ * natural order, and equal values by index. Every entry therefore has a unique
+ * position, and add, delete and find each follow a single root-to-leaf path,
+ * staying O(log n) even when many entries share a value.
+ * <p>
+ * Each node keeps the minimum index and the node count of its subtree. The
+ * counts let {@link #split} and {@link #join} size their results in O(1).
+ * Subclasses can maintain further aggregates by overriding
+ * {@link #augment(AVLTreeNode)}, which is called whenever a node's children
+ * change and reports whether the node's aggregates changed, and
+ * {@link #newNode} to create nodes that hold them.
+ * <p>
+ * Add, delete, split and join are iterative. They record the nodes they pass
+ * in a path array, reused from call to call, and rebalance bottom-up along it;
+ * traversals use an explicit stack. An AVL tree's height is at most about
+ * 1.44 log2(n), so the path stays short and no operation can overflow the
+ * call stack; the bulk build recurses, but only log2(n) deep. Retracing stops
+ * at the first node whose height and aggregates are unchanged and that needs
+ * no rotation, since nothing above it can change. Add and delete adjust the
+ * counts along their path beforehand, so that counts alone never force a
+ * retrace to the root; only a delete of the smallest index, which changes
+ * minIndex up to the root anyway, retraces the whole path and leaves the
+ * counts to it.
  *
  * @param <E> the type of elements maintained by this tree
  */
@@ -14,6 +40,11 @@ public class AVLTree<E extends Comparable<E>> extends AbstractTree<E, AVLTreeNod
      */
     public AVLTreeNode<E> root;
 
+    private static final int INITIAL_PATH_LENGTH = 48; // Enough for any tree of up to 2^32 nodes
+
+    // Nodes visited by the current add, delete or join, from the root down
+    private AVLTreeNode<E>[] path = newPath(INITIAL_PATH_LENGTH);
+
     /**
      * Performs an inorder traversal of the AVL tree, printing each node.
      *
@@ -21,12 +52,7 @@ public class AVLTree<E extends Comparable<E>> extends AbstractTree<E, AVLTreeNod
      */
     @Override
     public void inorder(AVLTreeNode<E> node) {
-        if (node == null) {
-            return;
-        }
-        inorder(node.left);
-        System.out.println(node.toString());
-        inorder(node.right);
+        forEachInorder(node, n -> System.out.println(n.toString()));
     }
 
     /**
@@ -42,6 +68,19 @@ public class AVLTree<E extends Comparable<E>> extends AbstractTree<E, AVLTreeNod
         return N.height;
     }
 
+    /**
+     * Returns the number of nodes in the subtree of a given node.
+     *
+     * @param N the node
+     * @return the node count of the subtree, or 0 if null
+     */
+    int count(AVLTreeNode<E> N) {
+        if (N == null) {
+            return 0;
+        }
+        return N.count;
+    }
+
     /**
      * Finds the minimum index of a node with value >= item.
      *
@@ -54,31 +93,25 @@ public class AVLTree<E extends Comparable<E>> extends AbstractTree<E, AVLTreeNod
     }
 
     /**
-     * Helper method for find operation.
+     * Helper method for find operation. The nodes with a value >= item form a
+     * suffix of the tree's order, so one descent visits them all: whenever a
+     * node qualifies, so does its whole right subtree.
      *
      * @param node the current node
      * @param item the value to search for
      * @return the minimum index, or Integer.MAX_VALUE if not found
      */
     private int find(AVLTreeNode<E> node, E item) {
-        if (node == null) {
-            return Integer.MAX_VALUE;
-        }
-
-        int cmp = item.compareTo(node.value);
-
-        if (cmp > 0) {
-            return find(node.right, item);
-        }
-        if (cmp < 0) {
-            int rightMinIndex = node.right == null ? Integer.MAX_VALUE : node.right.minIndex;
-            int minIndex = Math.min(node.index, rightMinIndex);
-            minIndex = Math.min(minIndex, find(node.left, item));
-            return minIndex;
+        int minIndex = Integer.MAX_VALUE;
+        while (node != null) {
+            if (item.compareTo(node.value) <= 0) {
+                int rightMinIndex = node.right == null ? Integer.MAX_VALUE : node.right.minIndex;
+                minIndex = Math.min(minIndex, Math.min(node.index, rightMinIndex));
+                node = node.left;
+            } else {
+                node = node.right;
+            }
         }
-
-        int minIndex = Math.min(find(node.left, item), find(node.right, item));
-        minIndex = Math.min(minIndex, node.index);
         return minIndex;
     }
 
@@ -88,130 +121,348 @@ public class AVLTree<E extends Comparable<E>> extends AbstractTree<E, AVLTreeNod
      * @param index the index associated with the value
      * @param item the value to add
      */
+    @Override
     public void add(int index, E item) {
-        this.root = add(this.root, index, item);
+        AVLTreeNode<E>[] path = ensurePath(height(this.root));
+        int depth = 0;
+        boolean left = false;
+        AVLTreeNode<E> node = this.root;
+        while (node != null) {
+            left = compare(item, index, node) <= 0;
+            path[depth++] = node;
+            node = left ? node.left : node.right;
+        }
+
+        for (int i = 0; i < depth; i++) {
+            path[i].count++;
+        }
+
+        // A leaf has height 1, so that it is distinguished from an empty subtree
+        AVLTreeNode<E> leaf = newNode(item, index);
+        update(leaf);
+        if (depth > 0) {
+            if (left) {
+                path[depth - 1].left = leaf;
+            } else {
+                path[depth - 1].right = leaf;
+            }
+        }
+        this.root = retrace(depth, leaf, depth);
+        size++;
     }
 
     /**
-     * Helper method for add operation. Inserts a node and rebalances the tree
-     * if necessary.
+     * Deletes a node with the given index and value from the AVL tree.
      *
-     * @param node the current node
      * @param index the index associated with the value
-     * @param item the value to add
-     * @return the new root of the subtree
+     * @param item the value to delete
      */
-    private AVLTreeNode<E> add(AVLTreeNode<E> node, int index, E item) {
+    @Override
+    public void delete(int index, E item) {
+        AVLTreeNode<E>[] path = ensurePath(height(this.root));
+        int depth = 0;
+        AVLTreeNode<E> node = this.root;
+        int cmp;
+        while (node != null && (cmp = compare(item, index, node)) != 0) {
+            path[depth++] = node;
+            node = cmp < 0 ? node.left : node.right;
+        }
         if (node == null) {
-            return new AVLTreeNode<>(item, index);
+            return; // Not found: nothing changed
         }
 
-        int cmp = item.compareTo(node.value);
-        if (cmp <= 0) {
-            node.left = add(node.left, index, item);
+        AVLTreeNode<E> replacement;
+        int exitDepth = depth;
+        if (node.left == null || node.right == null) {
+            replacement = (node.left != null) ? node.left : node.right;
         } else {
-            node.right = add(node.right, index, item);
+            // Move the in-order successor's entry into this node and unlink the
+            // successor instead, which has no left child. This node's index
+            // changes, so retracing must reach it before it may stop.
+            path[depth++] = node;
+            AVLTreeNode<E> successor = node.right;
+            while (successor.left != null) {
+                path[depth++] = successor;
+                successor = successor.left;
+            }
+            node.value = successor.value;
+            node.index = successor.index;
+            node = successor;
+            replacement = successor.right;
         }
+        if (depth > 0 && index == path[0].minIndex) {
+            // The smallest index of the tree is deleted, so minIndex changes
+            // on every node of the path and retracing cannot stop early:
+            // leave the counts to it rather than adjusting them beforehand
+            exitDepth = -1;
+        } else {
+            for (int i = 0; i < depth; i++) {
+                path[i].count--;
+            }
+        }
+        if (depth > 0) {
+            AVLTreeNode<E> parent = path[depth - 1];
+            if (parent.left == node) {
+                parent.left = replacement;
+            } else {
+                parent.right = replacement;
+            }
+        }
+        this.root = retrace(depth, replacement, exitDepth);
+        size--;
+    }
 
-        node.height = 1 + Math.max(height(node.left), height(node.right));
-
-        int balance = getBalance(node);
-
-        // Left Left Case
-        if (balance > 1 && item.compareTo(node.left.value) <= 0) {
-            return rightRotate(node);
+    /**
+     * Replaces the contents of this tree with the given entries in O(n). The
+     * entries must be sorted by (value, index), without duplicates; the tree
+     * is then built perfectly balanced, without a single rotation.
+     *
+     * @param indexes the indexes of the entries
+     * @param values the values of the entries, in the same order; a random
+     * access list, such as an ArrayList
+     * @throws IllegalArgumentException if the lengths differ or the entries
+     * are not strictly increasing
+     */
+    public void buildFromSorted(int[] indexes, List<? extends E> values) {
+        if (indexes.length != values.size()) {
+            throw new IllegalArgumentException("Got " + indexes.length + " indexes for " + values.size() + " values.");
         }
+        for (int i = 1; i < indexes.length; i++) {
+            int cmp = values.get(i - 1).compareTo(values.get(i));
+            if (cmp > 0 || cmp == 0 && indexes[i - 1] >= indexes[i]) {
+                throw new IllegalArgumentException("Entries are not sorted at position " + i + ".");
+            }
+        }
+        this.root = build(indexes, values, 0, indexes.length);
+        this.size = indexes.length;
+    }
 
-        // Right Right Case
-        if (balance < -1 && item.compareTo(node.right.value) > 0) {
-            return leftRotate(node);
+    /**
+     * Creates a tree holding the given entries in O(n).
+     *
+     * @param indexes the indexes of the entries
+     * @param values the values of the entries, in the same order, sorted as
+     * required by {@link #buildFromSorted}
+     * @param <E> the type of elements maintained by the tree
+     * @return the new tree
+     * @throws IllegalArgumentException if the lengths differ or the entries
+     * are not strictly increasing
+     */
+    public static <E extends Comparable<E>> AVLTree<E> fromSorted(int[] indexes, List<? extends E> values) {
+        AVLTree<E> tree = new AVLTree<>();
+        tree.buildFromSorted(indexes, values);
+        return tree;
+    }
+
+    /**
+     * Builds a perfectly balanced subtree from a range of sorted entries.
+     *
+     * @param indexes the indexes of the entries
+     * @param values the values of the entries
+     * @param from the first position of the range, inclusive
+     * @param to the last position of the range, exclusive
+     * @return the root of the subtree
+     */
+    private AVLTreeNode<E> build(int[] indexes, List<? extends E> values, int from, int to) {
+        if (from >= to) {
+            return null;
         }
+        int mid = (from + to) >>> 1;
+        AVLTreeNode<E> node = newNode(values.get(mid), indexes[mid]);
+        node.left = build(indexes, values, from, mid);
+        node.right = build(indexes, values, mid + 1, to);
+        update(node);
+        return node;
+    }
 
-        // Left Right Case
-        if (balance > 1 && item.compareTo(node.left.value) > 0) {
-            node.left = leftRotate(node.left);
-            return rightRotate(node);
+    /**
+     * Splits this tree in O(log n): the entries with a value of at least
+     * {@code key} are moved to a new tree, and the others stay in this one.
+     *
+     * @param key the smallest value moved to the new tree
+     * @return a tree holding the entries whose value is >= key
+     */
+    public AVLTree<E> split(E key) {
+        // Record the search path first: join reuses the shared path array
+        AVLTreeNode<E>[] nodes = newPath(height(this.root));
+        boolean[] atLeastKey = new boolean[nodes.length];
+        int depth = 0;
+        for (AVLTreeNode<E> node = this.root; node != null; depth++) {
+            nodes[depth] = node;
+            atLeastKey[depth] = key.compareTo(node.value) <= 0;
+            node = atLeastKey[depth] ? node.left : node.right;
         }
 
-        // Right Left Case
-        if (balance < -1 && item.compareTo(node.right.value) <= 0) {
-            node.right = rightRotate(node.right);
-            return leftRotate(node);
+        // Bottom-up, each node joins its untouched subtree with the part of
+        // the other side already split below it
+        AVLTreeNode<E> below = null;
+        AVLTreeNode<E> above = null;
+        for (int i = depth - 1; i >= 0; i--) {
+            AVLTreeNode<E> node = nodes[i];
+            if (atLeastKey[i]) {
+                above = join(above, node, node.right);
+            } else {
+                below = join(node.left, node, below);
+            }
         }
 
-        adjustMinIndex(node);
-        return node;
+        AVLTree<E> other = newTree();
+        other.root = above;
+        other.size = count(above);
+        this.root = below;
+        this.size = count(below);
+        return other;
     }
 
     /**
-     * Returns the node with the minimum value in the given subtree.
+     * Moves every entry of another tree into this one in O(log n). All its
+     * entries must come after those of this tree in (value, index) order, as
+     * after {@link #split}; the other tree is left empty.
      *
-     * @param node the root of the subtree
-     * @return the node with the minimum value
+     * @param other the tree to append
+     * @throws IllegalArgumentException if the trees overlap or are the same
      */
-    private AVLTreeNode<E> minValueNode(AVLTreeNode<E> node) {
-        AVLTreeNode<E> current = node;
-        while (current.left != null) {
-            current = current.left;
+    public void join(AVLTree<E> other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot join a tree with itself.");
+        }
+        if (other.root == null) {
+            return;
+        }
+        if (this.root != null) {
+            AVLTreeNode<E> last = this.root;
+            while (last.right != null) {
+                last = last.right;
+            }
+            AVLTreeNode<E> first = other.root;
+            while (first.left != null) {
+                first = first.left;
+            }
+            if (compare(first.value, first.index, last) <= 0) {
+                throw new IllegalArgumentException("Joined entries must all come after this tree's entries.");
+            }
+            // The other tree's first node has no left child, so deleting it
+            // unlinks that very node, which then joins the two trees
+            other.delete(first.index, first.value);
+            this.root = join(this.root, first, other.root);
+        } else {
+            this.root = other.root;
         }
-        return current;
+        this.size = count(this.root);
+        other.root = null;
+        other.size = 0;
     }
 
     /**
-     * Deletes a node with the given index and value from the AVL tree.
+     * Joins two subtrees and a middle node, whose entry lies between them,
+     * into one AVL tree. Descends the taller subtree along its inner spine to
+     * a node as tall as the shorter subtree, hangs the middle node there and
+     * rebalances back up, in O(1 + height difference).
      *
-     * @param index the index associated with the value
-     * @param item the value to delete
+     * @param left the subtree of smaller entries, or null
+     * @param middle the middle node, whose children are overwritten
+     * @param right the subtree of larger entries, or null
+     * @return the root of the joined tree
      */
-    @Override
-    public void delete(int index, E item) {
-        this.root = delete(this.root, index, item);
+    private AVLTreeNode<E> join(AVLTreeNode<E> left, AVLTreeNode<E> middle, AVLTreeNode<E> right) {
+        AVLTreeNode<E>[] path = ensurePath(Math.max(height(left), height(right)));
+        int depth = 0;
+        boolean leftTaller = height(left) > height(right) + 1;
+        if (leftTaller) {
+            while (height(left) > height(right) + 1) {
+                path[depth++] = left;
+                left = left.right;
+            }
+        } else {
+            while (height(right) > height(left) + 1) {
+                path[depth++] = right;
+                right = right.left;
+            }
+        }
+        middle.left = left;
+        middle.right = right;
+        update(middle);
+        if (depth > 0) {
+            if (leftTaller) {
+                path[depth - 1].right = middle;
+            } else {
+                path[depth - 1].left = middle;
+            }
+        }
+        // The counts on the path are not adjusted beforehand, so retracing
+        // must not stop early
+        return retrace(depth, middle, -1);
     }
 
     /**
-     * Helper method for delete operation. Removes a node and rebalances the
-     * tree if necessary.
+     * Returns the path array, grown first if a path through a tree of the
+     * given height would not fit, so descents need no bounds checks.
      *
-     * @param node the current node
-     * @param index the index associated with the value
-     * @param item the value to delete
-     * @return the new root of the subtree
+     * @param height the height of the tree to descend
+     * @return the path array
      */
-    private AVLTreeNode<E> delete(AVLTreeNode<E> node, int index, E item) {
-        if (node == null) {
-            return node;
+    private AVLTreeNode<E>[] ensurePath(int height) {
+        if (path.length < height) {
+            path = Arrays.copyOf(path, height * 2);
         }
+        return path;
+    }
 
-        int cmp = item.compareTo(node.value);
-
-        if (cmp < 0) {
-            node.left = delete(node.left, index, item);
-        } else if (cmp > 0) {
-            node.right = delete(node.right, index, item);
-        } else if (index != node.index) {
-            node.left = delete(node.left, index, item);
-            node.right = delete(node.right, index, item);
-        } else {
-            if (node.left == null || node.right == null) {
-                AVLTreeNode<E> temp = (node.left != null) ? node.left : node.right;
-
-                if (temp == null) {
-                    node = null;
+    /**
+     * Updates and rebalances the nodes of the path bottom-up, once the caller
+     * has linked the new subtree below the deepest one; a node that a
+     * rotation replaces is relinked to its parent by identity. Stops early at
+     * a node that is unchanged and stays the root of its subtree: its
+     * ancestors only depend on its height and aggregates, so they are already
+     * up to date.
+     *
+     * @param depth the number of nodes on the path
+     * @param child the subtree linked below path[depth - 1]
+     * @param exitDepth the depth from which retracing may stop early
+     * @return the new root of the tree holding the path
+     */
+    private AVLTreeNode<E> retrace(int depth, AVLTreeNode<E> child, int exitDepth) {
+        AVLTreeNode<E>[] path = this.path;
+        for (int i = depth - 1; i >= 0; i--) {
+            AVLTreeNode<E> node = path[i];
+            boolean changed = update(node);
+            child = rebalance(node);
+            if (i <= exitDepth && !changed && child == node) {
+                return path[0];
+            }
+            if (i > 0 && child != node) {
+                AVLTreeNode<E> parent = path[i - 1];
+                if (parent.left == node) {
+                    parent.left = child;
                 } else {
-                    node = temp;
+                    parent.right = child;
                 }
-            } else {
-                AVLTreeNode<E> temp = minValueNode(node.right);
-                AVLTreeNode.copyTo(temp, node);
-                node.right = delete(node.right, temp.index, temp.value);
             }
         }
+        return child;
+    }
 
-        if (node == null) {
-            return node;
-        }
+    /**
+     * Orders an entry against a node by the composite key (value, index).
+     *
+     * @param item the value of the entry
+     * @param index the index of the entry
+     * @param node the node to compare to
+     * @return negative, zero or positive as the entry is before, at or after
+     * the node
+     */
+    private int compare(E item, int index, AVLTreeNode<E> node) {
+        int cmp = item.compareTo(node.value);
+        return cmp != 0 ? cmp : Integer.compare(index, node.index);
+    }
 
-        node.height = Math.max(height(node.left), height(node.right)) + 1;
+    /**
+     * Restores the balance of an up-to-date node by rotating if needed.
+     *
+     * @param node the node to rebalance
+     * @return the new root of the subtree
+     */
+    private AVLTreeNode<E> rebalance(AVLTreeNode<E> node) {
         int balance = getBalance(node);
 
         // Left Left Case
@@ -236,7 +487,6 @@ public class AVLTree<E extends Comparable<E>> extends AbstractTree<E, AVLTreeNod
             return leftRotate(node);
         }
 
-        adjustMinIndex(node);
         return node;
     }
 
@@ -257,11 +507,8 @@ public class AVLTree<E extends Comparable<E>> extends AbstractTree<E, AVLTreeNod
         x.right = y;
         y.left = T2;
 
-        y.height = Math.max(height(y.left), height(y.right)) + 1;
-        x.height = Math.max(height(x.left), height(x.right)) + 1;
-
-        adjustMinIndex(y);
-        adjustMinIndex(x);
+        update(y);
+        update(x);
 
         return x;
     }
@@ -283,11 +530,8 @@ public class AVLTree<E extends Comparable<E>> extends AbstractTree<E, AVLTreeNod
         y.left = x;
         x.right = T2;
 
-        x.height = Math.max(height(x.left), height(x.right)) + 1;
-        y.height = Math.max(height(y.left), height(y.right)) + 1;
-
-        adjustMinIndex(x);
-        adjustMinIndex(y);
+        update(x);
+        update(y);
 
         return y;
     }
@@ -306,22 +550,64 @@ public class AVLTree<E extends Comparable<E>> extends AbstractTree<E, AVLTreeNod
     }
 
     /**
-     * Adjusts the minIndex property for the given node and its subtree.
+     * Recomputes the height, minIndex, count and any subclass aggregates of a
+     * node from its children.
      *
-     * @param node the node to adjust
-     * @return the minimum index in the subtree
+     * @param node the node to update
+     * @return true if any of them changed
      */
-    private int adjustMinIndex(AVLTreeNode<E> node) {
-        if (node == null) {
-            return Integer.MAX_VALUE;
-        }
+    private boolean update(AVLTreeNode<E> node) {
+        int height = Math.max(height(node.left), height(node.right)) + 1;
         int minIndex = node.index;
         int leftMinIndex = node.left == null ? Integer.MAX_VALUE : node.left.minIndex;
         int rightMinIndex = node.right == null ? Integer.MAX_VALUE : node.right.minIndex;
         minIndex = Math.min(minIndex, leftMinIndex);
         minIndex = Math.min(minIndex, rightMinIndex);
+        int count = count(node.left) + count(node.right) + 1;
+        boolean changed = height != node.height || minIndex != node.minIndex || count != node.count;
+        node.height = height;
         node.minIndex = minIndex;
-        return minIndex;
+        node.count = count;
+        boolean augmented = augment(node);
+        return changed || augmented;
+    }
+
+    /**
+     * Hook for subclasses that maintain extra per-subtree aggregates. Called
+     * bottom-up whenever a node's children change, including after rotations,
+     * once its children are up to date. Does nothing by default.
+     * <p>
+     * The return value lets add and delete stop retracing early: an override
+     * must return true whenever it changed the node's aggregates, or ancestors
+     * may be left stale.
+     *
+     * @param node the node whose aggregates need recomputing
+     * @return true if the node's aggregates changed
+     */
+    protected boolean augment(AVLTreeNode<E> node) {
+        return false;
+    }
+
+    /**
+     * Creates an empty tree of the same kind, to hold the entries split off
+     * by {@link #split}. Subclasses override this to return their own type.
+     *
+     * @return the new tree
+     */
+    protected AVLTree<E> newTree() {
+        return new AVLTree<>();
+    }
+
+    /**
+     * Creates the node for a new entry. Subclasses override this to return a
+     * node subclass with room for their aggregates.
+     *
+     * @param item the value of the entry
+     * @param index the index of the entry
+     * @return the new node
+     */
+    protected AVLTreeNode<E> newNode(E item, int index) {
+        return new AVLTreeNode<>(item, index);
     }
 
     /**
@@ -342,12 +628,33 @@ public class AVLTree<E extends Comparable<E>> extends AbstractTree<E, AVLTreeNod
      */
     @Override
     protected void inorderTraversal(List<E> list, AVLTreeNode<E> node) {
-        if (node == null) {
-            return;
+        forEachInorder(node, n -> list.add(n.value));
+    }
+
+    /**
+     * Visits the nodes of a subtree in order, using an explicit stack as deep
+     * as the subtree.
+     *
+     * @param node the root of the subtree
+     * @param action the action to perform on each node
+     */
+    private void forEachInorder(AVLTreeNode<E> node, Consumer<AVLTreeNode<E>> action) {
+        AVLTreeNode<E>[] stack = newPath(height(node));
+        int top = 0;
+        while (node != null || top > 0) {
+            while (node != null) {
+                stack[top++] = node;
+                node = node.left;
+            }
+            node = stack[--top];
+            action.accept(node);
+            node = node.right;
         }
-        inorderTraversal(list, node.left);
-        list.add(node.value);
-        inorderTraversal(list, node.right);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Comparable<E>> AVLTreeNode<E>[] newPath(int length) {
+        return (AVLTreeNode<E>[]) new AVLTreeNode<?>[length];
     }
 
     /**
@@ -359,4 +666,19 @@ public class AVLTree<E extends Comparable<E>> extends AbstractTree<E, AVLTreeNod
     protected AVLTreeNode<E> getRoot() {
         return this.root;
     }
+
+    @Override
+    protected AVLTreeNode<E> left(AVLTreeNode<E> node) {
+        return node.left;
+    }
+
+    @Override
+    protected AVLTreeNode<E> right(AVLTreeNode<E> node) {
+        return node.right;
+    }
+
+    @Override
+    protected E value(AVLTreeNode<E> node) {
+        return node.value;
+    }
 }
@@ -19,6 +19,10 @@ public class AVLTreeNode<E extends Comparable<E>> {
      * The height of the node in the AVL tree.
      */
     public int height;
+    /**
+     * The number of nodes in the subtree rooted at this node.
+     */
+    public int count = 1;
     /**
      * The index associated with the value.
      */
@@ -1,12 +1,23 @@
 package app.avltree;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 /**
  * Abstract base class for tree implementations. Provides common functionality
  * like size tracking and inorder iteration.
+ * <p>
+ * Iteration is lazy: iterators and spliterators walk the tree with a stack of
+ * at most one node per level, so an early-exit scan only visits the nodes it
+ * needs and nothing is copied. The tree must not be modified while they are
+ * in use.
  *
  * @param <E> the type of elements stored in the tree, must be comparable
  * @param <N> the type of the nodes used in the tree implementation
@@ -45,18 +56,67 @@ public abstract class AbstractTree<E extends Comparable<E>, N> implements Tree<E
      */
     @Override
     public Iterator<E> iterator() {
-        return new InorderIterator();
+        return new InorderIterator(getRoot(), null, null);
     }
 
     /**
-     * Inner class providing an inorder iterator implementation.
+     * Returns an iterator over the elements between two keys, inclusive, in
+     * inorder sequence. Only the nodes on the path to the first element and
+     * the elements returned are visited.
+     *
+     * @param from the smallest element to return, or null for no lower bound.
+     * @param to the largest element to return, or null for no upper bound.
+     * @return an inorder iterator over the range.
+     */
+    @Override
+    public Iterator<E> iterator(E from, E to) {
+        return new InorderIterator(getRoot(), from, to);
+    }
+
+    /**
+     * Returns a spliterator over the elements in the tree in inorder sequence.
+     * It splits at subtree boundaries, so a parallel stream over the tree
+     * divides the work without copying any element.
+     *
+     * @return an inorder spliterator.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new TreeSpliterator(null, getRoot(), size, true);
+    }
+
+    /**
+     * Inner class providing a lazy inorder iterator implementation, optionally
+     * bounded by a range of keys.
      */
     private class InorderIterator implements Iterator<E> {
 
-        // Stores the elements in inorder sequence
-        private final List<E> elements = getInorderList();
-        // Tracks the current position in the list
-        private int current = 0;
+        // Nodes whose value has not been returned yet, the next one on top;
+        // the right subtree of each is still to be visited after it
+        private final Deque<N> stack = new ArrayDeque<>();
+        // Largest element to return, or null
+        private final E to;
+
+        /**
+         * Creates an iterator over the elements of a subtree between two keys.
+         *
+         * @param node the root of the subtree.
+         * @param from the smallest element to return, or null.
+         * @param to the largest element to return, or null.
+         */
+        InorderIterator(N node, E from, E to) {
+            this.to = to;
+            // Stack the path to the first element >= from: the nodes where the
+            // descent goes left are exactly those still to be returned
+            while (node != null) {
+                if (from == null || value(node).compareTo(from) >= 0) {
+                    stack.push(node);
+                    node = left(node);
+                } else {
+                    node = right(node);
+                }
+            }
+        }
 
         /**
          * Checks if there are more elements to iterate over.
@@ -65,7 +125,7 @@ public abstract class AbstractTree<E extends Comparable<E>, N> implements Tree<E
          */
         @Override
         public boolean hasNext() {
-            return current < elements.size();
+            return !stack.isEmpty() && (to == null || value(stack.peek()).compareTo(to) <= 0);
         }
 
         /**
@@ -75,7 +135,102 @@ public abstract class AbstractTree<E extends Comparable<E>, N> implements Tree<E
          */
         @Override
         public E next() {
-            return elements.get(current++);
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            N node = stack.pop();
+            for (N child = right(node); child != null; child = left(child)) {
+                stack.push(child);
+            }
+            return value(node);
+        }
+    }
+
+    /**
+     * Inner class providing a spliterator that covers one node followed by a
+     * whole subtree. Splitting hands the node and the left part of the subtree
+     * to a new spliterator and keeps the subtree's root and its right child,
+     * so both halves are again a node and a subtree.
+     */
+    private class TreeSpliterator implements Spliterator<E> {
+
+        // Visited first, or null
+        private N first;
+        // Visited after first, or null
+        private N subtree;
+        // Set once traversal has started; no more splitting after that
+        private InorderIterator traversal;
+        // Exact size while the spliterator has not been split, else an estimate
+        private long estimate;
+        private boolean exact;
+
+        TreeSpliterator(N first, N subtree, long estimate, boolean exact) {
+            this.first = first;
+            this.subtree = subtree;
+            this.estimate = estimate;
+            this.exact = exact;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            if (traversal != null || subtree == null || (first == null && left(subtree) == null)) {
+                return null;
+            }
+            // An AVL subtree's children differ in height by at most one, so
+            // halving the estimate is a fair guess
+            estimate >>>= 1;
+            exact = false;
+            Spliterator<E> prefix = new TreeSpliterator(first, left(subtree), estimate, false);
+            first = subtree;
+            subtree = right(subtree);
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (first != null) {
+                N node = first;
+                first = null;
+                consumed();
+                action.accept(value(node));
+                return true;
+            }
+            if (traversal == null) {
+                traversal = new InorderIterator(subtree, null, null);
+            }
+            if (!traversal.hasNext()) {
+                return false;
+            }
+            E element = traversal.next();
+            consumed();
+            action.accept(element);
+            return true;
+        }
+
+        private void consumed() {
+            if (estimate > 0) {
+                estimate--;
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL | (exact ? Spliterator.SIZED : 0);
+        }
+
+        /**
+         * Returns null, as elements are sorted in their natural order.
+         *
+         * @return null.
+         */
+        @Override
+        public Comparator<? super E> getComparator() {
+            return null;
         }
     }
 
@@ -107,4 +262,31 @@ public abstract class AbstractTree<E extends Comparable<E>, N> implements Tree<E
      * @return the root node.
      */
     protected abstract N getRoot();
+
+    /**
+     * Returns the left child of a node. Concrete subclasses must implement
+     * this method.
+     *
+     * @param node the node.
+     * @return the left child, or null if there is none.
+     */
+    protected abstract N left(N node);
+
+    /**
+     * Returns the right child of a node. Concrete subclasses must implement
+     * this method.
+     *
+     * @param node the node.
+     * @return the right child, or null if there is none.
+     */
+    protected abstract N right(N node);
+
+    /**
+     * Returns the element stored in a node. Concrete subclasses must
+     * implement this method.
+     *
+     * @param node the node.
+     * @return the element.
+     */
+    protected abstract E value(N node);
 }
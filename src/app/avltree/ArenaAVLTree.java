@@ -0,0 +1,399 @@
+package app.avltree;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * AVL tree whose nodes live in parallel primitive arrays instead of
+ * {@link AVLTreeNode} objects.
+ * <p>
+ * A node is a slot number: its children, height, index and subtree minimum
+ * index are stored in {@code int[]} arrays and its key in a {@code double[]},
+ * so a search walks a few dense arrays instead of objects scattered across the
+ * heap, and nodes carry no object header. Deleted slots go on a free list,
+ * chained through the left-child array, and are reused by later adds, so a
+ * delete/reinsert cycle allocates nothing.
+ * <p>
+ * Entries are ordered by (key, index), where the key of an element is given by
+ * a {@link ToDoubleFunction}, e.g. the remaining capacity of a truck. The
+ * element itself is kept alongside, for iteration. As in {@link AVLTree}, the
+ * key must not change while the element is in the tree, and the elements'
+ * natural order must agree with their keys for range iteration. Add, delete
+ * and find behave exactly as in {@link AVLTree}, with the same path-array
+ * retracing and early exit.
+ *
+ * @param <E> the type of elements maintained by this tree
+ */
+public class ArenaAVLTree<E extends Comparable<E>> extends AbstractTree<E, Integer> {
+
+    private static final int NIL = -1; // No node
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int INITIAL_PATH_LENGTH = 48; // Enough for any tree of up to 2^32 nodes
+
+    private final ToDoubleFunction<? super E> keyOf;
+
+    private int[] left;
+    private int[] right;
+    private int[] height;
+    private int[] index;
+    private int[] minIndex;
+    private double[] key;
+    private Object[] values;
+
+    private int root = NIL;
+    private int freeList = NIL; // First free slot, or NIL
+    private int used = 0; // Slots ever handed out; slots from here on are untouched
+
+    // Slots visited by the current add or delete, from the root down;
+    // wentLeft[i] tells whether path[i + 1] is the left child of path[i]
+    private int[] path = new int[INITIAL_PATH_LENGTH];
+    private boolean[] wentLeft = new boolean[INITIAL_PATH_LENGTH];
+
+    /**
+     * Constructs an empty tree.
+     *
+     * @param keyOf the key of an element, which orders the tree
+     */
+    public ArenaAVLTree(ToDoubleFunction<? super E> keyOf) {
+        this(keyOf, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty tree with room for a number of nodes before its
+     * arrays need to grow.
+     *
+     * @param keyOf the key of an element, which orders the tree
+     * @param initialCapacity the number of nodes to allocate up front
+     */
+    public ArenaAVLTree(ToDoubleFunction<? super E> keyOf, int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Initial capacity must be at least 1.");
+        }
+        this.keyOf = keyOf;
+        this.left = new int[initialCapacity];
+        this.right = new int[initialCapacity];
+        this.height = new int[initialCapacity];
+        this.index = new int[initialCapacity];
+        this.minIndex = new int[initialCapacity];
+        this.key = new double[initialCapacity];
+        this.values = new Object[initialCapacity];
+    }
+
+    /**
+     * Finds the minimum index of an entry whose key is >= the key of item.
+     *
+     * @param item the value to search for
+     * @return the minimum index, or Integer.MAX_VALUE if not found
+     */
+    @Override
+    public int find(E item) {
+        double itemKey = keyOf.applyAsDouble(item);
+        int result = Integer.MAX_VALUE;
+        int node = root;
+        while (node != NIL) {
+            if (Double.compare(itemKey, key[node]) <= 0) {
+                int rightMinIndex = right[node] == NIL ? Integer.MAX_VALUE : minIndex[right[node]];
+                result = Math.min(result, Math.min(index[node], rightMinIndex));
+                node = left[node];
+            } else {
+                node = right[node];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds a new entry with the given index and value to the tree.
+     *
+     * @param index the index associated with the value
+     * @param item the value to add
+     */
+    @Override
+    public void add(int index, E item) {
+        double itemKey = keyOf.applyAsDouble(item);
+        int depth = 0;
+        int node = root;
+        while (node != NIL) {
+            boolean goLeft = compare(itemKey, index, node) <= 0;
+            push(depth++, node, goLeft);
+            node = goLeft ? left[node] : right[node];
+        }
+
+        int leaf = allocate();
+        left[leaf] = NIL;
+        right[leaf] = NIL;
+        height[leaf] = 1;
+        this.index[leaf] = index;
+        minIndex[leaf] = index;
+        key[leaf] = itemKey;
+        values[leaf] = item;
+        root = retrace(depth, leaf, depth);
+        size++;
+    }
+
+    /**
+     * Deletes the entry with the given index and value from the tree.
+     *
+     * @param index the index associated with the value
+     * @param item the value to delete
+     */
+    @Override
+    public void delete(int index, E item) {
+        double itemKey = keyOf.applyAsDouble(item);
+        int depth = 0;
+        int node = root;
+        int cmp;
+        while (node != NIL && (cmp = compare(itemKey, index, node)) != 0) {
+            push(depth++, node, cmp < 0);
+            node = cmp < 0 ? left[node] : right[node];
+        }
+        if (node == NIL) {
+            return; // Not found: nothing changed
+        }
+
+        int replacement;
+        int exitDepth = depth;
+        int removed = node;
+        if (left[node] == NIL || right[node] == NIL) {
+            replacement = left[node] != NIL ? left[node] : right[node];
+        } else {
+            // Move the in-order successor's entry into this slot and unlink
+            // the successor instead, which has no left child. This slot's index
+            // changes, so retracing must reach it before it may stop.
+            push(depth++, node, false);
+            int successor = right[node];
+            while (left[successor] != NIL) {
+                push(depth++, successor, true);
+                successor = left[successor];
+            }
+            this.index[node] = this.index[successor];
+            key[node] = key[successor];
+            values[node] = values[successor];
+            replacement = right[successor];
+            removed = successor;
+        }
+        free(removed);
+        root = retrace(depth, replacement, exitDepth);
+        size--;
+    }
+
+    /**
+     * Orders an entry against a node by the composite key (key, index).
+     */
+    private int compare(double itemKey, int itemIndex, int node) {
+        int cmp = Double.compare(itemKey, key[node]);
+        return cmp != 0 ? cmp : Integer.compare(itemIndex, index[node]);
+    }
+
+    /**
+     * Records a slot of the path followed by add or delete, growing the path
+     * arrays if needed.
+     */
+    private void push(int depth, int node, boolean goLeft) {
+        if (depth == path.length) {
+            path = Arrays.copyOf(path, depth * 2);
+            wentLeft = Arrays.copyOf(wentLeft, depth * 2);
+        }
+        path[depth] = node;
+        wentLeft[depth] = goLeft;
+    }
+
+    /**
+     * Links a new subtree below the deepest recorded slot, then updates and
+     * rebalances the slots of the path bottom-up, stopping early at a slot
+     * that is unchanged and stays the root of its subtree.
+     *
+     * @param depth the number of slots on the path
+     * @param child the subtree replacing the child of path[depth - 1]
+     * @param exitDepth the depth from which retracing may stop early
+     * @return the new root of the tree
+     */
+    private int retrace(int depth, int child, int exitDepth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            int parent = path[i];
+            if (wentLeft[i]) {
+                left[parent] = child;
+            } else {
+                right[parent] = child;
+            }
+            boolean changed = update(parent);
+            child = rebalance(parent);
+            if (!changed && child == parent && i <= exitDepth) {
+                return path[0];
+            }
+        }
+        return child;
+    }
+
+    /**
+     * Restores the balance of an up-to-date slot by rotating if needed.
+     *
+     * @return the new root of the subtree
+     */
+    private int rebalance(int node) {
+        int balance = getBalance(node);
+        if (balance > 1) {
+            if (getBalance(left[node]) < 0) {
+                left[node] = leftRotate(left[node]); // Left Right Case
+            }
+            return rightRotate(node); // Left Left Case
+        }
+        if (balance < -1) {
+            if (getBalance(right[node]) > 0) {
+                right[node] = rightRotate(right[node]); // Right Left Case
+            }
+            return leftRotate(node); // Right Right Case
+        }
+        return node;
+    }
+
+    private int rightRotate(int y) {
+        int x = left[y];
+        left[y] = right[x];
+        right[x] = y;
+        update(y);
+        update(x);
+        return x;
+    }
+
+    private int leftRotate(int x) {
+        int y = right[x];
+        right[x] = left[y];
+        left[y] = x;
+        update(x);
+        update(y);
+        return y;
+    }
+
+    private int height(int node) {
+        return node == NIL ? 0 : height[node];
+    }
+
+    private int getBalance(int node) {
+        return node == NIL ? 0 : height(left[node]) - height(right[node]);
+    }
+
+    /**
+     * Recomputes the height and minIndex of a slot from its children.
+     *
+     * @return true if either changed
+     */
+    private boolean update(int node) {
+        int newHeight = Math.max(height(left[node]), height(right[node])) + 1;
+        int newMinIndex = index[node];
+        if (left[node] != NIL) {
+            newMinIndex = Math.min(newMinIndex, minIndex[left[node]]);
+        }
+        if (right[node] != NIL) {
+            newMinIndex = Math.min(newMinIndex, minIndex[right[node]]);
+        }
+        boolean changed = newHeight != height[node] || newMinIndex != minIndex[node];
+        height[node] = newHeight;
+        minIndex[node] = newMinIndex;
+        return changed;
+    }
+
+    /**
+     * Takes a slot from the free list, or a fresh one, growing the arrays by
+     * half when they are full.
+     */
+    private int allocate() {
+        if (freeList != NIL) {
+            int slot = freeList;
+            freeList = left[slot];
+            return slot;
+        }
+        if (used == key.length) {
+            int capacity = used + Math.max(used >> 1, 1);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            height = Arrays.copyOf(height, capacity);
+            index = Arrays.copyOf(index, capacity);
+            minIndex = Arrays.copyOf(minIndex, capacity);
+            key = Arrays.copyOf(key, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        return used++;
+    }
+
+    /**
+     * Puts a slot on the free list, dropping its element reference.
+     */
+    private void free(int slot) {
+        values[slot] = null;
+        left[slot] = freeList;
+        freeList = slot;
+    }
+
+    /**
+     * Prints every entry in order. The tree has no node objects, so the
+     * argument is ignored.
+     *
+     * @param node ignored
+     */
+    @Override
+    public void inorder(AVLTreeNode<E> node) {
+        for (int slot : inorderSlots(root)) {
+            System.out.println("Bin #" + index[slot] + ": " + values[slot]);
+        }
+    }
+
+    /**
+     * Returns the height of the tree.
+     *
+     * @return the height of the tree
+     */
+    @Override
+    public int getHeight() {
+        return height(root);
+    }
+
+    @Override
+    protected void inorderTraversal(List<E> list, Integer node) {
+        for (int slot : inorderSlots(node == null ? NIL : node)) {
+            list.add(value(slot));
+        }
+    }
+
+    /**
+     * Returns the slots of a subtree in order, using an explicit stack.
+     */
+    private int[] inorderSlots(int node) {
+        int[] slots = new int[size];
+        int count = 0;
+        int[] stack = new int[height(node)];
+        int top = 0;
+        while (node != NIL || top > 0) {
+            while (node != NIL) {
+                stack[top++] = node;
+                node = left[node];
+            }
+            node = stack[--top];
+            slots[count++] = node;
+            node = right[node];
+        }
+        return Arrays.copyOf(slots, count);
+    }
+
+    @Override
+    protected Integer getRoot() {
+        return root == NIL ? null : root;
+    }
+
+    @Override
+    protected Integer left(Integer node) {
+        return left[node] == NIL ? null : left[node];
+    }
+
+    @Override
+    protected Integer right(Integer node) {
+        return right[node] == NIL ? null : right[node];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected E value(Integer node) {
+        return (E) values[node];
+    }
+}
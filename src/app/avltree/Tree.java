@@ -1,5 +1,7 @@
 package app.avltree;
 
+import java.util.Iterator;
+
 /**
  * Interface defining the basic operations for a tree data structure.
  *
@@ -7,6 +9,14 @@ package app.avltree;
  */
 public interface Tree<E extends Comparable<E>> extends Iterable<E> {
 
+    /**
+     * Adds the specified element to the tree with a given index.
+     *
+     * @param index the index of the element to add.
+     * @param e the element to add.
+     */
+    void add(int index, E e);
+
     /**
      * Deletes the specified element from the tree with a given index.
      *
@@ -25,6 +35,16 @@ public interface Tree<E extends Comparable<E>> extends Iterable<E> {
      */
     int find(E item);
 
+    /**
+     * Returns an iterator over the elements between two keys, inclusive, in
+     * inorder sequence.
+     *
+     * @param from the smallest element to return, or null for no lower bound.
+     * @param to the largest element to return, or null for no upper bound.
+     * @return an inorder iterator over the range.
+     */
+    Iterator<E> iterator(E from, E to);
+
     /**
      * Performs an inorder traversal starting from the root.
      */
@@ -0,0 +1,138 @@
+package app.avltree;
+
+import java.util.function.Function;
+
+/**
+ * AVL tree whose entries each carry a vector of resources, such as the
+ * remaining weight, volume and pallet slots of a truck, and which finds the
+ * first entry in tree order that has enough of every resource.
+ * <p>
+ * Every node keeps, in each dimension, the maximum over its subtree through
+ * the {@link AVLTree#augment} hook. A subtree whose maxima do not dominate a
+ * demand holds no entry that does and is skipped whole. When a single
+ * dimension decides which entries fit, a subtree that passes this test holds
+ * a match, and the search visits at most two nodes per level, O(log n) in
+ * all. When two or more dimensions bind, the maxima of a subtree may come
+ * from different entries, so a subtree can pass without holding a match and
+ * the search backs out of it: the worst case is O(n) nodes per query, as when
+ * the entries alternate (1, 0) and (0, 1) against the demand (1, 1).
+ * {@link #getNodesVisited()} reports the cost of the last query. Ordering the
+ * entries by how tightly they are filled turns the search into a
+ * multi-resource Best Fit.
+ * <p>
+ * The vector of an element must not change while the element is in the tree.
+ *
+ * @param <E> the type of elements maintained by this tree
+ */
+public class VectorAVLTree<E extends Comparable<E>> extends AVLTree<E> {
+
+    private final Function<? super E, double[]> vectorOf;
+    private int nodesVisited; // Nodes examined by the last findFirst
+
+    /**
+     * Constructs an empty tree.
+     *
+     * @param vectorOf the resources of an element, all of the same length
+     */
+    public VectorAVLTree(Function<? super E, double[]> vectorOf) {
+        this.vectorOf = vectorOf;
+    }
+
+    /**
+     * Finds the first entry in tree order whose vector is at least the
+     * demand in every dimension.
+     *
+     * @param demand the amounts required in each dimension
+     * @return the index of that entry, or -1 if no entry dominates the demand
+     */
+    public int findFirst(double[] demand) {
+        nodesVisited = 0;
+        VectorAVLTreeNode<E> node = findFirst((VectorAVLTreeNode<E>) root, demand);
+        return node == null ? -1 : node.index;
+    }
+
+    /**
+     * Returns the number of nodes the last {@link #findFirst(double[])}
+     * examined.
+     *
+     * @return the nodes visited
+     */
+    public int getNodesVisited() {
+        return nodesVisited;
+    }
+
+    private VectorAVLTreeNode<E> findFirst(VectorAVLTreeNode<E> node, double[] demand) {
+        if (node == null) {
+            return null;
+        }
+        nodesVisited++;
+        if (!dominates(node.max, demand)) {
+            return null;
+        }
+        VectorAVLTreeNode<E> found = findFirst((VectorAVLTreeNode<E>) node.left, demand);
+        if (found != null) {
+            return found;
+        }
+        if (dominates(vectorOf.apply(node.value), demand)) {
+            return node;
+        }
+        return findFirst((VectorAVLTreeNode<E>) node.right, demand);
+    }
+
+    private static boolean dominates(double[] values, double[] demand) {
+        for (int d = 0; d < demand.length; d++) {
+            if (!(values[d] >= demand[d])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Recomputes the maxima of a node from its own vector and its children's
+     * maxima.
+     */
+    @Override
+    protected boolean augment(AVLTreeNode<E> node) {
+        VectorAVLTreeNode<E> vectorNode = (VectorAVLTreeNode<E>) node;
+        double[] own = vectorOf.apply(node.value);
+        double[] left = node.left == null ? null : ((VectorAVLTreeNode<E>) node.left).max;
+        double[] right = node.right == null ? null : ((VectorAVLTreeNode<E>) node.right).max;
+        boolean changed = false;
+        for (int d = 0; d < own.length; d++) {
+            double max = own[d];
+            if (left != null) {
+                max = Math.max(max, left[d]);
+            }
+            if (right != null) {
+                max = Math.max(max, right[d]);
+            }
+            changed |= vectorNode.max[d] != max;
+            vectorNode.max[d] = max;
+        }
+        return changed;
+    }
+
+    @Override
+    protected AVLTree<E> newTree() {
+        return new VectorAVLTree<E>(vectorOf);
+    }
+
+    @Override
+    protected AVLTreeNode<E> newNode(E item, int index) {
+        return new VectorAVLTreeNode<>(item, index, vectorOf.apply(item).clone());
+    }
+
+    /**
+     * A node with the per-dimension maxima of its subtree.
+     */
+    private static final class VectorAVLTreeNode<E extends Comparable<E>> extends AVLTreeNode<E> {
+
+        final double[] max;
+
+        VectorAVLTreeNode(E value, int index, double[] max) {
+            super(value, index);
+            this.max = max;
+        }
+    }
+}
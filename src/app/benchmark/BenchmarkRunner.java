@@ -0,0 +1,265 @@
+package app.benchmark;
+
+import app.avltree.AVLTree;
+import app.avltree.ArenaAVLTree;
+import app.io.OutputFormatter;
+import app.model.Parcel;
+import app.model.ParcelBatch;
+import app.model.Result;
+import app.model.WeightScale;
+import app.strategy.StrategyRegistry;
+import app.strategy.TruckLoadingStrategy;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line entry point of the benchmark suite.
+ * <p>
+ * Every (benchmark, parcel count, capacity) combination is measured in
+ * {@code --forks} separate JVMs, so class loading, JIT decisions and heap
+ * layout of one run do not leak into another. Each fork warms up before
+ * measuring (see {@link Harness}). The parent process aggregates the forks and
+ * prints the measurement table followed by the growth-rate / exponent table
+ * of {@link OutputFormatter#displayComparison}.
+ * <p>
+ * Options (all optional):
+ * <pre>
+ *   --benchmarks FirstFitStrategy,BestFitStrategy,AVLTree.add,AVLTree.fromSorted,AVLTree.find,AVLTree.delete,ArenaAVLTree.add
+ *   --counts     10,100,1000,10000,100000,1000000,10000000
+ *   --capacities 100,1000
+ *   --forks 3  --warmup 5  --iterations 5  --iteration-ms 200
+ *   --decimals none (doubles, or the fixed-point weight scale, e.g. 1;
+ *                    BucketBestFitStrategy needs one)
+ *   --layout objects (List of Parcel) or batch (columnar ParcelBatch)
+ *   --file parcel_data.csv  --jvm-args "-Xmx8g"
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    private static final String RESULT_PREFIX = "RESULT";
+
+    private static final String AVL_ADD = "AVLTree.add";
+    private static final String AVL_FROM_SORTED = "AVLTree.fromSorted";
+    private static final String AVL_FIND = "AVLTree.find";
+    private static final String AVL_DELETE = "AVLTree.delete";
+    private static final String ARENA_ADD = "ArenaAVLTree.add";
+    private static final String ARENA_FIND = "ArenaAVLTree.find";
+    private static final String ARENA_DELETE = "ArenaAVLTree.delete";
+
+    private final Map<String, String> options = new LinkedHashMap<>();
+
+    private BenchmarkRunner(String[] args) {
+        options.put("benchmarks", "FirstFitStrategy,BestFitStrategy,SegmentTreeFirstFitStrategy,CapacityTreeBestFitStrategy,"
+                + "FirstFitDecreasingStrategy,BestFitDecreasingStrategy,NextFitStrategy,WorstFitStrategy,"
+                + "AlmostWorstFitStrategy,HarmonicStrategy,VectorFirstFitStrategy,VectorBestFitStrategy," + AVL_ADD + "," + AVL_FROM_SORTED + "," + AVL_FIND + "," + AVL_DELETE + ","
+                + ARENA_ADD + "," + ARENA_FIND + "," + ARENA_DELETE);
+        options.put("counts", "10,100,1000,10000,100000,1000000,10000000");
+        options.put("capacities", "100,1000");
+        options.put("forks", "3");
+        options.put("warmup", "5");
+        options.put("iterations", "5");
+        options.put("iteration-ms", "200");
+        options.put("decimals", "none");
+        options.put("layout", "objects");
+        options.put("file", "parcel_data.csv");
+        options.put("jvm-args", "");
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Invalid argument: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        BenchmarkRunner runner = new BenchmarkRunner(args);
+        if (runner.options.containsKey("fork")) {
+            runner.runFork();
+        } else {
+            runner.runAll();
+        }
+    }
+
+    /**
+     * Parent mode: launch the forks for every combination and report.
+     */
+    private void runAll() throws IOException, InterruptedException {
+        PrintWriter console = new PrintWriter(System.out, true);
+        List<Result> results = new ArrayList<>();
+        Map<String, ArrayList<Result>> comparison = new LinkedHashMap<>();
+
+        for (String benchmark : list("benchmarks")) {
+            List<String> capacities = isTreeBenchmark(benchmark) ? Arrays.asList("0") : list("capacities");
+            for (String capacity : capacities) {
+                String key = isTreeBenchmark(benchmark) ? benchmark : benchmark + " (C=" + capacity + ")";
+                for (String count : list("counts")) {
+                    console.printf("Running %s, N=%s ...%n", key, count);
+                    Result result = runForks(benchmark, count, capacity);
+                    result.name = key;
+                    results.add(result);
+                    comparison.computeIfAbsent(key, k -> new ArrayList<>()).add(result);
+                }
+            }
+        }
+
+        OutputFormatter.displayBenchmarks(results, console);
+        OutputFormatter.displayComparison(comparison, console);
+    }
+
+    /**
+     * Runs all forks of one combination and aggregates their results.
+     */
+    private Result runForks(String benchmark, String count, String capacity) throws IOException, InterruptedException {
+        int forks = Integer.parseInt(options.get("forks"));
+        List<Result> forkResults = new ArrayList<>();
+        for (int fork = 0; fork < forks; fork++) {
+            forkResults.add(launchFork(benchmark, count, capacity));
+        }
+        return aggregate(forkResults);
+    }
+
+    /**
+     * Launches one child JVM and parses the result line it prints.
+     */
+    private Result launchFork(String benchmark, String count, String capacity) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        for (String jvmArg : options.get("jvm-args").trim().split("\\s+")) {
+            if (!jvmArg.isEmpty()) {
+                command.add(jvmArg);
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(BenchmarkRunner.class.getName());
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            if (!option.getKey().equals("jvm-args")) {
+                command.add("--" + option.getKey());
+                command.add(option.getValue());
+            }
+        }
+        command.add("--fork");
+        command.add(benchmark + ";" + count + ";" + capacity);
+
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        Result result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    result = parse(line);
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        if (exitCode != 0 || result == null) {
+            throw new IllegalStateException("Benchmark fork failed for " + benchmark + " N=" + count + " (exit code " + exitCode + ")");
+        }
+        return result;
+    }
+
+    /**
+     * Child mode: measure a single combination and print it as one line.
+     */
+    private void runFork() {
+        String[] spec = options.get("fork").split(";");
+        String benchmark = spec[0];
+        int count = Integer.parseInt(spec[1]);
+        double capacity = Double.parseDouble(spec[2]);
+
+        Harness harness = new Harness(Integer.parseInt(options.get("warmup")),
+                Integer.parseInt(options.get("iterations")),
+                Long.parseLong(options.get("iteration-ms")));
+        Result result = harness.measure(benchmark, capacity, workload(benchmark, count, capacity));
+        System.out.println(format(result));
+    }
+
+    /**
+     * Builds the workload named by a benchmark identifier.
+     */
+    private Workload workload(String benchmark, int count, double capacity) {
+        switch (benchmark) {
+            case AVL_ADD:
+                return Workloads.treeAdd(count, AVLTree::new);
+            case AVL_FROM_SORTED:
+                return Workloads.avlFromSorted(count);
+            case AVL_FIND:
+                return Workloads.treeFind(count, AVLTree::new);
+            case AVL_DELETE:
+                return Workloads.treeDelete(count, AVLTree::new);
+            case ARENA_ADD:
+                return Workloads.treeAdd(count, () -> new ArenaAVLTree<>(Double::doubleValue));
+            case ARENA_FIND:
+                return Workloads.treeFind(count, () -> new ArenaAVLTree<>(Double::doubleValue));
+            case ARENA_DELETE:
+                return Workloads.treeDelete(count, () -> new ArenaAVLTree<>(Double::doubleValue));
+            default:
+                Class<? extends TruckLoadingStrategy> strategyClass = StrategyRegistry.forName(benchmark);
+                if (strategyClass != null) {
+                    WeightScale scale = options.get("decimals").equals("none")
+                            ? null : new WeightScale(Integer.parseInt(options.get("decimals")));
+                    if (options.get("layout").equals("batch")) {
+                        ParcelBatch batch = Workloads.batch(options.get("file"), count, scale);
+                        return Workloads.solve(strategyClass, batch, capacity, scale);
+                    }
+                    List<Parcel> parcels = Workloads.parcels(options.get("file"), count, scale);
+                    return Workloads.solve(strategyClass, parcels, capacity, scale);
+                }
+                throw new IllegalArgumentException("Unknown benchmark: " + benchmark);
+        }
+    }
+
+    private static boolean isTreeBenchmark(String benchmark) {
+        return benchmark.startsWith("AVLTree.") || benchmark.startsWith("ArenaAVLTree.");
+    }
+
+    private List<String> list(String option) {
+        return Arrays.asList(options.get(option).split(","));
+    }
+
+    /**
+     * Combines the results of several forks. The reported error includes both
+     * the spread within each fork and the spread between forks.
+     */
+    static Result aggregate(List<Result> forkResults) {
+        int n = forkResults.size();
+        Result first = forkResults.get(0);
+        double meanTime = forkResults.stream().mapToDouble(r -> r.timeMs).average().orElse(0);
+        double withinVariance = forkResults.stream().mapToDouble(r -> r.errorMs * r.errorMs).average().orElse(0);
+        double betweenVariance = n > 1
+                ? forkResults.stream().mapToDouble(r -> (r.timeMs - meanTime) * (r.timeMs - meanTime)).sum() / (n - 1)
+                : 0;
+
+        Result result = new Result(first.name, first.parcelCount, meanTime);
+        result.capacity = first.capacity;
+        result.errorMs = Math.sqrt(withinVariance + betweenVariance);
+        result.throughput = first.parcelCount / (meanTime / 1000.0);
+        result.allocBytesPerParcel = forkResults.stream().mapToDouble(r -> r.allocBytesPerParcel).average().orElse(Double.NaN);
+        result.forks = n;
+        return result;
+    }
+
+    private static String format(Result r) {
+        return String.join("\t", RESULT_PREFIX, r.name, Integer.toString(r.parcelCount), Double.toString(r.capacity),
+                Double.toString(r.timeMs), Double.toString(r.errorMs), Double.toString(r.throughput),
+                Double.toString(r.allocBytesPerParcel));
+    }
+
+    private static Result parse(String line) {
+        String[] f = line.split("\t");
+        Result r = new Result(f[1], Integer.parseInt(f[2]), Double.parseDouble(f[4]));
+        r.capacity = Double.parseDouble(f[3]);
+        r.errorMs = Double.parseDouble(f[5]);
+        r.throughput = Double.parseDouble(f[6]);
+        r.allocBytesPerParcel = Double.parseDouble(f[7]);
+        return r;
+    }
+}
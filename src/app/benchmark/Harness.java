@@ -0,0 +1,129 @@
+package app.benchmark;
+
+import app.model.Result;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * A small JMH-style measurement harness. A benchmark is run for a number of
+ * warmup iterations (discarded, so the JIT can compile the hot path) followed
+ * by measurement iterations. Each iteration repeats the workload until a
+ * minimum wall-clock time has passed, so short workloads are averaged over
+ * many invocations and long ones still run at least once.
+ * <p>
+ * Reports average time per invocation, throughput in parcels per second and
+ * allocated bytes per parcel (when the JVM supports thread allocation
+ * counters).
+ */
+public class Harness {
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+
+    // Written by every invocation so the JIT cannot drop the workload result
+    private volatile long sink;
+
+    /**
+     * Constructs a harness.
+     *
+     * @param warmupIterations the number of discarded warmup iterations
+     * @param measurementIterations the number of measured iterations
+     * @param iterationMillis the minimum duration of one iteration
+     */
+    public Harness(int warmupIterations, int measurementIterations, long iterationMillis) {
+        if (measurementIterations <= 0) {
+            throw new IllegalArgumentException("At least one measurement iteration is required.");
+        }
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    /**
+     * Warms up and measures the given workload.
+     *
+     * @param name the benchmark name reported in the result
+     * @param capacity the truck capacity used by the workload, or 0
+     * @param workload the workload to measure
+     * @return the measured result
+     */
+    public Result measure(String name, double capacity, Workload workload) {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(workload);
+        }
+
+        double[] nanosPerInvocation = new double[measurementIterations];
+        long totalInvocations = 0;
+        long totalAllocated = 0;
+        boolean allocationSupported = true;
+        for (int i = 0; i < measurementIterations; i++) {
+            long[] iteration = iteration(workload);
+            nanosPerInvocation[i] = (double) iteration[0] / iteration[1];
+            totalInvocations += iteration[1];
+            if (iteration[2] < 0) {
+                allocationSupported = false;
+            }
+            totalAllocated += iteration[2];
+        }
+
+        double mean = 0;
+        for (double t : nanosPerInvocation) {
+            mean += t;
+        }
+        mean /= measurementIterations;
+        double variance = 0;
+        for (double t : nanosPerInvocation) {
+            variance += (t - mean) * (t - mean);
+        }
+        variance = measurementIterations > 1 ? variance / (measurementIterations - 1) : 0;
+
+        Result result = new Result(name, workload.operations(), mean / 1_000_000.0);
+        result.capacity = capacity;
+        result.errorMs = Math.sqrt(variance) / 1_000_000.0;
+        result.throughput = workload.operations() / (mean / 1_000_000_000.0);
+        if (allocationSupported) {
+            result.allocBytesPerParcel = (double) totalAllocated / totalInvocations / workload.operations();
+        }
+        return result;
+    }
+
+    /**
+     * Runs one iteration.
+     *
+     * @return {elapsed nanos, invocations, allocated bytes or -1}
+     */
+    private long[] iteration(Workload workload) {
+        long elapsed = 0;
+        long invocations = 0;
+        long allocated = 0;
+        do {
+            workload.setUp();
+            long allocBefore = allocatedBytes();
+            long start = System.nanoTime();
+            sink += workload.run();
+            long end = System.nanoTime();
+            long allocAfter = allocatedBytes();
+            elapsed += end - start;
+            invocations++;
+            if (allocBefore < 0 || allocated < 0) {
+                allocated = -1;
+            } else {
+                allocated += allocAfter - allocBefore;
+            }
+        } while (elapsed < iterationNanos);
+        return new long[]{elapsed, invocations, allocated};
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread, or -1 if the
+     * JVM does not expose thread allocation counters.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,30 @@
+package app.benchmark;
+
+/**
+ * A unit of work measured by the {@link Harness}. Each invocation consists of
+ * an untimed {@link #setUp()} followed by a timed {@link #run()}.
+ */
+public interface Workload {
+
+    /**
+     * Prepares fresh state for the next invocation (e.g. a new strategy
+     * instance). Not included in the measured time or allocation.
+     */
+    void setUp();
+
+    /**
+     * Performs the measured work.
+     *
+     * @return a value derived from the work, consumed by the harness so the
+     * JIT cannot eliminate it
+     */
+    long run();
+
+    /**
+     * Returns the number of operations (parcels) performed by one call to
+     * {@link #run()}.
+     *
+     * @return the operations per invocation
+     */
+    int operations();
+}
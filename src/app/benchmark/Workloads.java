@@ -0,0 +1,289 @@
+package app.benchmark;
+
+import app.avltree.AVLTree;
+import app.avltree.ArenaAVLTree;
+import app.avltree.Tree;
+import app.io.CsvDataLoader;
+import app.model.Parcel;
+import app.model.ParcelBatch;
+import app.model.TruckLoadingProblem;
+import app.model.WeightScale;
+import app.strategy.StrategyRegistry;
+import app.strategy.TruckLoadingStrategy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Factory methods for the workloads measured by the benchmark suite.
+ */
+public class Workloads {
+
+    private static final long SEED = 42L;
+
+    private Workloads() {
+    }
+
+    /**
+     * Returns a list of {@code count} parcels. The sample file is repeated as
+     * often as needed, with parcel indices renumbered so that every parcel is
+     * distinct.
+     *
+     * @param filePath the sample CSV file
+     * @param count the number of parcels required
+     * @param weightScale the fixed-point scale to parse weights with, or null
+     * @return the parcels
+     */
+    public static List<Parcel> parcels(String filePath, int count, WeightScale weightScale) {
+        List<Parcel> sample = CsvDataLoader.readCSV(filePath, count, weightScale);
+        if (sample.isEmpty()) {
+            throw new IllegalArgumentException("No parcels could be read from " + filePath);
+        }
+        if (sample.size() >= count) {
+            return sample;
+        }
+        List<Parcel> parcels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Parcel p = sample.get(i % sample.size());
+            parcels.add(new Parcel(i, p.getType(), p.getWeight(), p.isFragile(), p.getDestination()));
+        }
+        return parcels;
+    }
+
+    /**
+     * Returns a columnar batch of {@code count} parcels, repeating the sample
+     * file like {@link #parcels}.
+     *
+     * @param filePath the sample CSV file
+     * @param count the number of parcels required
+     * @param weightScale the fixed-point scale to parse weights with, or null
+     * @return the batch
+     */
+    public static ParcelBatch batch(String filePath, int count, WeightScale weightScale) {
+        ParcelBatch sample = CsvDataLoader.readBatch(filePath, count, weightScale);
+        if (sample.isEmpty()) {
+            throw new IllegalArgumentException("No parcels could be read from " + filePath);
+        }
+        if (sample.size() >= count) {
+            return sample;
+        }
+        ParcelBatch batch = new ParcelBatch(count, sample.getTypes(), sample.getDestinations());
+        for (int i = 0; i < count; i++) {
+            int j = i % sample.size();
+            batch.add(i, sample.getTypeId(j), sample.getWeight(j), sample.isFragile(j), sample.getDestinationId(j));
+        }
+        return batch;
+    }
+
+    /**
+     * Measures {@link TruckLoadingStrategy#solve} on a fresh strategy
+     * instance for every invocation.
+     *
+     * @param strategyClass the strategy to instantiate
+     * @param parcels the parcels to pack
+     * @param capacity the truck capacity
+     * @param weightScale the fixed-point scale of the problem, or null
+     * @return the workload
+     */
+    public static Workload solve(Class<? extends TruckLoadingStrategy> strategyClass, List<Parcel> parcels, double capacity,
+            WeightScale weightScale) {
+        return solve(strategyClass, new TruckLoadingProblem(capacity, parcels, weightScale));
+    }
+
+    /**
+     * Measures {@link TruckLoadingStrategy#solve} on a columnar batch. Only
+     * the solve is timed; trucks are not materialised.
+     *
+     * @param strategyClass the strategy to instantiate
+     * @param batch the parcels to pack
+     * @param capacity the truck capacity
+     * @param weightScale the fixed-point scale of the problem, or null
+     * @return the workload
+     */
+    public static Workload solve(Class<? extends TruckLoadingStrategy> strategyClass, ParcelBatch batch, double capacity,
+            WeightScale weightScale) {
+        return solve(strategyClass, new TruckLoadingProblem(capacity, batch, weightScale));
+    }
+
+    private static Workload solve(Class<? extends TruckLoadingStrategy> strategyClass, TruckLoadingProblem problem) {
+        int parcelCount = problem.getParcels().size();
+        return new Workload() {
+            private TruckLoadingStrategy strategy;
+
+            @Override
+            public void setUp() {
+                strategy = StrategyRegistry.newInstance(strategyClass);
+            }
+
+            @Override
+            public long run() {
+                strategy.solve(problem);
+                return strategy.hashCode();
+            }
+
+            @Override
+            public int operations() {
+                return parcelCount;
+            }
+        };
+    }
+
+    /**
+     * Measures {@code count} calls to {@link Tree#add} on an empty tree.
+     *
+     * @param count the number of elements to insert
+     * @param newTree creates the empty tree, e.g. an {@link AVLTree} or an
+     * {@link ArenaAVLTree}
+     * @return the workload
+     */
+    public static Workload treeAdd(int count, Supplier<Tree<Double>> newTree) {
+        Double[] keys = keys(count);
+        return new Workload() {
+            private Tree<Double> tree;
+
+            @Override
+            public void setUp() {
+                tree = newTree.get();
+            }
+
+            @Override
+            public long run() {
+                for (int i = 0; i < count; i++) {
+                    tree.add(i, keys[i]);
+                }
+                return tree.getHeight();
+            }
+
+            @Override
+            public int operations() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Measures building a tree of {@code count} elements with
+     * {@link AVLTree#fromSorted}, for comparison with {@link #treeAdd}. The
+     * same keys are sorted beforehand, outside the measurement.
+     *
+     * @param count the number of elements
+     * @return the workload
+     */
+    public static Workload avlFromSorted(int count) {
+        Double[] keys = keys(count);
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> keys[a].compareTo(keys[b])); // Stable, so equal keys stay in index order
+        int[] indexes = new int[count];
+        List<Double> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            indexes[i] = order[i];
+            values.add(keys[order[i]]);
+        }
+        return new Workload() {
+            @Override
+            public void setUp() {
+            }
+
+            @Override
+            public long run() {
+                return AVLTree.fromSorted(indexes, values).getHeight();
+            }
+
+            @Override
+            public int operations() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Measures {@code count} calls to {@link Tree#find} on a tree holding
+     * {@code count} elements.
+     *
+     * @param count the number of elements and lookups
+     * @param newTree creates the empty tree
+     * @return the workload
+     */
+    public static Workload treeFind(int count, Supplier<Tree<Double>> newTree) {
+        Double[] keys = keys(count);
+        Double[] probes = keys(count);
+        Tree<Double> tree = newTree.get();
+        for (int i = 0; i < count; i++) {
+            tree.add(i, keys[i]);
+        }
+        return new Workload() {
+            @Override
+            public void setUp() {
+            }
+
+            @Override
+            public long run() {
+                long sum = 0;
+                for (int i = 0; i < count; i++) {
+                    sum += tree.find(probes[count - 1 - i]);
+                }
+                return sum;
+            }
+
+            @Override
+            public int operations() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Measures {@code count} calls to {@link Tree#delete} emptying a tree of
+     * {@code count} elements. The tree is rebuilt untimed before every
+     * invocation.
+     *
+     * @param count the number of elements to delete
+     * @param newTree creates the empty tree
+     * @return the workload
+     */
+    public static Workload treeDelete(int count, Supplier<Tree<Double>> newTree) {
+        Double[] keys = keys(count);
+        return new Workload() {
+            private Tree<Double> tree;
+
+            @Override
+            public void setUp() {
+                tree = newTree.get();
+                for (int i = 0; i < count; i++) {
+                    tree.add(i, keys[i]);
+                }
+            }
+
+            @Override
+            public long run() {
+                for (int i = 0; i < count; i++) {
+                    tree.delete(i, keys[i]);
+                }
+                return tree.getHeight();
+            }
+
+            @Override
+            public int operations() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Returns deterministic pseudo-random keys resembling remaining truck
+     * capacities (one decimal place, 0 to 100).
+     */
+    private static Double[] keys(int count) {
+        Random random = new Random(SEED + count);
+        Double[] keys = new Double[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextInt(1001) / 10.0;
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,221 @@
+package app.index;
+
+import java.util.Arrays;
+
+/**
+ * A bucket index of integer remaining capacities (fixed-point units)
+ * identified by non-negative integer ids (truck indices).
+ * <p>
+ * There is one bucket per possible capacity value from 0 to the truck
+ * capacity. Each bucket is an intrusive doubly-linked list threaded through
+ * per-id {@code next}/{@code prev} arrays, and a two-level bitmap records
+ * which buckets are non-empty. Insertion and removal are O(1); finding the
+ * smallest non-empty bucket at or above a value scans at most one word of
+ * each bitmap level plus the summary words in between, O(C / 4096) in the
+ * worst case for C buckets, and never allocates.
+ * <p>
+ * Within a bucket ids are kept in last-in, first-out order.
+ */
+public class CapacityBuckets {
+
+    private static final int NIL = -1;
+
+    /**
+     * Largest supported number of buckets. Beyond it the head array and
+     * bitmap outgrow their usefulness; use {@link CapacityTree} instead.
+     */
+    public static final long MAX_BUCKETS = 1L << 26;
+
+    // Per bucket: first id of its list
+    private final int[] head;
+    // Bit b set iff bucket b is non-empty
+    private final long[] words;
+    // Bit w set iff words[w] is non-zero
+    private final long[] summary;
+
+    // Per id: list links and bucket, NIL if the id is not in the index
+    private int[] next;
+    private int[] prev;
+    private int[] bucketOf;
+    private int size;
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param maxUnits the largest capacity value that will be stored
+     * @param initialCapacity the number of ids to reserve room for
+     */
+    public CapacityBuckets(long maxUnits, int initialCapacity) {
+        if (maxUnits < 0 || maxUnits >= MAX_BUCKETS) {
+            throw new IllegalArgumentException("Capacity of " + maxUnits + " units is outside the supported range of bucket indexes.");
+        }
+        int buckets = (int) maxUnits + 1;
+        head = new int[buckets];
+        Arrays.fill(head, NIL);
+        words = new long[(buckets + 63) >>> 6];
+        summary = new long[(words.length + 63) >>> 6];
+
+        int n = Math.max(1, initialCapacity);
+        next = new int[n];
+        prev = new int[n];
+        bucketOf = new int[n];
+        Arrays.fill(bucketOf, NIL);
+    }
+
+    /**
+     * Returns the number of ids in the index.
+     *
+     * @return the size of the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the given id is in the index.
+     *
+     * @param id the id to check
+     * @return true if present
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < bucketOf.length && bucketOf[id] != NIL;
+    }
+
+    /**
+     * Returns the capacity value currently stored for an id.
+     *
+     * @param id an id in the index
+     * @return its capacity in units
+     */
+    public long getUnits(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Id " + id + " is not in the index.");
+        }
+        return bucketOf[id];
+    }
+
+    /**
+     * Inserts an id at the front of the bucket for the given value.
+     *
+     * @param id a non-negative id not already in the index
+     * @param units the capacity value, between 0 and the maximum
+     */
+    public void insert(int id, long units) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Id must not be negative.");
+        }
+        if (units < 0 || units >= head.length) {
+            throw new IllegalArgumentException("Capacity of " + units + " units is out of range.");
+        }
+        ensureCapacity(id + 1);
+        if (bucketOf[id] != NIL) {
+            throw new IllegalArgumentException("Id " + id + " is already in the index.");
+        }
+        int bucket = (int) units;
+        int first = head[bucket];
+        next[id] = first;
+        prev[id] = NIL;
+        if (first != NIL) {
+            prev[first] = id;
+        } else {
+            setBit(bucket);
+        }
+        head[bucket] = id;
+        bucketOf[id] = bucket;
+        size++;
+    }
+
+    /**
+     * Removes an id from the index.
+     *
+     * @param id an id in the index
+     */
+    public void remove(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Id " + id + " is not in the index.");
+        }
+        int bucket = bucketOf[id];
+        if (prev[id] != NIL) {
+            next[prev[id]] = next[id];
+        } else {
+            head[bucket] = next[id];
+        }
+        if (next[id] != NIL) {
+            prev[next[id]] = prev[id];
+        }
+        if (head[bucket] == NIL) {
+            clearBit(bucket);
+        }
+        bucketOf[id] = NIL;
+        size--;
+    }
+
+    /**
+     * Finds an id in the smallest non-empty bucket at or above the given
+     * value, namely the one inserted into it most recently.
+     *
+     * @param minUnits the value to compare against
+     * @return that id, or -1 if every stored value is smaller
+     */
+    public int ceiling(long minUnits) {
+        int bucket = nextNonEmpty(Math.max(0, minUnits));
+        return bucket < 0 ? NIL : head[bucket];
+    }
+
+    /**
+     * Returns the smallest non-empty bucket at or above {@code from}, or -1.
+     */
+    private int nextNonEmpty(long from) {
+        if (from >= head.length) {
+            return NIL;
+        }
+        int bucket = (int) from;
+        int word = bucket >>> 6;
+        long bits = words[word] & (-1L << bucket);
+        if (bits != 0) {
+            return (word << 6) + Long.numberOfTrailingZeros(bits);
+        }
+
+        // Continue with the next non-zero word, located through the summary
+        int nextWord = word + 1;
+        if (nextWord >= words.length) {
+            return NIL;
+        }
+        int summaryWord = nextWord >>> 6;
+        long summaryBits = summary[summaryWord] & (-1L << nextWord);
+        while (summaryBits == 0) {
+            if (++summaryWord >= summary.length) {
+                return NIL;
+            }
+            summaryBits = summary[summaryWord];
+        }
+        word = (summaryWord << 6) + Long.numberOfTrailingZeros(summaryBits);
+        return (word << 6) + Long.numberOfTrailingZeros(words[word]);
+    }
+
+    private void setBit(int bucket) {
+        int word = bucket >>> 6;
+        words[word] |= 1L << bucket;
+        summary[word >>> 6] |= 1L << word;
+    }
+
+    private void clearBit(int bucket) {
+        int word = bucket >>> 6;
+        words[word] &= ~(1L << bucket);
+        if (words[word] == 0) {
+            summary[word >>> 6] &= ~(1L << word);
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= bucketOf.length) {
+            return;
+        }
+        int oldLength = bucketOf.length;
+        int n = Math.max(required, oldLength * 2);
+        next = Arrays.copyOf(next, n);
+        prev = Arrays.copyOf(prev, n);
+        bucketOf = Arrays.copyOf(bucketOf, n);
+        Arrays.fill(bucketOf, oldLength, n, NIL);
+    }
+}
@@ -0,0 +1,257 @@
+package app.index;
+
+import java.util.Arrays;
+
+/**
+ * An ordered index of primitive {@code double} keys (remaining capacities)
+ * identified by non-negative integer ids (truck indices).
+ * <p>
+ * Implemented as an AVL tree whose nodes live in parallel primitive arrays:
+ * the node of id {@code i} is slot {@code i}, so the tree is intrusive and
+ * needs neither boxing nor node objects. Entries are ordered by the composite
+ * key (capacity, id), which makes every entry unique and every operation a
+ * single O(log n) walk, even when many trucks share the same capacity.
+ */
+public class CapacityTree {
+
+    private static final int NIL = -1;
+
+    private double[] key;
+    private int[] left;
+    private int[] right;
+    // Height of the node, or 0 if the id is not in the tree
+    private int[] height;
+    private int root = NIL;
+    private int size;
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param initialCapacity the number of ids to reserve room for
+     */
+    public CapacityTree(int initialCapacity) {
+        int n = Math.max(1, initialCapacity);
+        key = new double[n];
+        left = new int[n];
+        right = new int[n];
+        height = new int[n];
+    }
+
+    /**
+     * Returns the number of ids in the index.
+     *
+     * @return the size of the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the given id is in the index.
+     *
+     * @param id the id to check
+     * @return true if present
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < height.length && height[id] > 0;
+    }
+
+    /**
+     * Returns the key currently stored for an id.
+     *
+     * @param id an id in the index
+     * @return its key
+     */
+    public double getKey(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Id " + id + " is not in the index.");
+        }
+        return key[id];
+    }
+
+    /**
+     * Inserts an id with the given key.
+     *
+     * @param id a non-negative id not already in the index
+     * @param value the key
+     */
+    public void insert(int id, double value) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Id must not be negative.");
+        }
+        ensureCapacity(id + 1);
+        if (height[id] > 0) {
+            throw new IllegalArgumentException("Id " + id + " is already in the index.");
+        }
+        key[id] = value;
+        left[id] = NIL;
+        right[id] = NIL;
+        height[id] = 1;
+        root = insert(root, id);
+        size++;
+    }
+
+    /**
+     * Removes an id from the index.
+     *
+     * @param id an id in the index
+     */
+    public void remove(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Id " + id + " is not in the index.");
+        }
+        root = remove(root, key[id], id);
+        height[id] = 0;
+        size--;
+    }
+
+    /**
+     * Finds the entry with the smallest key that is greater than or equal to
+     * the given value, breaking ties on the lowest id.
+     *
+     * @param minValue the value to compare against
+     * @return the id of that entry, or -1 if every key is smaller
+     */
+    public int ceiling(double minValue) {
+        int best = NIL;
+        int node = root;
+        while (node != NIL) {
+            if (key[node] >= minValue) {
+                best = node;
+                node = left[node];
+            } else {
+                node = right[node];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the id with the largest key, breaking ties on the highest id.
+     *
+     * @return that id, or -1 if the index is empty
+     */
+    public int last() {
+        int node = root;
+        if (node == NIL) {
+            return NIL;
+        }
+        while (right[node] != NIL) {
+            node = right[node];
+        }
+        return node;
+    }
+
+    /**
+     * Compares entry {@code a} against the composite key (value, id).
+     */
+    private int compare(int a, double value, int id) {
+        if (key[a] < value) {
+            return -1;
+        }
+        if (key[a] > value) {
+            return 1;
+        }
+        return Integer.compare(a, id);
+    }
+
+    private int insert(int node, int id) {
+        if (node == NIL) {
+            return id;
+        }
+        if (compare(node, key[id], id) > 0) {
+            left[node] = insert(left[node], id);
+        } else {
+            right[node] = insert(right[node], id);
+        }
+        return rebalance(node);
+    }
+
+    private int remove(int node, double value, int id) {
+        if (node == NIL) {
+            return NIL;
+        }
+        int cmp = compare(node, value, id);
+        if (cmp > 0) {
+            left[node] = remove(left[node], value, id);
+        } else if (cmp < 0) {
+            right[node] = remove(right[node], value, id);
+        } else {
+            if (left[node] == NIL || right[node] == NIL) {
+                return left[node] != NIL ? left[node] : right[node];
+            }
+            // Nodes are ids, so the successor is relinked rather than copied
+            int successor = right[node];
+            while (left[successor] != NIL) {
+                successor = left[successor];
+            }
+            right[successor] = removeMin(right[node]);
+            left[successor] = left[node];
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private int removeMin(int node) {
+        if (left[node] == NIL) {
+            return right[node];
+        }
+        left[node] = removeMin(left[node]);
+        return rebalance(node);
+    }
+
+    private int height(int node) {
+        return node == NIL ? 0 : height[node];
+    }
+
+    private void update(int node) {
+        height[node] = 1 + Math.max(height(left[node]), height(right[node]));
+    }
+
+    private int rebalance(int node) {
+        update(node);
+        int balance = height(left[node]) - height(right[node]);
+        if (balance > 1) {
+            if (height(left[left[node]]) < height(right[left[node]])) {
+                left[node] = rotateLeft(left[node]);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(right[right[node]]) < height(left[right[node]])) {
+                right[node] = rotateRight(right[node]);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private int rotateRight(int y) {
+        int x = left[y];
+        left[y] = right[x];
+        right[x] = y;
+        update(y);
+        update(x);
+        return x;
+    }
+
+    private int rotateLeft(int x) {
+        int y = right[x];
+        right[x] = left[y];
+        left[y] = x;
+        update(x);
+        update(y);
+        return y;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= key.length) {
+            return;
+        }
+        int n = Math.max(required, key.length * 2);
+        key = Arrays.copyOf(key, n);
+        left = Arrays.copyOf(left, n);
+        right = Arrays.copyOf(right, n);
+        height = Arrays.copyOf(height, n);
+    }
+}
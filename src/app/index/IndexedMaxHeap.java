@@ -0,0 +1,189 @@
+package app.index;
+
+import java.util.Arrays;
+
+/**
+ * A binary max-heap of primitive {@code double} keys (remaining capacities)
+ * identified by non-negative integer ids (truck indices).
+ * <p>
+ * The heap is indexed: the position of every id is tracked, so the key of any
+ * id can be changed in O(log n) without searching for it. Entries are ordered
+ * by key, largest first, and equal keys by id, lowest first, so the result of
+ * every query is deterministic.
+ */
+public class IndexedMaxHeap {
+
+    private static final int NIL = -1;
+
+    // Ids in heap order: the children of heap[i] are heap[2i + 1] and heap[2i + 2]
+    private int[] heap;
+    // Position of each id in the heap, or NIL if the id is not in the heap
+    private int[] position;
+    private double[] key;
+    private int size;
+
+    /**
+     * Constructs an empty heap.
+     *
+     * @param initialCapacity the number of ids to reserve room for
+     */
+    public IndexedMaxHeap(int initialCapacity) {
+        int n = Math.max(1, initialCapacity);
+        heap = new int[n];
+        position = new int[n];
+        Arrays.fill(position, NIL);
+        key = new double[n];
+    }
+
+    /**
+     * Returns the number of ids in the heap.
+     *
+     * @return the size of the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the given id is in the heap.
+     *
+     * @param id the id to check
+     * @return true if present
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < position.length && position[id] != NIL;
+    }
+
+    /**
+     * Returns the key currently stored for an id.
+     *
+     * @param id an id in the heap
+     * @return its key
+     */
+    public double getKey(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Id " + id + " is not in the heap.");
+        }
+        return key[id];
+    }
+
+    /**
+     * Inserts an id with the given key.
+     *
+     * @param id a non-negative id not already in the heap
+     * @param value the key
+     */
+    public void insert(int id, double value) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Id must not be negative.");
+        }
+        ensureCapacity(id + 1);
+        if (position[id] != NIL) {
+            throw new IllegalArgumentException("Id " + id + " is already in the heap.");
+        }
+        key[id] = value;
+        heap[size] = id;
+        position[id] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Changes the key of an id, moving it up or down as needed.
+     *
+     * @param id an id in the heap
+     * @param value the new key
+     */
+    public void update(int id, double value) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Id " + id + " is not in the heap.");
+        }
+        double old = key[id];
+        key[id] = value;
+        if (value > old) {
+            siftUp(position[id]);
+        } else {
+            siftDown(position[id]);
+        }
+    }
+
+    /**
+     * Returns the id with the largest key, breaking ties on the lowest id.
+     *
+     * @return that id, or -1 if the heap is empty
+     */
+    public int max() {
+        return size == 0 ? NIL : heap[0];
+    }
+
+    /**
+     * Returns the id that would follow {@link #max()}: the larger of the
+     * root's children, as every other entry is below one of them.
+     *
+     * @return that id, or -1 if the heap holds fewer than two ids
+     */
+    public int secondMax() {
+        if (size < 2) {
+            return NIL;
+        }
+        if (size == 2 || before(heap[1], heap[2])) {
+            return heap[1];
+        }
+        return heap[2];
+    }
+
+    /**
+     * Checks whether id a comes before id b in heap order.
+     */
+    private boolean before(int a, int b) {
+        return key[a] > key[b] || key[a] == key[b] && a < b;
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(id, heap[parent])) {
+                break;
+            }
+            move(heap[parent], i);
+            i = parent;
+        }
+        move(id, i);
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], id)) {
+                break;
+            }
+            move(heap[child], i);
+            i = child;
+        }
+        move(id, i);
+    }
+
+    private void move(int id, int i) {
+        heap[i] = id;
+        position[id] = i;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= key.length) {
+            return;
+        }
+        int n = Math.max(required, key.length * 2);
+        heap = Arrays.copyOf(heap, n);
+        int old = position.length;
+        position = Arrays.copyOf(position, n);
+        Arrays.fill(position, old, n, NIL);
+        key = Arrays.copyOf(key, n);
+    }
+}
@@ -0,0 +1,145 @@
+package app.index;
+
+import java.util.Arrays;
+
+/**
+ * A max segment tree (tournament tree) over a growable array of primitive
+ * {@code double} values, typically the remaining capacities of trucks indexed
+ * by truck index.
+ * <p>
+ * The tree is stored implicitly in a single array: node {@code n} has children
+ * {@code 2n} and {@code 2n + 1}, and the leaves occupy
+ * {@code [leafCount, 2 * leafCount)}. Every internal node holds the maximum of
+ * its subtree, so both finding the leftmost value that is at least a given
+ * amount and updating a value are a single root-to-leaf (or leaf-to-root) walk
+ * of O(log n) without allocating.
+ */
+public class MaxSegmentTree {
+
+    /**
+     * Value of the leaves that do not hold an element yet.
+     */
+    private static final double EMPTY = Double.NEGATIVE_INFINITY;
+
+    private double[] tree;
+    private int leafCount;
+    private int size;
+
+    /**
+     * Constructs an empty tree.
+     *
+     * @param initialCapacity the number of elements to reserve room for
+     */
+    public MaxSegmentTree(int initialCapacity) {
+        leafCount = 1;
+        while (leafCount < initialCapacity) {
+            leafCount <<= 1;
+        }
+        tree = new double[2 * leafCount];
+        Arrays.fill(tree, EMPTY);
+    }
+
+    /**
+     * Returns the number of elements in the tree.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends a value after the last element.
+     *
+     * @param value the value to append
+     * @return the index of the new element
+     */
+    public int add(double value) {
+        if (size == leafCount) {
+            grow();
+        }
+        int index = size++;
+        set(index, value);
+        return index;
+    }
+
+    /**
+     * Returns the value of the element at the given index.
+     *
+     * @param index the element index
+     * @return the value
+     */
+    public double get(int index) {
+        checkIndex(index);
+        return tree[leafCount + index];
+    }
+
+    /**
+     * Replaces the value of the element at the given index and updates the
+     * maxima on the path to the root.
+     *
+     * @param index the element index
+     * @param value the new value
+     */
+    public void set(int index, double value) {
+        checkIndex(index);
+        int node = leafCount + index;
+        tree[node] = value;
+        while (node > 1) {
+            node >>= 1;
+            double max = Math.max(tree[2 * node], tree[2 * node + 1]);
+            if (tree[node] == max) {
+                break; // Nothing above can change
+            }
+            tree[node] = max;
+        }
+    }
+
+    /**
+     * Returns the maximum value in the tree.
+     *
+     * @return the maximum, or negative infinity if the tree is empty
+     */
+    public double max() {
+        return tree[1];
+    }
+
+    /**
+     * Finds the smallest index whose value is greater than or equal to the
+     * given amount.
+     *
+     * @param minValue the value to compare against
+     * @return the leftmost such index, or -1 if no element is large enough
+     */
+    public int findFirst(double minValue) {
+        if (!(tree[1] >= minValue)) {
+            return -1;
+        }
+        int node = 1;
+        while (node < leafCount) {
+            node = tree[2 * node] >= minValue ? 2 * node : 2 * node + 1;
+        }
+        return node - leafCount;
+    }
+
+    /**
+     * Doubles the number of leaves and rebuilds the internal nodes in O(n).
+     */
+    private void grow() {
+        int newLeafCount = leafCount << 1;
+        double[] newTree = new double[2 * newLeafCount];
+        Arrays.fill(newTree, EMPTY);
+        System.arraycopy(tree, leafCount, newTree, newLeafCount, leafCount);
+        for (int node = newLeafCount - 1; node >= 1; node--) {
+            newTree[node] = Math.max(newTree[2 * node], newTree[2 * node + 1]);
+        }
+        tree = newTree;
+        leafCount = newLeafCount;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package app.index;
+
+import java.util.Arrays;
+
+/**
+ * A max segment tree over a growable array of vectors of primitive
+ * {@code double} values, typically the remaining weight, volume and pallet
+ * slots of trucks indexed by truck index.
+ * <p>
+ * Like {@link MaxSegmentTree}, the tree is stored implicitly, here with one
+ * slot per dimension for every node: node {@code n} holds, in each
+ * dimension, the maximum over its subtree. A subtree whose maxima do not
+ * dominate a demand (are not all at least the demanded amounts) holds no
+ * element that does, and is skipped whole. When a single dimension decides
+ * which elements fit, a subtree that passes the test holds a match, and
+ * finding the leftmost one visits at most 2 log n + 1 nodes. When two or more
+ * dimensions bind, the maxima of a subtree may come from different elements:
+ * a subtree can pass the test without holding a match, and the search must
+ * back out of it. The worst case is then O(n) nodes per query, reached for
+ * instance by elements alternating (1, 0) and (0, 1) against the demand
+ * (1, 1), where every node passes and no leaf matches.
+ * {@link #getNodesVisited()} reports the cost of the last query.
+ */
+public class VectorMaxSegmentTree {
+
+    /**
+     * Value of the leaves that do not hold an element yet.
+     */
+    private static final double EMPTY = Double.NEGATIVE_INFINITY;
+
+    private final int dimensions;
+    private double[] tree; // tree[node * dimensions + d] = maximum of dimension d below node
+    private int leafCount;
+    private int size;
+    private int nodesVisited; // Nodes examined by the last findFirst
+
+    /**
+     * Constructs an empty tree.
+     *
+     * @param dimensions the length of every vector
+     * @param initialCapacity the number of elements to reserve room for
+     */
+    public VectorMaxSegmentTree(int dimensions, int initialCapacity) {
+        if (dimensions < 1) {
+            throw new IllegalArgumentException("At least one dimension is required.");
+        }
+        this.dimensions = dimensions;
+        leafCount = 1;
+        while (leafCount < initialCapacity) {
+            leafCount <<= 1;
+        }
+        tree = new double[2 * leafCount * dimensions];
+        Arrays.fill(tree, EMPTY);
+    }
+
+    /**
+     * Returns the number of elements in the tree.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends a vector after the last element.
+     *
+     * @param values the vector to append
+     * @return the index of the new element
+     */
+    public int add(double[] values) {
+        if (size == leafCount) {
+            grow();
+        }
+        int index = size++;
+        set(index, values);
+        return index;
+    }
+
+    /**
+     * Returns one value of the element at the given index.
+     *
+     * @param index the element index
+     * @param dimension the dimension
+     * @return the value
+     */
+    public double get(int index, int dimension) {
+        checkIndex(index);
+        return tree[(leafCount + index) * dimensions + dimension];
+    }
+
+    /**
+     * Replaces the vector of the element at the given index and updates the
+     * maxima on the path to the root.
+     *
+     * @param index the element index
+     * @param values the new vector
+     */
+    public void set(int index, double[] values) {
+        checkIndex(index);
+        if (values.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " values, got " + values.length + ".");
+        }
+        int node = leafCount + index;
+        System.arraycopy(values, 0, tree, node * dimensions, dimensions);
+        while (node > 1) {
+            node >>= 1;
+            boolean changed = false;
+            for (int d = 0; d < dimensions; d++) {
+                double max = Math.max(tree[2 * node * dimensions + d], tree[(2 * node + 1) * dimensions + d]);
+                changed |= tree[node * dimensions + d] != max;
+                tree[node * dimensions + d] = max;
+            }
+            if (!changed) {
+                break; // Nothing above can change
+            }
+        }
+    }
+
+    /**
+     * Finds the smallest index whose vector is at least the demand in every
+     * dimension.
+     *
+     * @param demand the amounts required in each dimension
+     * @return the leftmost such index, or -1 if no element dominates the
+     * demand
+     */
+    public int findFirst(double[] demand) {
+        nodesVisited = 0;
+        return findFirst(1, demand);
+    }
+
+    /**
+     * Returns the number of nodes the last {@link #findFirst(double[])}
+     * examined.
+     *
+     * @return the nodes visited
+     */
+    public int getNodesVisited() {
+        return nodesVisited;
+    }
+
+    private int findFirst(int node, double[] demand) {
+        nodesVisited++;
+        if (!dominates(node, demand)) {
+            return -1;
+        }
+        if (node >= leafCount) {
+            return node - leafCount;
+        }
+        int found = findFirst(2 * node, demand);
+        return found >= 0 ? found : findFirst(2 * node + 1, demand);
+    }
+
+    private boolean dominates(int node, double[] demand) {
+        int base = node * dimensions;
+        for (int d = 0; d < dimensions; d++) {
+            if (!(tree[base + d] >= demand[d])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Doubles the number of leaves and rebuilds the internal nodes in O(n).
+     */
+    private void grow() {
+        int newLeafCount = leafCount << 1;
+        double[] newTree = new double[2 * newLeafCount * dimensions];
+        Arrays.fill(newTree, EMPTY);
+        System.arraycopy(tree, leafCount * dimensions, newTree, newLeafCount * dimensions, leafCount * dimensions);
+        for (int node = newLeafCount - 1; node >= 1; node--) {
+            for (int d = 0; d < dimensions; d++) {
+                newTree[node * dimensions + d] = Math.max(newTree[2 * node * dimensions + d], newTree[(2 * node + 1) * dimensions + d]);
+            }
+        }
+        tree = newTree;
+        leafCount = newLeafCount;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
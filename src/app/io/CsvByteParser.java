@@ -0,0 +1,287 @@
+package app.io;
+
+import app.model.ParcelBatch;
+import app.model.WeightScale;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses parcel CSV lines directly from the bytes of a buffer into a
+ * {@link ParcelBatch}, following the same rules as
+ * {@link CsvDataLoader#readCSV}: fields are trimmed, weights must be numbers,
+ * the fragile flag is {@code true} only for "true" in any case, and malformed
+ * lines are skipped with a warning.
+ * <p>
+ * No String or array is created for a valid line, except the first time a
+ * type or destination value is seen. Weights are parsed by hand: plain
+ * decimals with up to 15 significant digits, which covers the parcel data,
+ * are converted exactly; anything else falls back to
+ * {@link Double#parseDouble(String)}.
+ */
+class CsvByteParser {
+
+    /**
+     * Receives a warning about a skipped line.
+     */
+    @FunctionalInterface
+    interface WarningSink {
+
+        /**
+         * @param lineNumber the line number, counted by this parser
+         * @param reason why the line was skipped
+         * @param line the text of the line
+         */
+        void warn(long lineNumber, String reason, String line);
+    }
+
+    private static final int EXPECTED_COLUMNS = 4;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final WeightScale weightScale;
+    private final ParcelBatch batch;
+    private final int maxRecords;
+    private final WarningSink warnings;
+    private long lineNumber;
+
+    // Bounds of the current line's fields, filled by splitFields
+    private final int[] fieldStart = new int[EXPECTED_COLUMNS];
+    private final int[] fieldEnd = new int[EXPECTED_COLUMNS];
+
+    /**
+     * Constructs a parser.
+     *
+     * @param weightScale the fixed-point scale, or null to parse doubles
+     * @param batch the batch to append records to
+     * @param maxRecords the number of records after which parsing stops
+     * @param firstLineNumber the number of the line before the first one
+     * parsed (1 to account for the header)
+     * @param warnings receives warnings about skipped lines
+     */
+    CsvByteParser(WeightScale weightScale, ParcelBatch batch, int maxRecords, long firstLineNumber, WarningSink warnings) {
+        this.weightScale = weightScale;
+        this.batch = batch;
+        this.maxRecords = maxRecords;
+        this.lineNumber = firstLineNumber;
+        this.warnings = warnings;
+    }
+
+    /**
+     * Returns the number of the last line parsed.
+     *
+     * @return the line number
+     */
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Checks whether the record limit has been reached.
+     *
+     * @return true if no more records will be accepted
+     */
+    boolean isFull() {
+        return batch.size() >= maxRecords;
+    }
+
+    /**
+     * Parses the complete lines in {@code [from, to)}. A final line without a
+     * line terminator is only parsed if {@code endOfInput} is set, otherwise
+     * it is left for the next call.
+     *
+     * @param buffer the buffer to read from, using absolute positions
+     * @param from the position of the first line
+     * @param to the end of the readable range
+     * @param endOfInput whether {@code to} is the end of the input
+     * @return the position after the last line consumed
+     */
+    int parseLines(ByteBuffer buffer, int from, int to, boolean endOfInput) {
+        int position = from;
+        while (position < to && !isFull()) {
+            int lineEnd = position;
+            while (lineEnd < to && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd == to && !endOfInput) {
+                break; // Incomplete line
+            }
+            int contentEnd = lineEnd;
+            if (contentEnd > position && buffer.get(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            lineNumber++;
+            parseLine(buffer, position, contentEnd);
+            position = lineEnd < to ? lineEnd + 1 : lineEnd;
+        }
+        return position;
+    }
+
+    /**
+     * Returns the position after the line starting at {@code from}, or
+     * {@code to} if it is not terminated within the range.
+     */
+    static int skipLine(ByteBuffer buffer, int from, int to) {
+        int position = from;
+        while (position < to && buffer.get(position) != '\n') {
+            position++;
+        }
+        return position < to ? position + 1 : to;
+    }
+
+    private void parseLine(ByteBuffer buffer, int start, int end) {
+        try {
+            if (splitFields(buffer, start, end) < EXPECTED_COLUMNS) {
+                throw new IllegalArgumentException("Incorrect number of columns found.");
+            }
+            double weight = weightScale == null
+                    ? parseDouble(buffer, fieldStart[1], fieldEnd[1])
+                    : weightScale.toWeight(parseUnits(buffer, fieldStart[1], fieldEnd[1]));
+            boolean fragile = parseBoolean(buffer, fieldStart[2], fieldEnd[2]);
+            int typeId = batch.getTypes().idOf(buffer, fieldStart[0], fieldEnd[0] - fieldStart[0]);
+            int destinationId = batch.getDestinations().idOf(buffer, fieldStart[3], fieldEnd[3] - fieldStart[3]);
+            batch.add(batch.size(), typeId, weight, fragile, destinationId);
+        } catch (NumberFormatException e) {
+            warnings.warn(lineNumber, "invalid number format", text(buffer, start, end));
+        } catch (IllegalArgumentException e) {
+            warnings.warn(lineNumber, "invalid format (" + e.getMessage() + ")", text(buffer, start, end));
+        }
+    }
+
+    /**
+     * Records the trimmed bounds of the first four fields and returns the
+     * number of fields, counted like {@link String#split(String)} does
+     * (trailing empty fields are dropped, an empty line is one field).
+     */
+    private int splitFields(ByteBuffer buffer, int start, int end) {
+        int count = 0;
+        int nonEmptyCount = 0;
+        int fieldBegin = start;
+        for (int position = start; position <= end; position++) {
+            if (position == end || buffer.get(position) == ',') {
+                if (count < EXPECTED_COLUMNS) {
+                    int s = fieldBegin;
+                    int e = position;
+                    while (s < e && (buffer.get(s) & 0xFF) <= ' ') {
+                        s++;
+                    }
+                    while (e > s && (buffer.get(e - 1) & 0xFF) <= ' ') {
+                        e--;
+                    }
+                    fieldStart[count] = s;
+                    fieldEnd[count] = e;
+                }
+                count++;
+                if (position > fieldBegin) {
+                    nonEmptyCount = count;
+                }
+                fieldBegin = position + 1;
+            }
+        }
+        return start == end ? 1 : nonEmptyCount;
+    }
+
+    private static boolean parseBoolean(ByteBuffer buffer, int start, int end) {
+        return end - start == 4
+                && (buffer.get(start) | 0x20) == 't'
+                && (buffer.get(start + 1) | 0x20) == 'r'
+                && (buffer.get(start + 2) | 0x20) == 'u'
+                && (buffer.get(start + 3) | 0x20) == 'e';
+    }
+
+    /**
+     * Parses a plain decimal exactly as {@link Double#parseDouble} would: the
+     * digits are collected into an exact mantissa and divided by an exact
+     * power of ten, which IEEE arithmetic rounds correctly.
+     */
+    private static double parseDouble(ByteBuffer buffer, int start, int end) {
+        int position = start;
+        boolean negative = false;
+        if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position) == '-';
+            position++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        boolean plain = position < end;
+        for (; position < end; position++) {
+            byte c = buffer.get(position);
+            if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else if (c >= '0' && c <= '9' && mantissa < MAX_EXACT_MANTISSA / 10) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else {
+                plain = false;
+                break;
+            }
+        }
+        if (!plain || digits == 0 || fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(text(buffer, start, end));
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a plain decimal into units of the scale, with the same rules as
+     * {@link WeightScale#parseUnits(CharSequence)}.
+     */
+    private long parseUnits(ByteBuffer buffer, int start, int end) {
+        int decimals = weightScale.getDecimals();
+        int position = start;
+        boolean negative = false;
+        if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position) == '-';
+            position++;
+        }
+        long units = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; position < end; position++) {
+            byte c = buffer.get(position);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Invalid weight");
+            }
+            digits++;
+            if (fractionDigits >= 0) {
+                if (fractionDigits == decimals) {
+                    if (c != '0') {
+                        throw new NumberFormatException("Weight is finer than the scale");
+                    }
+                    continue;
+                }
+                fractionDigits++;
+            }
+            if (units > (Long.MAX_VALUE - 9) / 10) {
+                throw new NumberFormatException("Weight out of range");
+            }
+            units = units * 10 + (c - '0');
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Invalid weight");
+        }
+        for (int f = Math.max(fractionDigits, 0); f < decimals; f++) {
+            units *= 10;
+        }
+        return negative ? -units : units;
+    }
+
+    private static String text(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,9 +1,15 @@
 package app.io;
 
 import app.model.Parcel;
+import app.model.ParcelBatch;
+import app.model.WeightScale;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,7 +22,9 @@ import java.util.List;
  * <p>
  * The expected CSV format is: - Column 1: Parcel description/name (String) -
  * Column 2: Weight (Double) - Column 3: Fragile status (Boolean) - Column 4:
- * Additional parcel information (String)
+ * Additional parcel information (String) - optional Column 5: Volume (Double) -
+ * optional Column 6: Pallet slots (Integer). Parcels without the optional
+ * columns take no volume or pallet slots; the columnar readers ignore them.
  * <p>
  * The first line of the CSV file is assumed to be a header and is skipped.
  */
@@ -24,6 +32,9 @@ public class CsvDataLoader {
 
     private static final String DELIMITER = ",";  // CSV delimiter
     private static final int EXPECTED_COLUMNS = 4; // Define expected number of columns
+    private static final int VOLUME_COLUMN = 4; // Optional volume column
+    private static final int PALLET_COLUMN = 5; // Optional pallet slots column
+    private static final int MAP_WINDOW_BYTES = 1 << 28; // Size of each memory-mapped window
 
     /**
      * Reads parcel data from a CSV file and converts it into a list of Parcel
@@ -43,8 +54,220 @@ public class CsvDataLoader {
      * @return A List of Parcel objects created from the CSV data
      */
     public static List<Parcel> readCSV(String filePath, int numRecordsToRead) {
-        String line = null;
+        return readCSV(filePath, numRecordsToRead, null);
+    }
+
+    /**
+     * Reads parcel data from a CSV file, parsing weights exactly into
+     * fixed-point units of the given scale.
+     *
+     * Weights are parsed digit by digit into a {@code long} number of units
+     * and only then converted to the parcel's {@code double} weight, so every
+     * weight round-trips through {@link WeightScale#toUnits(double)} exactly.
+     * Rows whose weight has more decimal places than the scale allows are
+     * skipped with a warning, like any other invalid number.
+     *
+     * @param filePath The path to the CSV file to be read
+     * @param numRecordsToRead The maximum number of records to read from the
+     * file
+     * @param weightScale The fixed-point scale, or null to parse weights as
+     * doubles
+     * @return A List of Parcel objects created from the CSV data
+     */
+    public static List<Parcel> readCSV(String filePath, int numRecordsToRead, WeightScale weightScale) {
         List<Parcel> parcels = new ArrayList<>();
+        read(filePath, numRecordsToRead, weightScale, (index, type, weight, fragile, destination, volume, palletSlots)
+                -> parcels.add(new Parcel(index, type, weight, fragile, destination, volume, palletSlots)));
+        return parcels;
+    }
+
+    /**
+     * Reads parcel data from a CSV file into a columnar {@link ParcelBatch},
+     * without creating a Parcel object per row. Validation, warnings and the
+     * record limit are the same as {@link #readCSV(String, int, WeightScale)}.
+     *
+     * @param filePath The path to the CSV file to be read
+     * @param numRecordsToRead The maximum number of records to read from the
+     * file
+     * @param weightScale The fixed-point scale, or null to parse weights as
+     * doubles
+     * @return A ParcelBatch holding the CSV data
+     */
+    public static ParcelBatch readBatch(String filePath, int numRecordsToRead, WeightScale weightScale) {
+        ParcelBatch batch = new ParcelBatch();
+        read(filePath, numRecordsToRead, weightScale,
+                (index, type, weight, fragile, destination, volume, palletSlots) -> batch.add(type, weight, fragile, destination));
+        batch.trimToSize();
+        return batch;
+    }
+
+    /**
+     * Reads parcel data from a CSV file into a {@link ParcelBatch} by
+     * memory-mapping the file and scanning its bytes directly.
+     *
+     * The file is mapped through {@link FileChannel#map} in windows of up to
+     * {@value #MAP_WINDOW_BYTES} bytes, so files larger than 2 GB are
+     * supported; a line crossing a window boundary is re-read from the next
+     * window. Fields are parsed in place by {@link CsvByteParser}: no String is
+     * created per line or field, and no intermediate copy of the file is made.
+     * Validation, warnings (with line numbers) and the record limit are the
+     * same as {@link #readCSV(String, int, WeightScale)}.
+     *
+     * @param filePath The path to the CSV file to be read
+     * @param numRecordsToRead The maximum number of records to read from the
+     * file
+     * @param weightScale The fixed-point scale, or null to parse weights as
+     * doubles
+     * @return A ParcelBatch holding the CSV data
+     */
+    public static ParcelBatch readMapped(String filePath, int numRecordsToRead, WeightScale weightScale) {
+        ParcelBatch batch = new ParcelBatch();
+        CsvByteParser parser = new CsvByteParser(weightScale, batch, numRecordsToRead, 1, CsvDataLoader::printWarning);
+        boolean endOfFile = false;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize == 0) {
+                System.err.println("Warning: CSV file is empty or contains only a header.");
+                return batch;
+            }
+
+            long windowStart = 0;
+            boolean headerSkipped = false;
+            while (!parser.isFull() && windowStart < fileSize) {
+                int windowSize = (int) Math.min(MAP_WINDOW_BYTES, fileSize - windowStart);
+                boolean lastWindow = windowStart + windowSize == fileSize;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+
+                int position = 0;
+                if (!headerSkipped) {
+                    // Read and skip the header
+                    position = CsvByteParser.skipLine(buffer, 0, windowSize);
+                    headerSkipped = true;
+                }
+                int consumed = parser.parseLines(buffer, position, windowSize, lastWindow);
+                if (consumed == 0 && !lastWindow) {
+                    throw new IOException("Line " + (parser.getLineNumber() + 1) + " is longer than the mapping window.");
+                }
+                windowStart += consumed;
+                endOfFile = windowStart >= fileSize;
+            }
+        } catch (IOException e) {
+            System.err.printf("Error reading CSV file '%s': %s%n", filePath, e.getMessage());
+        }
+
+        if (batch.size() < numRecordsToRead && endOfFile) {
+            System.out.println("Info: Reached end of file before reading the requested " + numRecordsToRead + " records. Read " + batch.size() + " records.");
+        }
+        batch.trimToSize();
+        return batch;
+    }
+
+    /**
+     * Reads parcel data from a CSV file on all available cores. Gives the
+     * same result, warnings and messages as
+     * {@link #readMapped(String, int, WeightScale)}.
+     *
+     * @param filePath The path to the CSV file to be read
+     * @param numRecordsToRead The maximum number of records to read from the
+     * file
+     * @param weightScale the fixed-point scale, or null to parse doubles
+     * @return A ParcelBatch holding the CSV data
+     */
+    public static ParcelBatch readParallel(String filePath, int numRecordsToRead, WeightScale weightScale) {
+        return readParallel(filePath, numRecordsToRead, weightScale, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Reads parcel data from a CSV file in parallel. The file is split into
+     * line-aligned chunks which are memory-mapped and parsed concurrently,
+     * then concatenated in file order with sequential parcel indices and
+     * shared dictionaries. Warnings are printed after parsing, in file order
+     * and with the same line numbers as {@link #readCSV}.
+     *
+     * @param filePath The path to the CSV file to be read
+     * @param numRecordsToRead The maximum number of records to read from the
+     * file
+     * @param weightScale the fixed-point scale, or null to parse doubles
+     * @param parallelism the number of threads to parse with
+     * @return A ParcelBatch holding the CSV data
+     */
+    public static ParcelBatch readParallel(String filePath, int numRecordsToRead, WeightScale weightScale, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        return ParallelCsvLoader.read(filePath, numRecordsToRead, weightScale, parallelism);
+    }
+
+    /**
+     * Prints a warning about a skipped line, in the format used by readCSV.
+     */
+    static void printWarning(long lineNumber, String reason, String line) {
+        System.err.printf("Warning: Skipping line %d due to %s: %s%n", lineNumber, reason, line);
+    }
+
+    /**
+     * Receives each valid record read from the file.
+     */
+    @FunctionalInterface
+    private interface RecordSink {
+
+        void accept(int index, String type, double weight, boolean fragile, String destination, double volume, int palletSlots);
+    }
+
+    /**
+     * Parses one CSV row into a Parcel, with the same validation as the file
+     * readers, for parcels that do not come from a file.
+     *
+     * @param index the index of the new parcel
+     * @param line a row in the CSV format, without a header
+     * @param weightScale The fixed-point scale, or null to parse weights as
+     * doubles
+     * @return the parcel
+     * @throws IllegalArgumentException if the row is invalid, or a
+     * {@link NumberFormatException} if one of its numbers is
+     */
+    public static Parcel parseParcel(int index, String line, WeightScale weightScale) {
+        Parcel[] parcel = new Parcel[1];
+        parseRecord(index, line, weightScale, (i, type, weight, fragile, destination, volume, palletSlots)
+                -> parcel[0] = new Parcel(i, type, weight, fragile, destination, volume, palletSlots));
+        return parcel[0];
+    }
+
+    /**
+     * Parses one CSV row and passes it to the sink.
+     */
+    private static void parseRecord(int index, String line, WeightScale weightScale, RecordSink sink) {
+        String[] data = line.split(DELIMITER);
+
+        // Validate number of columns
+        if (data.length < EXPECTED_COLUMNS) {
+            throw new IllegalArgumentException("Incorrect number of columns found.");
+        }
+
+        // Attempt to parse data - throws NumberFormatException
+        double weight = weightScale == null
+                ? Double.parseDouble(data[1].trim()) // Use trim() for robustness
+                : weightScale.toWeight(weightScale.parseUnits(data[1].trim()));
+        boolean fragile = Boolean.parseBoolean(data[2].trim());
+        // Optional resource columns
+        double volume = data.length > VOLUME_COLUMN && !data[VOLUME_COLUMN].isBlank()
+                ? Double.parseDouble(data[VOLUME_COLUMN].trim()) : 0;
+        int palletSlots = data.length > PALLET_COLUMN && !data[PALLET_COLUMN].isBlank()
+                ? Integer.parseInt(data[PALLET_COLUMN].trim()) : 0;
+        if (!(volume >= 0) || palletSlots < 0) {
+            throw new NumberFormatException("Negative volume or pallet slots.");
+        }
+
+        sink.accept(index, data[0].trim(), weight, fragile, data[3].trim(), volume, palletSlots);
+    }
+
+    /**
+     * Reads the CSV file line by line and passes each valid record to the
+     * sink, numbering records from 0 in file order.
+     */
+    private static void read(String filePath, int numRecordsToRead, WeightScale weightScale, RecordSink sink) {
+        String line = null;
         int parsedRecord = 0;
         int lineNumber = 0; // Keep track of line number for error messages
 
@@ -55,28 +278,15 @@ public class CsvDataLoader {
             lineNumber++;
             if (header == null) {
                 System.err.println("Warning: CSV file is empty or contains only a header.");
-                return parcels; // Return empty list
+                return; // Nothing to read
             }
 
             // Read the CSV content line by line
             while ((line = br.readLine()) != null && parsedRecord < numRecordsToRead) {
                 lineNumber++;
-                String[] data = line.split(DELIMITER);
-
                 try {
-                    // Validate number of columns
-                    if (data.length < EXPECTED_COLUMNS) {
-                        throw new IllegalArgumentException("Incorrect number of columns found.");
-                    }
-
-                    // Attempt to parse data - catches NumberFormatException
-                    double weight = Double.parseDouble(data[1].trim()); // Use trim() for robustness
-                    boolean fragile = Boolean.parseBoolean(data[2].trim());
-
-                    // Create and add parcel - catches ArrayIndexOutOfBounds implicitly if validation above fails
-                    parcels.add(new Parcel(parsedRecord, data[0].trim(), weight, fragile, data[3].trim()));
+                    parseRecord(parsedRecord, line, weightScale, sink);
                     parsedRecord++;
-
                 } catch (NumberFormatException e) {
                     // Log or print warning for bad number format and skip line
                     System.err.printf("Warning: Skipping line %d due to invalid number format: %s%n", lineNumber, line);
@@ -92,7 +302,5 @@ public class CsvDataLoader {
         if (parsedRecord < numRecordsToRead && (line == null)) {
             System.out.println("Info: Reached end of file before reading the requested " + numRecordsToRead + " records. Read " + parsedRecord + " records.");
         }
-
-        return parcels;
     }
 }
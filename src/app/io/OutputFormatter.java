@@ -1,5 +1,8 @@
 package app.io;
 
+import app.model.LowerBounds;
+import app.model.Outcome;
+import app.model.Progress;
 import app.model.Result;
 import app.model.Truck;
 import java.io.PrintWriter;
@@ -7,31 +10,87 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class OutputFormatter {
 
     public static void displayResults(List<Truck> trucks, String strategyName, PrintWriter writer) {
+        displayResults(trucks, strategyName, null, writer);
+    }
+
+    /**
+     * Displays a solution as {@link #displayResults(List, String, PrintWriter)}
+     * does, with the problem's lower bound and the solution's gap to it in the
+     * summary.
+     *
+     * @param trucks the trucks of the solution
+     * @param strategyName the name of the strategy that produced it
+     * @param bounds the lower bounds of the problem, or null to omit them
+     * @param writer The PrintWriter to write the output to.
+     */
+    public static void displayResults(List<Truck> trucks, String strategyName, LowerBounds bounds, PrintWriter writer) {
         writer.println("\n══════════════════════════════════════");
         writer.println(" STRATEGY: " + strategyName.toUpperCase());
         writer.println("══════════════════════════════════════");
 
-        printSummary(trucks, writer);
+        printSummary(trucks, bounds, writer);
         printVisualization(trucks, writer);
         printDetailedTrucks(trucks, writer);
     }
 
-    private static void printSummary(List<Truck> trucks, PrintWriter writer) {
-        double totalCapacity = trucks.get(0).getCapacity() * trucks.size();
-        double usedCapacity = trucks.stream().mapToDouble(Truck::getUsedCapacity).sum();
-        double utilization = (usedCapacity / totalCapacity) * 100;
+    /**
+     * Returns the share of the total truck capacity that is used, as a
+     * percentage.
+     *
+     * @param trucks the trucks of a solution, all of the same capacity
+     * @return the utilization in percent, or 0 if there are no trucks
+     */
+    public static double utilization(List<Truck> trucks) {
+        if (trucks.isEmpty()) {
+            return 0;
+        }
+        return utilization(usedCapacity(trucks), totalCapacity(trucks));
+    }
+
+    private static double utilization(double usedCapacity, double totalCapacity) {
+        return (usedCapacity / totalCapacity) * 100;
+    }
+
+    private static double totalCapacity(List<Truck> trucks) {
+        return trucks.get(0).getCapacity() * trucks.size();
+    }
+
+    private static double usedCapacity(List<Truck> trucks) {
+        return trucks.stream().mapToDouble(Truck::getUsedCapacity).sum();
+    }
+
+    private static void printSummary(List<Truck> trucks, LowerBounds bounds, PrintWriter writer) {
+        double totalCapacity = totalCapacity(trucks);
+        double usedCapacity = usedCapacity(trucks);
+        double utilization = utilization(usedCapacity, totalCapacity);
 
         writer.printf("\nSUMMARY:%n");
         writer.printf("• Trucks used: %d%n", trucks.size());
         writer.printf("• Total capacity: %.2f/%.2f (%.1f%% utilized)%n", usedCapacity, totalCapacity, utilization);
         writer.printf("• Average truck utilization: %.1f%%%n",
                 trucks.stream().mapToDouble(t -> t.getUsedCapacity() / t.getCapacity() * 100).average().orElse(0));
+        if (bounds != null) {
+            writer.printf("• Lower bound: %d trucks (L1 = %d, L2 = %d)%n", bounds.get(), bounds.l1, bounds.l2);
+            writer.printf("• Optimality gap: %s%n", formatGap(bounds, trucks.size()));
+        }
+    }
+
+    /**
+     * Formats the gap of a solution to the lower bound, e.g. "+3 trucks
+     * (2.1%)", or "0 (optimal)" when it meets the bound.
+     */
+    private static String formatGap(LowerBounds bounds, int truckCount) {
+        if (bounds.isReachedBy(truckCount)) {
+            return "0 (optimal)";
+        }
+        return String.format("+%d trucks (%.1f%%)", bounds.gap(truckCount), bounds.gapPercent(truckCount));
     }
 
     private static void printVisualization(List<Truck> trucks, PrintWriter writer) {
@@ -57,6 +116,93 @@ public class OutputFormatter {
         }
     }
 
+    /**
+     * Displays, for each destination, how many parcels and trucks it has and
+     * how well its trucks are used. Each truck is counted under the
+     * destination of its parcels, as produced by a destination-partitioned
+     * solve.
+     *
+     * @param trucks the trucks of a solution
+     * @param writer The PrintWriter to write the output to.
+     */
+    public static void displayDestinationSummary(List<Truck> trucks, PrintWriter writer) {
+        Map<String, List<Truck>> byDestination = new LinkedHashMap<>();
+        for (Truck truck : trucks) {
+            if (!truck.getParcels().isEmpty()) {
+                byDestination.computeIfAbsent(truck.getParcels().get(0).getDestination(), d -> new ArrayList<>()).add(truck);
+            }
+        }
+
+        writer.println("\nDESTINATIONS:");
+        writer.printf("%-20s %-10s %-8s %-14s %-14s%n", "Destination", "Parcels", "Trucks", "Utilization", "Trucks #");
+        for (Map.Entry<String, List<Truck>> entry : byDestination.entrySet()) {
+            List<Truck> group = entry.getValue();
+            int parcels = group.stream().mapToInt(t -> t.getParcels().size()).sum();
+            writer.printf("%-20s %-10d %-8d %-14s %-14s%n", entry.getKey(), parcels, group.size(),
+                    String.format("%.1f%%", utilization(group)),
+                    (group.get(0).getIndex() + 1) + "-" + (group.get(group.size() - 1).getIndex() + 1));
+        }
+    }
+
+    /**
+     * Displays the outcome of every member of a portfolio solve and the
+     * winning strategy.
+     *
+     * @param outcomes the member outcomes, in member order
+     * @param winner the name of the winning strategy
+     * @param writer The PrintWriter to write the output to.
+     */
+    public static void displayPortfolio(List<Outcome> outcomes, String winner, PrintWriter writer) {
+        displayPortfolio(outcomes, winner, null, writer);
+    }
+
+    /**
+     * Displays the outcome of every member of a portfolio solve, with each
+     * member's gap to the problem's lower bound, and the winning strategy.
+     *
+     * @param outcomes the member outcomes, in member order
+     * @param winner the name of the winning strategy
+     * @param bounds the lower bounds of the problem, or null to omit the gaps
+     * @param writer The PrintWriter to write the output to.
+     */
+    public static void displayPortfolio(List<Outcome> outcomes, String winner, LowerBounds bounds, PrintWriter writer) {
+        writer.println("\n=== Strategy Portfolio ===");
+        writer.printf("%-40s %-10s %-8s %-14s %-12s %-20s%n", "Strategy", "Status", "Trucks", "Utilization", "Time (ms)", "Gap");
+        writer.println("---------------------------------------------------------------------------------------------------------");
+        for (Outcome outcome : outcomes) {
+            if (outcome.status == Outcome.Status.SOLVED) {
+                writer.printf("%-40s %-10s %-8d %-14s %-12.3f %-20s%n", outcome.name, outcome.status, outcome.truckCount,
+                        String.format("%.1f%%", outcome.utilization), outcome.timeMs,
+                        bounds == null ? "-" : formatGap(bounds, outcome.truckCount));
+            } else {
+                writer.printf("%-40s %-10s %-8s %-14s %-12s %-20s%n", outcome.name, outcome.status, "-", "-", "-", "-");
+            }
+        }
+        if (bounds != null) {
+            writer.printf("Lower bound: %d trucks (L1 = %d, L2 = %d)%n", bounds.get(), bounds.l1, bounds.l2);
+        }
+        writer.printf("Best packing: %s%n", winner);
+    }
+
+    /**
+     * Displays the raw benchmark measurements: average time with its error,
+     * throughput and allocation per parcel.
+     *
+     * @param results the measured results, in the order they were run
+     * @param writer The PrintWriter to write the output to.
+     */
+    public static void displayBenchmarks(List<Result> results, PrintWriter writer) {
+        writer.println("\n=== Benchmark Measurements ===");
+        writer.printf("%-40s %-10s %-16s %-12s %-18s %-12s %-6s%n",
+                "Benchmark", "Parcels", "Avg time (ms)", "± (ms)", "Parcels/s", "B/parcel", "Forks");
+        writer.println("----------------------------------------------------------------------------------------------------------------------");
+        for (Result r : results) {
+            writer.printf("%-40s %-10d %-16.4f %-12.4f %-18.0f %-12s %-6d%n",
+                    r.name, r.parcelCount, r.timeMs, r.errorMs, r.throughput,
+                    Double.isNaN(r.allocBytesPerParcel) ? "n/a" : String.format("%.1f", r.allocBytesPerParcel), r.forks);
+        }
+    }
+
     /**
      * Displays a comparison of strategy performance across different parcel
      * counts, including execution times and estimated growth rates.
@@ -73,6 +219,9 @@ public class OutputFormatter {
         }
 
         writer.println("\n=== Strategy Time Complexity Comparison ===");
+        boolean withTrucks = resultsMap.values().stream()
+                .flatMap(List::stream)
+                .anyMatch(r -> r.truckCount >= 0);
         int maxParcelCount = resultsMap.values().stream()
                 .flatMap(List::stream)
                 .mapToInt(r -> r.parcelCount)
@@ -85,8 +234,9 @@ public class OutputFormatter {
             resultsList.sort(Comparator.comparingInt(r -> r.parcelCount));
 
             writer.printf("\n--- Strategy: %s ---%n", strategyName);
-            writer.printf("%-15s %-15s %-15s %-15s%n", "Parcel Count", "Time (ms)", "Time Ratio", "log Ratio");
-            writer.println("---------------------------------------------------------------");
+            writer.printf("%-15s %-15s %-15s %-15s", "Parcel Count", "Time (ms)", "Time Ratio", "log Ratio");
+            writer.println(withTrucks ? String.format(" %-10s", "Trucks") : "");
+            writer.println("---------------------------------------------------------------" + (withTrucks ? "-----------" : ""));
 
             Result prev = null;
             double growthSum = 0;
@@ -107,7 +257,8 @@ public class OutputFormatter {
                     growthSum += ratio;
                     growthCount++;
                 }
-                writer.printf("%-15d %-15.3f %-15s %-15s%n", curr.parcelCount, curr.timeMs, ratioStr, logStr);
+                writer.printf("%-15d %-15.3f %-15s %-15s", curr.parcelCount, curr.timeMs, ratioStr, logStr);
+                writer.println(withTrucks ? String.format(" %-10s", curr.truckCount >= 0 ? curr.truckCount : "-") : "");
                 prev = curr;
                 if (curr.parcelCount == maxParcelCount) {
                     maxTimes.put(strategyName, curr.timeMs);
@@ -131,4 +282,29 @@ public class OutputFormatter {
         }
         writer.println("\nNote: 'Time Ratio' shows T(N) / T(Previous N). 'log Ratio' estimates the exponent k in O(N^k).\n");
     }
+
+    /**
+     * Displays time-to-quality curves: for each strategy, the best truck
+     * count it had reached at each point in time, with its gap to the lower
+     * bound.
+     *
+     * @param curves the points of each strategy's curve, in time order, by
+     * strategy name
+     * @param bounds the lower bounds of the problem, or null to omit the gaps
+     * @param writer The PrintWriter to write the output to.
+     */
+    public static void displayTimeToQuality(Map<String, List<Progress>> curves, LowerBounds bounds, PrintWriter writer) {
+        writer.println("\n=== Time to Quality ===");
+        writer.printf("%-40s %-14s %-12s %-8s %-20s%n", "Strategy", "Time (ms)", "Generation", "Trucks", "Gap");
+        writer.println("-------------------------------------------------------------------------------------------------");
+        for (Map.Entry<String, List<Progress>> entry : curves.entrySet()) {
+            for (Progress point : entry.getValue()) {
+                writer.printf("%-40s %-14.1f %-12d %-8d %-20s%n", entry.getKey(), point.timeMs, point.generation,
+                        point.truckCount, bounds == null ? "-" : formatGap(bounds, point.truckCount));
+            }
+        }
+        if (bounds != null) {
+            writer.printf("Lower bound: %d trucks (L1 = %d, L2 = %d)%n", bounds.get(), bounds.l1, bounds.l2);
+        }
+    }
 }
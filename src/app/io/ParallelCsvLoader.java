@@ -0,0 +1,252 @@
+package app.io;
+
+import app.model.ParcelBatch;
+import app.model.StringDictionary;
+import app.model.WeightScale;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loads a parcel CSV file on several cores.
+ * <p>
+ * The file is split into byte ranges whose boundaries are moved forward to the
+ * next line start, so every line belongs to exactly one chunk. Each chunk is
+ * memory-mapped and parsed by a {@link CsvByteParser} on a
+ * {@link ForkJoinPool} into its own {@link ParcelBatch}, and its warnings are
+ * buffered with chunk-relative line numbers. The chunks are then stitched in
+ * file order: parcels are renumbered with the sequential indices
+ * {@link CsvDataLoader#readCSV} assigns, dictionary ids are remapped to one
+ * shared dictionary, and warnings are printed with global line numbers.
+ */
+class ParallelCsvLoader {
+
+    private static final int MAX_CHUNK_BYTES = 1 << 28;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int SCAN_WINDOW_BYTES = 1 << 16;
+
+    /**
+     * A warning buffered by a chunk.
+     */
+    private static class Warning {
+
+        final long lineNumber;
+        final String reason;
+        final String line;
+
+        Warning(long lineNumber, String reason, String line) {
+            this.lineNumber = lineNumber;
+            this.reason = reason;
+            this.line = line;
+        }
+    }
+
+    /**
+     * The parsed content of one chunk. Line numbers are relative to the
+     * chunk, starting at 1.
+     */
+    private static class Chunk {
+
+        final ParcelBatch batch;
+        final List<Warning> warnings;
+        final long lines;
+
+        Chunk(ParcelBatch batch, List<Warning> warnings, long lines) {
+            this.batch = batch;
+            this.warnings = warnings;
+            this.lines = lines;
+        }
+    }
+
+    private ParallelCsvLoader() {
+    }
+
+    /**
+     * Reads the file; see {@link CsvDataLoader#readParallel}.
+     */
+    static ParcelBatch read(String filePath, int numRecordsToRead, WeightScale weightScale, int parallelism) {
+        ParcelBatch result = new ParcelBatch();
+        List<Chunk> chunks;
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize == 0) {
+                System.err.println("Warning: CSV file is empty or contains only a header.");
+                return result;
+            }
+            // Read and skip the header
+            long dataStart = nextLineStart(channel, 0, fileSize);
+            List<long[]> ranges = split(channel, dataStart, fileSize, parallelism);
+            chunks = parseChunks(channel, ranges, numRecordsToRead, weightScale, parallelism);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.printf("Error reading CSV file '%s': %s%n", filePath, e.getMessage());
+            return result;
+        }
+        return stitch(chunks, numRecordsToRead);
+    }
+
+    /**
+     * Splits {@code [from, to)} into ranges that start and end on line
+     * boundaries.
+     */
+    private static List<long[]> split(FileChannel channel, long from, long to, int parallelism) throws IOException {
+        long length = to - from;
+        long chunkCount = Math.max((long) parallelism * CHUNKS_PER_THREAD, (length + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        long chunkSize = Math.max(1, (length + chunkCount - 1) / chunkCount);
+
+        List<long[]> ranges = new ArrayList<>();
+        long start = from;
+        while (start < to) {
+            long end = start + chunkSize >= to ? to : nextLineStart(channel, start + chunkSize - 1, to);
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("A line near byte " + start + " is too long to map.");
+            }
+            ranges.add(new long[]{start, end});
+            start = end;
+        }
+        return ranges;
+    }
+
+    /**
+     * Returns the position after the first line terminator at or after
+     * {@code position}, or {@code to} if there is none.
+     */
+    private static long nextLineStart(FileChannel channel, long position, long to) throws IOException {
+        long windowStart = position;
+        while (windowStart < to) {
+            int windowSize = (int) Math.min(SCAN_WINDOW_BYTES, to - windowStart);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+            int next = CsvByteParser.skipLine(buffer, 0, windowSize);
+            if (next < windowSize || buffer.get(windowSize - 1) == '\n') {
+                return windowStart + next;
+            }
+            windowStart += windowSize;
+        }
+        return to;
+    }
+
+    /**
+     * Parses every range on a dedicated ForkJoinPool.
+     */
+    private static List<Chunk> parseChunks(FileChannel channel, List<long[]> ranges, int numRecordsToRead,
+            WeightScale weightScale, int parallelism) throws IOException {
+        List<Callable<Chunk>> tasks = new ArrayList<>();
+        for (long[] range : ranges) {
+            tasks.add(() -> parseChunk(channel, range[0], range[1], numRecordsToRead, weightScale));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Chunk> chunks = new ArrayList<>();
+            for (Future<Chunk> future : pool.invokeAll(tasks)) {
+                chunks.add(future.get());
+            }
+            return chunks;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Chunk parseChunk(FileChannel channel, long start, long end, int numRecordsToRead, WeightScale weightScale)
+            throws IOException {
+        int length = (int) (end - start);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        ParcelBatch batch = new ParcelBatch();
+        List<Warning> warnings = new ArrayList<>();
+        CsvByteParser parser = new CsvByteParser(weightScale, batch, numRecordsToRead, 0,
+                (lineNumber, reason, line) -> warnings.add(new Warning(lineNumber, reason, line)));
+        parser.parseLines(buffer, 0, length, true);
+        return new Chunk(batch, warnings, parser.getLineNumber());
+    }
+
+    /**
+     * Concatenates the chunks in file order, stopping after the requested
+     * number of records exactly where a sequential read would.
+     */
+    private static ParcelBatch stitch(List<Chunk> chunks, int numRecordsToRead) {
+        long available = 0;
+        for (Chunk chunk : chunks) {
+            available += chunk.batch.size();
+        }
+        int total = (int) Math.min(available, numRecordsToRead);
+        ParcelBatch result = new ParcelBatch(total);
+
+        long lineOffset = 1; // The header
+        for (Chunk chunk : chunks) {
+            int take = Math.min(total - result.size(), chunk.batch.size());
+            boolean limitReached = result.size() + take == numRecordsToRead;
+            // A sequential read stops at the line of the last record it needs
+            long lastLine = limitReached ? lineOfRecord(chunk, take - 1) : chunk.lines;
+            for (Warning warning : chunk.warnings) {
+                if (warning.lineNumber <= lastLine) {
+                    CsvDataLoader.printWarning(lineOffset + warning.lineNumber, warning.reason, warning.line);
+                }
+            }
+            append(result, chunk.batch, take);
+            if (limitReached) {
+                break;
+            }
+            lineOffset += chunk.lines;
+        }
+
+        if (result.size() < numRecordsToRead) {
+            System.out.println("Info: Reached end of file before reading the requested " + numRecordsToRead + " records. Read " + result.size() + " records.");
+        }
+        return result;
+    }
+
+    /**
+     * Returns the chunk-relative line of record {@code k}, using the fact that
+     * every line yields either a record or a warning.
+     */
+    private static long lineOfRecord(Chunk chunk, int k) {
+        if (k < 0) {
+            return 0;
+        }
+        long line = k + 1;
+        for (Warning warning : chunk.warnings) {
+            if (warning.lineNumber > line) {
+                break;
+            }
+            line++;
+        }
+        return line;
+    }
+
+    private static void append(ParcelBatch result, ParcelBatch chunk, int count) {
+        int[] typeMap = remap(chunk.getTypes(), result.getTypes());
+        int[] destinationMap = remap(chunk.getDestinations(), result.getDestinations());
+        for (int i = 0; i < count; i++) {
+            result.add(result.size(), typeMap[chunk.getTypeId(i)], chunk.getWeight(i), chunk.isFragile(i),
+                    destinationMap[chunk.getDestinationId(i)]);
+        }
+    }
+
+    private static int[] remap(StringDictionary from, StringDictionary to) {
+        int[] map = new int[from.size()];
+        for (int id = 0; id < map.length; id++) {
+            map[id] = to.idOf(from.get(id));
+        }
+        return map;
+    }
+}
@@ -1,20 +1,60 @@
 package app.main;
 
+import app.benchmark.Harness;
+import app.benchmark.Workload;
+import app.benchmark.Workloads;
 import app.io.CsvDataLoader;
 import static app.io.OutputFormatter.*;
 import app.model.*;
 import app.strategy.*;
 import java.io.FileNotFoundException;
 import java.io.PrintWriter;
-import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 
+/**
+ * Runs every registered strategy on the sample data and reports the packings
+ * and their running times.
+ * <p>
+ * Weights are doubles unless {@code --decimals} gives a fixed-point scale,
+ * e.g. {@code --decimals 1} for tenths of a kilogram. Fixed-point problems
+ * are packed with exact arithmetic and can also use the fixed-point-only
+ * engines.
+ * <p>
+ * The demos of the other solvers are only run when asked for, with
+ * {@code --demos} and a comma-separated list of portfolio, partitioned,
+ * exact, local-search, cancellations and genetic, or {@code --demos all}.
+ * Some of them take a minute or more.
+ */
 public class Main {
 
+    private static final List<String> DEMOS = Arrays.asList(
+            "portfolio", "partitioned", "exact", "local-search", "cancellations", "genetic");
+
     public static void main(String[] args) {
         // Set up the console output
         PrintWriter console = new PrintWriter(System.out, true);
 
+        // Read the options
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("decimals", "none");
+        options.put("demos", "none");
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                console.println("Invalid argument: " + args[i]);
+                return;
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        WeightScale scale = options.get("decimals").equals("none")
+                ? null : new WeightScale(Integer.parseInt(options.get("decimals")));
+        List<String> requested = Arrays.asList(options.get("demos").split(","));
+        for (String demo : requested) {
+            if (!DEMOS.contains(demo) && !demo.equals("all") && !demo.equals("none")) {
+                console.println("Invalid demo: " + demo);
+                return;
+            }
+        }
+
         // Set up the file output
         PrintWriter fileWriter;
         try {
@@ -25,64 +65,210 @@ public class Main {
         }
 
         // Initialize the list of strategies
-        List<Class<? extends TruckLoadingStrategy>> strategyClasses = Arrays.asList(FirstFitStrategy.class, BestFitStrategy.class);
+        List<Class<? extends TruckLoadingStrategy>> strategyClasses = StrategyRegistry.forScale(scale);
 
         // Loop through each strategy and solve the problem with different bin sizes
+        List<Parcel> sample = CsvDataLoader.readCSV("parcel_data.csv", 100, scale);
         for (Class<? extends TruckLoadingStrategy> strategyClass : strategyClasses) {
-            List<Parcel> parcels = CsvDataLoader.readCSV("parcel_data.csv", 100);
-
             for (int binSize : Arrays.asList(100, 1000)) {
-                TruckLoadingProblem problem = new TruckLoadingProblem(binSize, parcels);
-                TruckLoadingStrategy strategy;
+                TruckLoadingProblem problem = new TruckLoadingProblem(binSize, sample, scale);
 
                 // Create an instance of the strategy class to reset strategy internal state
-                try {
-                    strategy = strategyClass.getDeclaredConstructor().newInstance();
-                } catch (IllegalAccessException | IllegalArgumentException | InstantiationException | NoSuchMethodException | SecurityException | InvocationTargetException e) {
-                    throw new RuntimeException(e);
-                }
+                TruckLoadingStrategy strategy = StrategyRegistry.newInstance(strategyClass);
 
                 strategy.solve(problem);
 
-                // Print results to console and file
-                displayResults(strategy.getTrucks(), strategy.getName(), console);
-                displayResults(strategy.getTrucks(), strategy.getName(), fileWriter);
+                // Print results to console and file, with the gap to the lower bound
+                LowerBounds bounds = LowerBounds.of(problem);
+                displayResults(strategy.getTrucks(), strategy.getName(), bounds, console);
+                displayResults(strategy.getTrucks(), strategy.getName(), bounds, fileWriter);
+            }
+        }
+
+        // Run the demos asked for, in a fixed order
+        for (String demo : DEMOS) {
+            if (requested.contains(demo) || requested.contains("all")) {
+                runDemo(demo, strategyClasses, scale, console, fileWriter);
             }
         }
 
-        // Time complexity analysis
+        // Time complexity analysis, measured after a short warmup so the JIT has compiled the hot path.
+        // Run app.benchmark.BenchmarkRunner for multi-fork measurements over larger inputs.
         Map<String, ArrayList<Result>> results = new HashMap<>();
+        Harness harness = new Harness(1, 3, 10);
 
         for (Class<? extends TruckLoadingStrategy> strategyClass : strategyClasses) {
-            List<Parcel> allParcels = CsvDataLoader.readCSV("parcel_data.csv", 10000);
+            List<Parcel> allParcels = CsvDataLoader.readCSV("parcel_data.csv", 10000, scale);
             results.put(strategyClass.getSimpleName(), new ArrayList<>());
 
             // Test with different sizes of parcels to analyze the growth rate
             for (int parcelCount : Arrays.asList(10, 100, 1000, 10000)) {
                 List<Parcel> parcels = allParcels.subList(0, parcelCount);
+                Workload workload = Workloads.solve(strategyClass, parcels, 100, scale);
+
+                results.get(strategyClass.getSimpleName()).add(harness.measure(strategyClass.getSimpleName(), 100, workload));
+            }
+        }
 
-                long startTime = System.nanoTime();
-                TruckLoadingProblem problem = new TruckLoadingProblem(100, parcels);
-                TruckLoadingStrategy strategy;
+        displayComparison(results, console);
 
-                // Create an instance of the strategy class to reset strategy internal state
-                try {
-                    strategy = strategyClass.getDeclaredConstructor().newInstance();
-                } catch (IllegalAccessException | IllegalArgumentException | InstantiationException | NoSuchMethodException | SecurityException | InvocationTargetException e) {
-                    throw new RuntimeException(e);
-                }
+        fileWriter.close();
+    }
+
+    /**
+     * Runs one of the {@link #DEMOS}.
+     */
+    private static void runDemo(String demo, List<Class<? extends TruckLoadingStrategy>> strategyClasses,
+            WeightScale scale, PrintWriter console, PrintWriter fileWriter) {
+        switch (demo) {
+            case "portfolio":
+                runPortfolio(strategyClasses, scale, console, fileWriter);
+                break;
+            case "partitioned":
+                runPartitioned(scale, console, fileWriter);
+                break;
+            case "exact":
+                runExact(scale, console, fileWriter);
+                break;
+            case "local-search":
+                runLocalSearch(scale, console, fileWriter);
+                break;
+            case "cancellations":
+                runCancellations(scale, console, fileWriter);
+                break;
+            case "genetic":
+                runGenetic(scale, console, fileWriter);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown demo: " + demo);
+        }
+    }
+
+    /**
+     * Runs every strategy concurrently on the same problem and keeps the best
+     * packing.
+     */
+    private static void runPortfolio(List<Class<? extends TruckLoadingStrategy>> strategyClasses, WeightScale scale,
+            PrintWriter console, PrintWriter fileWriter) {
+        for (int binSize : Arrays.asList(100, 1000)) {
+            List<Parcel> parcels = CsvDataLoader.readCSV("parcel_data.csv", 100, scale);
+            TruckLoadingProblem problem = new TruckLoadingProblem(binSize, parcels, scale);
+            PortfolioSolver portfolio = new PortfolioSolver(strategyClasses, 10_000, Runtime.getRuntime().availableProcessors());
+            TruckLoadingStrategy best = portfolio.solve(problem);
 
+            LowerBounds bounds = LowerBounds.of(problem);
+            displayPortfolio(portfolio.getOutcomes(), best.getName(), bounds, console);
+            displayPortfolio(portfolio.getOutcomes(), best.getName(), bounds, fileWriter);
+        }
+    }
+
+    /**
+     * Packs each destination separately, one destination per core.
+     */
+    private static void runPartitioned(WeightScale scale, PrintWriter console, PrintWriter fileWriter) {
+        for (int binSize : Arrays.asList(100, 1000)) {
+            List<Parcel> parcels = CsvDataLoader.readCSV("parcel_data.csv", 100, scale);
+            TruckLoadingProblem problem = new TruckLoadingProblem(binSize, parcels, scale);
+            TruckLoadingStrategy strategy = new DestinationPartitionedStrategy();
+            strategy.solve(problem);
+
+            displayResults(strategy.getTrucks(), strategy.getName(), console);
+            displayDestinationSummary(strategy.getTrucks(), console);
+            displayResults(strategy.getTrucks(), strategy.getName(), fileWriter);
+            displayDestinationSummary(strategy.getTrucks(), fileWriter);
+        }
+    }
+
+    /**
+     * Searches for the fewest trucks the small shipment can use, within a time
+     * budget.
+     */
+    private static void runExact(WeightScale scale, PrintWriter console, PrintWriter fileWriter) {
+        for (int binSize : Arrays.asList(100, 1000)) {
+            List<Parcel> parcels = CsvDataLoader.readCSV("parcel_data.csv", 100, scale);
+            TruckLoadingProblem problem = new TruckLoadingProblem(binSize, parcels, scale);
+            BranchAndBoundStrategy strategy = new BranchAndBoundStrategy(5_000, Runtime.getRuntime().availableProcessors());
+            strategy.solve(problem);
+
+            String name = strategy.getName() + (strategy.isOptimal() ? " (optimal)" : " (best found in time budget)");
+            displayResults(strategy.getTrucks(), name, strategy.getLowerBounds(), console);
+            displayResults(strategy.getTrucks(), name, strategy.getLowerBounds(), fileWriter);
+        }
+    }
+
+    /**
+     * Improves the online packings of the full data set with local search.
+     */
+    private static void runLocalSearch(WeightScale scale, PrintWriter console, PrintWriter fileWriter) {
+        for (int binSize : Arrays.asList(100, 1000)) {
+            List<Parcel> parcels = CsvDataLoader.readCSV("parcel_data.csv", 10000, scale);
+            TruckLoadingProblem problem = new TruckLoadingProblem(binSize, parcels, scale);
+            LowerBounds bounds = LowerBounds.of(problem);
+            for (TruckLoadingStrategy strategy : Arrays.asList(new FirstFitStrategy(), new BestFitStrategy())) {
                 strategy.solve(problem);
-                long endTime = System.nanoTime();
-                long durationNs = endTime - startTime;
-                double durationMs = durationNs / 1_000_000.0;
+                List<Truck> improved = new LocalSearchImprover().improve(strategy.getTrucks());
 
-                results.get(strategyClass.getSimpleName()).add(new Result(strategyClass.getSimpleName(), parcelCount, durationMs));
+                String name = strategy.getName() + " + Local Search";
+                displayResults(improved, name, bounds, console);
+                displayResults(improved, name, bounds, fileWriter);
             }
         }
+    }
 
-        displayComparison(results, console);
+    /**
+     * Cancels a tenth of the parcels after packing, then merges the
+     * under-filled trucks, instead of solving the remaining shipment again.
+     */
+    private static void runCancellations(WeightScale scale, PrintWriter console, PrintWriter fileWriter) {
+        for (int binSize : Arrays.asList(100, 1000)) {
+            List<Parcel> parcels = CsvDataLoader.readCSV("parcel_data.csv", 10000, scale);
+            TruckLoadingProblem problem = new TruckLoadingProblem(binSize, parcels, scale);
+            for (RemovableTruckLoadingStrategy strategy : Arrays.asList(new FirstFitStrategy(), new BestFitStrategy())) {
+                strategy.solve(problem);
+                Random random = new Random(42);
+                for (Parcel parcel : parcels) {
+                    if (random.nextInt(10) == 0) {
+                        strategy.removeParcel(parcel.getIndex());
+                    }
+                }
+                strategy.consolidate(0.5);
 
-        fileWriter.close();
+                String name = strategy.getName() + " after cancellations";
+                displayResults(strategy.getTrucks(), name, console);
+                displayResults(strategy.getTrucks(), name, fileWriter);
+            }
+        }
+    }
+
+    /**
+     * Compares the genetic algorithm with First Fit and Best Fit: time and
+     * trucks as the shipment grows, then how soon each reaches its packing of
+     * the largest shipment.
+     */
+    private static void runGenetic(WeightScale scale, PrintWriter console, PrintWriter fileWriter) {
+        Map<String, ArrayList<Result>> quality = new LinkedHashMap<>();
+        Map<String, List<Progress>> curves = new LinkedHashMap<>();
+        LowerBounds largestBounds = null;
+        for (int parcelCount : Arrays.asList(100, 1000, 10000)) {
+            List<Parcel> parcels = CsvDataLoader.readCSV("parcel_data.csv", parcelCount, scale);
+            TruckLoadingProblem problem = new TruckLoadingProblem(100, parcels, scale);
+            largestBounds = LowerBounds.of(problem);
+            GroupingGeneticStrategy genetic = new GroupingGeneticStrategy(42, 4, 24, 200, 10_000, Runtime.getRuntime().availableProcessors());
+            for (TruckLoadingStrategy strategy : Arrays.asList(new FirstFitStrategy(), new BestFitStrategy(), genetic)) {
+                long start = System.nanoTime();
+                strategy.solve(problem);
+                double timeMs = (System.nanoTime() - start) / 1_000_000.0;
+
+                Result result = new Result(strategy.getName(), parcelCount, timeMs);
+                result.truckCount = strategy.getTrucks().size();
+                quality.computeIfAbsent(strategy.getName(), name -> new ArrayList<>()).add(result);
+                curves.put(strategy.getName(), strategy == genetic ? genetic.getProgress()
+                        : List.of(new Progress(timeMs, 0, result.truckCount)));
+            }
+        }
+        displayComparison(quality, console);
+        displayComparison(quality, fileWriter);
+        displayTimeToQuality(curves, largestBounds, console);
+        displayTimeToQuality(curves, largestBounds, fileWriter);
     }
 }
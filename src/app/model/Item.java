@@ -47,4 +47,24 @@ public interface Item {
      * @param fragile The new fragile status for the item.
      */
     void setFragile(boolean fragile);
+
+    /**
+     * Gets the volume of the item. Items that do not track volume take no
+     * space.
+     *
+     * @return The volume of the item, 0 by default.
+     */
+    default double getVolume() {
+        return 0;
+    }
+
+    /**
+     * Gets the number of pallet slots the item occupies. Items that do not
+     * track pallets occupy none.
+     *
+     * @return The number of pallet slots, 0 by default.
+     */
+    default int getPalletSlots() {
+        return 0;
+    }
 }
@@ -0,0 +1,175 @@
+package app.model;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Lower bounds on the number of trucks any packing of a problem needs, to
+ * measure how far a solution is from optimal and to let a search stop as soon
+ * as it reaches the bound.
+ * <ul>
+ * <li>L1, the continuous bound: ceil(total weight / capacity).</li>
+ * <li>L2, the Martello–Toth bound. For a threshold a up to C/2, parcels
+ * heavier than C - a each need a truck of their own, as do those heavier than
+ * C/2; parcels from a to C/2 can only share trucks with the latter, so
+ * whatever part of their weight does not fit in the space left there needs
+ * extra trucks. L2 is the best of these counts over every parcel weight a,
+ * and is never below L1.</li>
+ * </ul>
+ * Both are computed together after one sort of the weights, with prefix sums,
+ * in O(n log n). In fixed-point mode all arithmetic is on exact units; with
+ * double weights, comparisons and the rounding up allow for a tiny relative
+ * error, so that rounding never makes the bound exceed the optimum.
+ */
+public final class LowerBounds {
+
+    private static final double RELATIVE_TOLERANCE = 1e-9; // Allowed rounding error of double sums
+
+    /**
+     * The continuous bound L1.
+     */
+    public final long l1;
+    /**
+     * The Martello–Toth bound L2, at least l1.
+     */
+    public final long l2;
+
+    private LowerBounds(long l1, long l2) {
+        this.l1 = l1;
+        this.l2 = Math.max(l1, l2);
+    }
+
+    /**
+     * Computes the bounds of a problem.
+     *
+     * @param problem the problem
+     * @return its lower bounds
+     */
+    public static LowerBounds of(TruckLoadingProblem problem) {
+        if (problem.getParcelBatch() != null) {
+            return of(problem.getParcelBatch()::getWeight, problem.getParcelBatch().size(),
+                    problem.getBinCapacity(), problem.getWeightScale());
+        }
+        return of(i -> problem.getParcels().get(i).getWeight(), problem.getParcels().size(),
+                problem.getBinCapacity(), problem.getWeightScale());
+    }
+
+    /**
+     * Computes the bounds for a set of weights, e.g. the parcels left in a
+     * partial solution.
+     *
+     * @param weightOf the weight of the parcel at each position
+     * @param count the number of parcels
+     * @param capacity the capacity of every truck
+     * @param weightScale the fixed-point scale, or null for double weights
+     * @return the lower bounds
+     */
+    public static LowerBounds of(IntToDoubleFunction weightOf, int count, double capacity, WeightScale weightScale) {
+        boolean exact = weightScale != null;
+        double c = exact ? weightScale.toUnits(capacity) : capacity;
+        double[] w = new double[count];
+        for (int i = 0; i < count; i++) {
+            w[i] = exact ? weightScale.toUnits(weightOf.applyAsDouble(i)) : weightOf.applyAsDouble(i);
+        }
+        Arrays.sort(w);
+        double[] prefix = new double[count + 1]; // prefix[i] = w[0] + ... + w[i - 1]
+        for (int i = 0; i < count; i++) {
+            prefix[i + 1] = prefix[i] + w[i];
+        }
+
+        long l1 = ceilDiv(prefix[count], c, exact);
+
+        double half = c / 2;
+        double slack = exact ? 0 : c * RELATIVE_TOLERANCE; // Keeps "heavier than C - a" from being overcounted
+        int aboveHalf = upperBound(w, half); // First parcel heavier than C/2
+        long l2 = 0;
+        // Threshold 0 (i = -1), then each distinct weight up to C/2
+        for (int i = -1; i < aboveHalf; i++) {
+            if (i > 0 && w[i] == w[i - 1]) {
+                continue;
+            }
+            double a = i < 0 ? 0 : w[i];
+            int fromA = Math.max(i, 0); // First parcel of at least a
+            int alone = upperBound(w, c - a + slack); // First parcel heavier than C - a
+            int ownTrucks = count - alone; // Parcels that cannot share with any parcel >= a
+            int large = Math.max(0, alone - aboveHalf); // Parcels in (C/2, C - a], one per truck
+            double largeFree = large * c - (prefix[alone] - prefix[Math.min(aboveHalf, alone)]);
+            double small = prefix[aboveHalf] - prefix[fromA]; // Parcels in [a, C/2]
+            long extra = Math.max(0, ceilDiv(small - largeFree, c, exact));
+            l2 = Math.max(l2, ownTrucks + large + extra);
+        }
+        return new LowerBounds(l1, l2);
+    }
+
+    /**
+     * Returns the best of the bounds.
+     *
+     * @return the lower bound
+     */
+    public long get() {
+        return l2;
+    }
+
+    /**
+     * Returns how many trucks a solution uses above the bound.
+     *
+     * @param trucks the number of trucks of the solution
+     * @return the absolute gap
+     */
+    public long gap(int trucks) {
+        return trucks - get();
+    }
+
+    /**
+     * Returns the gap of a solution as a percentage of the bound.
+     *
+     * @param trucks the number of trucks of the solution
+     * @return the relative gap in percent
+     */
+    public double gapPercent(int trucks) {
+        return get() == 0 ? 0 : 100.0 * gap(trucks) / get();
+    }
+
+    /**
+     * Checks whether a solution meets the bound, and is therefore optimal.
+     *
+     * @param trucks the number of trucks of the solution
+     * @return true if no packing can use fewer trucks
+     */
+    public boolean isReachedBy(int trucks) {
+        return trucks <= get();
+    }
+
+    /**
+     * Rounds weight / capacity up, either exactly for whole units or allowing
+     * for the rounding error of double sums.
+     */
+    private static long ceilDiv(double weight, double capacity, boolean exact) {
+        if (exact) {
+            return -Math.floorDiv(-(long) weight, (long) capacity);
+        }
+        return (long) Math.ceil(weight / capacity - RELATIVE_TOLERANCE * Math.max(1, Math.abs(weight / capacity)));
+    }
+
+    /**
+     * Returns the number of sorted weights that are at most the value.
+     */
+    private static int upperBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public String toString() {
+        return "L1 = " + l1 + ", L2 = " + l2;
+    }
+}
@@ -0,0 +1,37 @@
+package app.model;
+
+/**
+ * The outcome of one member strategy of a portfolio solve.
+ */
+public class Outcome {
+
+    /**
+     * How a member's solve ended.
+     */
+    public enum Status {
+        SOLVED, CANCELLED, FAILED
+    }
+
+    public final String name;
+    public final Status status;
+    public final int truckCount; // Trucks used, or -1 if not solved
+    public final double utilization; // Percent, or NaN if not solved
+    public final double timeMs; // Wall-clock time of the solve, or NaN if not solved
+
+    /**
+     * Constructs the outcome of a member.
+     *
+     * @param name the name of the strategy
+     * @param status how its solve ended
+     * @param truckCount the trucks used, or -1 if not solved
+     * @param utilization the utilization in percent, or NaN if not solved
+     * @param timeMs the wall-clock time of the solve, or NaN if not solved
+     */
+    public Outcome(String name, Status status, int truckCount, double utilization, double timeMs) {
+        this.name = name;
+        this.status = status;
+        this.truckCount = truckCount;
+        this.utilization = utilization;
+        this.timeMs = timeMs;
+    }
+}
@@ -12,9 +12,11 @@ public class Parcel implements Item, Comparable<Parcel> {
     private double weight;
     private boolean fragile;
     private String destination;
+    private double volume;
+    private int palletSlots;
 
     /**
-     * Constructs a new Parcel object.
+     * Constructs a new Parcel object that takes no volume or pallet slots.
      *
      * @param index The index of the parcel.
      * @param type The type of the parcel.
@@ -23,11 +25,29 @@ public class Parcel implements Item, Comparable<Parcel> {
      * @param destination The destination of the parcel.
      */
     public Parcel(int index, String type, double weight, boolean fragile, String destination) {
+        this(index, type, weight, fragile, destination, 0, 0);
+    }
+
+    /**
+     * Constructs a new Parcel object with a volume and a number of pallet
+     * slots, for trucks that limit more than weight.
+     *
+     * @param index The index of the parcel.
+     * @param type The type of the parcel.
+     * @param weight The weight of the parcel.
+     * @param fragile Whether the parcel is fragile.
+     * @param destination The destination of the parcel.
+     * @param volume The volume of the parcel.
+     * @param palletSlots The number of pallet slots the parcel occupies.
+     */
+    public Parcel(int index, String type, double weight, boolean fragile, String destination, double volume, int palletSlots) {
         this.index = index;
         this.type = type;
         this.weight = weight;
         this.fragile = fragile;
         this.destination = destination;
+        this.volume = volume;
+        this.palletSlots = palletSlots;
     }
 
     /**
@@ -117,6 +137,44 @@ public class Parcel implements Item, Comparable<Parcel> {
         this.destination = destination;
     }
 
+    /**
+     * Gets the volume of the parcel.
+     *
+     * @return The volume of the parcel.
+     */
+    @Override
+    public double getVolume() {
+        return volume;
+    }
+
+    /**
+     * Sets the volume of the parcel.
+     *
+     * @param volume The new volume for the parcel.
+     */
+    public void setVolume(double volume) {
+        this.volume = volume;
+    }
+
+    /**
+     * Gets the number of pallet slots the parcel occupies.
+     *
+     * @return The number of pallet slots.
+     */
+    @Override
+    public int getPalletSlots() {
+        return palletSlots;
+    }
+
+    /**
+     * Sets the number of pallet slots the parcel occupies.
+     *
+     * @param palletSlots The new number of pallet slots.
+     */
+    public void setPalletSlots(int palletSlots) {
+        this.palletSlots = palletSlots;
+    }
+
     /**
      * Returns a string representation of the Parcel object.
      *
@@ -124,7 +182,8 @@ public class Parcel implements Item, Comparable<Parcel> {
      */
     @Override
     public String toString() {
-        return "Parcel " + (index + 1) + ": [type=" + type + ", weight=" + weight + ", fragile=" + fragile + ", destination=" + destination
+        String resources = volume != 0 || palletSlots != 0 ? ", volume=" + volume + ", pallets=" + palletSlots : "";
+        return "Parcel " + (index + 1) + ": [type=" + type + ", weight=" + weight + resources + ", fragile=" + fragile + ", destination=" + destination
                 + "]";
     }
 
@@ -0,0 +1,297 @@
+package app.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A columnar (struct-of-arrays) collection of parcels for multi-million
+ * parcel runs.
+ * <p>
+ * Instead of one {@link Parcel} object per parcel, each attribute is stored in
+ * its own primitive column: an {@code int[]} index, a {@code double[]} weight,
+ * a packed {@code long[]} bitset for the fragile flag and dictionary-coded
+ * {@code int[]} ids for type and destination. A parcel therefore costs about
+ * 20 bytes with no object header and no pointers to chase, and the weight
+ * column can be scanned sequentially by the strategies. {@link Parcel} objects
+ * are only created on demand by {@link #get(int)}, typically for output.
+ */
+public class ParcelBatch {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private int size;
+    private int[] index;
+    private double[] weight;
+    private long[] fragile;
+    private int[] typeId;
+    private int[] destinationId;
+    private final StringDictionary types;
+    private final StringDictionary destinations;
+
+    /**
+     * Constructs an empty batch.
+     */
+    public ParcelBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty batch with room for the given number of parcels.
+     *
+     * @param initialCapacity the number of parcels to reserve room for
+     */
+    public ParcelBatch(int initialCapacity) {
+        this(initialCapacity, new StringDictionary(), new StringDictionary());
+    }
+
+    /**
+     * Constructs an empty batch that encodes its string columns with the
+     * given dictionaries.
+     *
+     * @param initialCapacity the number of parcels to reserve room for
+     * @param types the dictionary of parcel types
+     * @param destinations the dictionary of destinations
+     */
+    public ParcelBatch(int initialCapacity, StringDictionary types, StringDictionary destinations) {
+        int n = Math.max(1, initialCapacity);
+        this.index = new int[n];
+        this.weight = new double[n];
+        this.fragile = new long[(n + 63) >>> 6];
+        this.typeId = new int[n];
+        this.destinationId = new int[n];
+        this.types = types;
+        this.destinations = destinations;
+    }
+
+    /**
+     * Creates a batch holding the same parcels as a list.
+     *
+     * @param parcels the parcels to copy
+     * @return the batch
+     */
+    public static ParcelBatch of(List<Parcel> parcels) {
+        ParcelBatch batch = new ParcelBatch(parcels.size());
+        for (Parcel p : parcels) {
+            batch.add(p.getIndex(), batch.types.idOf(p.getType()), p.getWeight(), p.isFragile(),
+                    batch.destinations.idOf(p.getDestination()));
+        }
+        return batch;
+    }
+
+    /**
+     * Appends a parcel, using its position in the batch as its index.
+     *
+     * @param type the type of the parcel
+     * @param weight the weight of the parcel
+     * @param fragile whether the parcel is fragile
+     * @param destination the destination of the parcel
+     * @return the position of the new parcel
+     */
+    public int add(String type, double weight, boolean fragile, String destination) {
+        return add(size, types.idOf(type), weight, fragile, destinations.idOf(destination));
+    }
+
+    /**
+     * Appends a parcel whose string columns are already dictionary-coded.
+     *
+     * @param parcelIndex the index of the parcel
+     * @param typeId the id of the type in {@link #getTypes()}
+     * @param weight the weight of the parcel
+     * @param fragile whether the parcel is fragile
+     * @param destinationId the id of the destination in
+     * {@link #getDestinations()}
+     * @return the position of the new parcel
+     */
+    public int add(int parcelIndex, int typeId, double weight, boolean fragile, int destinationId) {
+        if (size == index.length) {
+            grow(size + 1);
+        }
+        int i = size++;
+        this.index[i] = parcelIndex;
+        this.typeId[i] = typeId;
+        this.weight[i] = weight;
+        this.destinationId[i] = destinationId;
+        if (fragile) {
+            this.fragile[i >>> 6] |= 1L << i;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the number of parcels in the batch.
+     *
+     * @return the size of the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the batch is empty.
+     *
+     * @return true if the batch holds no parcels
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the index of the parcel at a position.
+     *
+     * @param i the position
+     * @return the parcel index
+     */
+    public int getIndex(int i) {
+        checkPosition(i);
+        return index[i];
+    }
+
+    /**
+     * Returns the weight of the parcel at a position.
+     *
+     * @param i the position
+     * @return the weight
+     */
+    public double getWeight(int i) {
+        checkPosition(i);
+        return weight[i];
+    }
+
+    /**
+     * Returns whether the parcel at a position is fragile.
+     *
+     * @param i the position
+     * @return the fragile flag
+     */
+    public boolean isFragile(int i) {
+        checkPosition(i);
+        return (fragile[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Returns the dictionary id of the type of the parcel at a position.
+     *
+     * @param i the position
+     * @return the type id
+     */
+    public int getTypeId(int i) {
+        checkPosition(i);
+        return typeId[i];
+    }
+
+    /**
+     * Returns the dictionary id of the destination of the parcel at a
+     * position.
+     *
+     * @param i the position
+     * @return the destination id
+     */
+    public int getDestinationId(int i) {
+        checkPosition(i);
+        return destinationId[i];
+    }
+
+    /**
+     * Returns the type of the parcel at a position.
+     *
+     * @param i the position
+     * @return the type
+     */
+    public String getType(int i) {
+        return types.get(getTypeId(i));
+    }
+
+    /**
+     * Returns the destination of the parcel at a position.
+     *
+     * @param i the position
+     * @return the destination
+     */
+    public String getDestination(int i) {
+        return destinations.get(getDestinationId(i));
+    }
+
+    /**
+     * Returns the dictionary of parcel types.
+     *
+     * @return the type dictionary
+     */
+    public StringDictionary getTypes() {
+        return types;
+    }
+
+    /**
+     * Returns the dictionary of destinations.
+     *
+     * @return the destination dictionary
+     */
+    public StringDictionary getDestinations() {
+        return destinations;
+    }
+
+    /**
+     * Creates a {@link Parcel} object for the parcel at a position. Each call
+     * creates a new object; the type and destination strings are shared.
+     *
+     * @param i the position
+     * @return a new parcel
+     */
+    public Parcel get(int i) {
+        return new Parcel(getIndex(i), getType(i), weight[i], isFragile(i), getDestination(i));
+    }
+
+    /**
+     * Returns a read-only list view of the batch that creates {@link Parcel}
+     * objects on access.
+     *
+     * @return the list view
+     */
+    public List<Parcel> asList() {
+        return new ParcelList();
+    }
+
+    /**
+     * Shrinks the columns to the number of parcels held.
+     */
+    public void trimToSize() {
+        if (size < index.length) {
+            resize(Math.max(1, size));
+        }
+    }
+
+    private void grow(int required) {
+        resize(Math.max(required, index.length * 2));
+    }
+
+    private void resize(int n) {
+        index = Arrays.copyOf(index, n);
+        weight = Arrays.copyOf(weight, n);
+        fragile = Arrays.copyOf(fragile, (n + 63) >>> 6);
+        typeId = Arrays.copyOf(typeId, n);
+        destinationId = Arrays.copyOf(destinationId, n);
+    }
+
+    private void checkPosition(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Position " + i + " out of bounds for size " + size);
+        }
+    }
+
+    /**
+     * List view creating parcels on demand.
+     */
+    private class ParcelList extends AbstractList<Parcel> implements RandomAccess {
+
+        @Override
+        public Parcel get(int i) {
+            return ParcelBatch.this.get(i);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package app.model;
+
+/**
+ * A point of a time-to-quality curve: the best truck count a search had found
+ * by a point in time.
+ */
+public class Progress {
+
+    public final double timeMs; // Wall-clock time since the start of the solve
+    public final int generation;
+    public final int truckCount;
+
+    /**
+     * Constructs a point of a time-to-quality curve.
+     *
+     * @param timeMs the time since the start of the solve, in milliseconds
+     * @param generation the generation, or 0 for the initial population
+     * @param truckCount the best truck count at that time
+     */
+    public Progress(double timeMs, int generation, int truckCount) {
+        this.timeMs = timeMs;
+        this.generation = generation;
+        this.truckCount = truckCount;
+    }
+}
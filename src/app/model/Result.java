@@ -18,6 +18,32 @@ public class Result {
      * The execution time in milliseconds.
      */
     public double timeMs;
+    /**
+     * The truck capacity the run was measured with, or 0 if not applicable.
+     */
+    public double capacity;
+    /**
+     * The standard deviation of the execution time across measurement
+     * iterations (and forks), in milliseconds.
+     */
+    public double errorMs;
+    /**
+     * The throughput in parcels (operations) per second.
+     */
+    public double throughput;
+    /**
+     * The bytes allocated per parcel (operation), or NaN if the JVM cannot
+     * report thread allocation.
+     */
+    public double allocBytesPerParcel = Double.NaN;
+    /**
+     * The number of JVM forks the measurement was aggregated over.
+     */
+    public int forks = 1;
+    /**
+     * The number of trucks of the solution, or -1 if not recorded.
+     */
+    public int truckCount = -1;
 
     /**
      * Constructs a Result with the specified metadata and truck list.
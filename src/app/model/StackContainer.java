@@ -55,4 +55,24 @@ public interface StackContainer<E> {
      * @return {@code true} if the item can fit, {@code false} otherwise
      */
     boolean canFit(Item item);
+
+    /**
+     * Returns the volume still available in this container. Containers that
+     * do not limit volume have unlimited room.
+     *
+     * @return the remaining volume, positive infinity by default
+     */
+    default double getRemainingVolume() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the number of pallet slots still free in this container.
+     * Containers that do not limit pallets have unlimited slots.
+     *
+     * @return the free pallet slots, {@link Integer#MAX_VALUE} by default
+     */
+    default int getRemainingPalletSlots() {
+        return Integer.MAX_VALUE;
+    }
 }
@@ -0,0 +1,144 @@
+package app.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for low-cardinality string columns such as parcel type
+ * and destination. Each distinct string is stored once and identified by a
+ * dense integer id, assigned in order of first appearance.
+ * <p>
+ * Strings can also be looked up by their UTF-8 bytes in a buffer, so that a
+ * byte-level parser only creates a String the first time a value is seen.
+ */
+public class StringDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    // Open-addressing table over the UTF-8 bytes of the values: id + 1, or 0 if free
+    private int[] slots = new int[16];
+    private byte[][] bytes = new byte[8][];
+    private int[] hashes = new int[8];
+
+    /**
+     * Returns the id of a string, adding it to the dictionary if it is new.
+     *
+     * @param value the string to encode
+     * @return its id
+     */
+    public int idOf(String value) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            id = add(value, utf8, hash(ByteBuffer.wrap(utf8), 0, utf8.length));
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of the string whose UTF-8 encoding is the given range of
+     * a buffer, adding it to the dictionary if it is new. Does not allocate
+     * unless the value is new.
+     *
+     * @param buffer the buffer holding the bytes
+     * @param offset the absolute position of the first byte
+     * @param length the number of bytes
+     * @return its id
+     */
+    public int idOf(ByteBuffer buffer, int offset, int length) {
+        int hash = hash(buffer, offset, length);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && equals(bytes[id], buffer, offset, length)) {
+                return id;
+            }
+        }
+        byte[] utf8 = new byte[length];
+        for (int i = 0; i < length; i++) {
+            utf8[i] = buffer.get(offset + i);
+        }
+        String value = new String(utf8, StandardCharsets.UTF_8);
+        Integer existing = ids.get(value);
+        return existing != null ? existing : add(value, utf8, hash);
+    }
+
+    /**
+     * Returns the string of an id.
+     *
+     * @param id an id returned by {@link #idOf(String)}
+     * @return the string
+     */
+    public String get(int id) {
+        return values.get(id);
+    }
+
+    /**
+     * Returns the number of distinct strings.
+     *
+     * @return the size of the dictionary
+     */
+    public int size() {
+        return values.size();
+    }
+
+    private int add(String value, byte[] utf8, int hash) {
+        int id = values.size();
+        ids.put(value, id);
+        values.add(value);
+        if (id == bytes.length) {
+            bytes = Arrays.copyOf(bytes, id * 2);
+            hashes = Arrays.copyOf(hashes, id * 2);
+        }
+        bytes[id] = utf8;
+        hashes[id] = hash;
+        if (2 * values.size() > slots.length) {
+            rehash(slots.length * 2);
+        } else {
+            insertSlot(id);
+        }
+        return id;
+    }
+
+    private void rehash(int slotCount) {
+        slots = new int[slotCount];
+        for (int id = 0; id < values.size(); id++) {
+            insertSlot(id);
+        }
+    }
+
+    private void insertSlot(int id) {
+        int mask = slots.length - 1;
+        int slot = hashes[id] & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id + 1;
+    }
+
+    private static int hash(ByteBuffer buffer, int offset, int length) {
+        int h = 0x811C9DC5; // FNV-1a
+        for (int i = 0; i < length; i++) {
+            h = (h ^ (buffer.get(offset + i) & 0xFF)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equals(byte[] value, ByteBuffer buffer, int offset, int length) {
+        if (value.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value[i] != buffer.get(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
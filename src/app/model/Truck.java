@@ -4,6 +4,11 @@ import java.util.List;
 
 /**
  * Represents a truck for storing Parcels with a fixed capacity.
+ * <p>
+ * Besides weight, a truck can limit the volume and the number of pallet slots
+ * of its load; a parcel fits only if there is room for it in every resource.
+ * Trucks built without those limits have unlimited volume and slots, and
+ * behave as weight-only trucks.
  */
 public class Truck extends AbstractStackContainer<Parcel> implements Comparable<Truck> {
 
@@ -13,6 +18,23 @@ public class Truck extends AbstractStackContainer<Parcel> implements Comparable<
     private final double capacity;
     /** Remaining capacity of the truck. */
     private double remainingCapacity;
+    /** Fixed-point scale, or null when capacities are tracked as doubles. */
+    private final WeightScale scale;
+    /** Remaining capacity in units of the scale (fixed-point mode only). */
+    private long remainingUnits;
+    /** Maximum volume of the truck. */
+    private final double volumeCapacity;
+    /** Remaining volume of the truck. */
+    private double remainingVolume;
+    /** Number of pallet slots of the truck. */
+    private final int palletCapacity;
+    /** Free pallet slots of the truck. */
+    private int remainingPalletSlots;
+
+    /** Volume capacity of a truck that does not limit volume. */
+    public static final double UNLIMITED_VOLUME = Double.POSITIVE_INFINITY;
+    /** Pallet capacity of a truck that does not limit pallet slots. */
+    public static final int UNLIMITED_PALLETS = Integer.MAX_VALUE;
 
     /**
      * Constructs a Truck with the specified index and capacity.
@@ -20,10 +42,59 @@ public class Truck extends AbstractStackContainer<Parcel> implements Comparable<
      * @param capacity maximum weight capacity
      */
     public Truck(int index, double capacity) {
+        this(index, capacity, null);
+    }
+
+    /**
+     * Constructs a Truck that tracks its capacity in fixed-point units of the
+     * given scale, so that adding parcels never accumulates rounding error.
+     * @param index identifier for this truck
+     * @param capacity maximum weight capacity
+     * @param scale fixed-point scale, or null to track capacity as a double
+     */
+    public Truck(int index, double capacity, WeightScale scale) {
+        this(index, capacity, UNLIMITED_VOLUME, UNLIMITED_PALLETS, scale);
+    }
+
+    /**
+     * Constructs a Truck that limits weight, volume and pallet slots.
+     * @param index identifier for this truck
+     * @param capacity maximum weight capacity
+     * @param volumeCapacity maximum volume, or {@link #UNLIMITED_VOLUME}
+     * @param palletCapacity number of pallet slots, or {@link #UNLIMITED_PALLETS}
+     * @param scale fixed-point scale of the weights, or null to track capacity as a double
+     */
+    public Truck(int index, double capacity, double volumeCapacity, int palletCapacity, WeightScale scale) {
         super(); // it will create items arraylist
         this.index = index;
         this.capacity = capacity;
         this.remainingCapacity = capacity;
+        this.scale = scale;
+        if (scale != null) {
+            this.remainingUnits = scale.toUnits(capacity);
+        }
+        this.volumeCapacity = volumeCapacity;
+        this.remainingVolume = volumeCapacity;
+        this.palletCapacity = palletCapacity;
+        this.remainingPalletSlots = palletCapacity;
+    }
+
+    /**
+     * Returns a copy of this truck under another index, holding the same
+     * parcels in the same order with exactly the same remaining resources,
+     * for renumbering trucks. Loading a new truck with the parcels again
+     * could round differently in double mode.
+     * @param newIndex identifier for the copy
+     * @return the copy
+     */
+    public Truck withIndex(int newIndex) {
+        Truck copy = new Truck(newIndex, capacity, volumeCapacity, palletCapacity, scale);
+        copy.items.addAll(items);
+        copy.remainingCapacity = remainingCapacity;
+        copy.remainingUnits = remainingUnits;
+        copy.remainingVolume = remainingVolume;
+        copy.remainingPalletSlots = remainingPalletSlots;
+        return copy;
     }
 
     /**
@@ -58,6 +129,60 @@ public class Truck extends AbstractStackContainer<Parcel> implements Comparable<
         return remainingCapacity;
     }
 
+    /**
+     * Returns the remaining capacity in fixed-point units.
+     * @return remaining capacity in units
+     * @throws IllegalStateException if the truck has no fixed-point scale
+     */
+    public long getRemainingUnits() {
+        if (scale == null) {
+            throw new IllegalStateException("Truck " + index + " does not use fixed-point capacities.");
+        }
+        return remainingUnits;
+    }
+
+    /**
+     * Returns the fixed-point scale of the truck.
+     * @return the scale, or null if capacities are tracked as doubles
+     */
+    public WeightScale getScale() {
+        return scale;
+    }
+
+    /**
+     * Returns the maximum volume of the truck.
+     * @return volume capacity, or {@link #UNLIMITED_VOLUME}
+     */
+    public double getVolumeCapacity() {
+        return volumeCapacity;
+    }
+
+    /**
+     * Returns the remaining volume of the truck.
+     * @return remaining volume
+     */
+    @Override
+    public double getRemainingVolume() {
+        return remainingVolume;
+    }
+
+    /**
+     * Returns the number of pallet slots of the truck.
+     * @return pallet capacity, or {@link #UNLIMITED_PALLETS}
+     */
+    public int getPalletCapacity() {
+        return palletCapacity;
+    }
+
+    /**
+     * Returns the number of free pallet slots of the truck.
+     * @return free pallet slots
+     */
+    @Override
+    public int getRemainingPalletSlots() {
+        return remainingPalletSlots;
+    }
+
     /**
      * Returns the used capacity of the truck.
      * @return used capacity
@@ -74,24 +199,76 @@ public class Truck extends AbstractStackContainer<Parcel> implements Comparable<
     public boolean addParcel(Parcel parcel) {
         if (canFit(parcel)) {
             push(parcel);
-            remainingCapacity -= parcel.getWeight();
+            if (scale != null) {
+                remainingUnits -= scale.toUnits(parcel.getWeight());
+                remainingCapacity = scale.toWeight(remainingUnits);
+            } else {
+                remainingCapacity -= parcel.getWeight();
+            }
+            remainingVolume -= parcel.getVolume();
+            remainingPalletSlots -= parcel.getPalletSlots();
             return true;
         }
         return false;
     }
 
     /**
-     * Removes the most recently added parcel from the truck.
+     * Removes the most recently added parcel from the truck and gives its
+     * weight, volume and pallet slots back.
      * @return true if a parcel was removed, false if empty
      */
     public boolean removeParcel() {
         if (!isEmpty()) {
-            pop();
+            release(pop());
             return true;
         }
         return false;
     }
 
+    /**
+     * Removes the given parcel from anywhere in the truck and gives its
+     * weight, volume and pallet slots back. The other parcels keep their
+     * order.
+     * @param parcel parcel to remove
+     * @return true if removed, false if the parcel is not in this truck
+     */
+    public boolean removeParcel(Parcel parcel) {
+        // Search from the top, where recently added parcels are
+        for (int i = getSize() - 1; i >= 0; i--) {
+            if (items.get(i) == parcel) {
+                items.remove(i);
+                release(parcel);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the resources of a removed parcel to the truck, with the same
+     * arithmetic as {@link #addParcel}. An emptied truck is reset to its full
+     * capacities, so no rounding error of double mode outlives its load.
+     */
+    private void release(Parcel parcel) {
+        if (isEmpty()) {
+            remainingCapacity = capacity;
+            if (scale != null) {
+                remainingUnits = scale.toUnits(capacity);
+            }
+            remainingVolume = volumeCapacity;
+            remainingPalletSlots = palletCapacity;
+            return;
+        }
+        if (scale != null) {
+            remainingUnits += scale.toUnits(parcel.getWeight());
+            remainingCapacity = scale.toWeight(remainingUnits);
+        } else {
+            remainingCapacity += parcel.getWeight();
+        }
+        remainingVolume += parcel.getVolume();
+        remainingPalletSlots += parcel.getPalletSlots();
+    }
+
     /**
      * Retrieves the top parcel without removing it.
      * @return top parcel or null if empty
@@ -104,12 +281,19 @@ public class Truck extends AbstractStackContainer<Parcel> implements Comparable<
     }
 
     /**
-     * Checks if the given item can fit in the remaining capacity.
+     * Checks if the given item can fit in the remaining capacity, volume and
+     * pallet slots.
      * @param item item to check
      * @return true if it fits, false otherwise
      */
     @Override
     public boolean canFit(Item item) {
+        if (item.getVolume() > remainingVolume || item.getPalletSlots() > remainingPalletSlots) {
+            return false;
+        }
+        if (scale != null) {
+            return remainingUnits >= scale.toUnits(item.getWeight());
+        }
         return remainingCapacity >= item.getWeight();
     }
 
@@ -1,15 +1,26 @@
 package app.model;
 
 import java.util.List;
+import java.util.function.IntToDoubleFunction;
 
 /**
  * Represents the problem definition for truck loading, encapsulating the
  * capacity of the trucks (bins) and the list of parcels (items) to be loaded.
+ * <p>
+ * Trucks may also limit the volume and pallet slots of their load. Those
+ * limits are only honoured by the vector strategies (see
+ * {@link app.strategy.VectorFirstFitStrategy}); the other strategies pack by
+ * weight alone, and reject a problem that sets them through
+ * {@link #requireWeightOnly(String)}.
  */
 public class TruckLoadingProblem {
 
     private final double binCapacity;
     private final List<Parcel> parcels;
+    private final ParcelBatch parcelBatch;
+    private final WeightScale weightScale;
+    private final double volumeCapacity;
+    private final int palletCapacity;
 
     /**
      * Constructs a new TruckLoadingProblem instance.
@@ -18,20 +29,118 @@ public class TruckLoadingProblem {
      * @param parcels The list of parcels (items) that need to be loaded.
      */
     public TruckLoadingProblem(double binCapacity, List<Parcel> parcels) {
+        this(binCapacity, parcels, null);
+    }
+
+    /**
+     * Constructs a new TruckLoadingProblem instance whose capacities are
+     * computed in fixed-point units of the given scale.
+     *
+     * @param binCapacity The maximum weight capacity of each truck (bin).
+     * @param parcels The list of parcels (items) that need to be loaded.
+     * @param weightScale The fixed-point scale, or null for double arithmetic.
+     * The capacity and every parcel weight must be representable at it.
+     */
+    public TruckLoadingProblem(double binCapacity, List<Parcel> parcels, WeightScale weightScale) {
+        this(binCapacity, Truck.UNLIMITED_VOLUME, Truck.UNLIMITED_PALLETS, parcels, weightScale);
+    }
+
+    /**
+     * Constructs a new TruckLoadingProblem instance whose trucks limit volume
+     * and pallet slots as well as weight.
+     *
+     * @param binCapacity The maximum weight capacity of each truck (bin).
+     * @param volumeCapacity The maximum volume of each truck, or
+     * {@link Truck#UNLIMITED_VOLUME}.
+     * @param palletCapacity The number of pallet slots of each truck, or
+     * {@link Truck#UNLIMITED_PALLETS}.
+     * @param parcels The list of parcels (items) that need to be loaded.
+     * @param weightScale The fixed-point scale, or null for double arithmetic.
+     * The capacity and every parcel weight must be representable at it.
+     */
+    public TruckLoadingProblem(double binCapacity, double volumeCapacity, int palletCapacity, List<Parcel> parcels, WeightScale weightScale) {
+        if (parcels == null || parcels.isEmpty()) {
+            throw new IllegalArgumentException("Parcels list cannot be null or empty.");
+        }
+        validate(binCapacity, parcels.size(), i -> parcels.get(i).getWeight(), weightScale);
+        validateResources(volumeCapacity, palletCapacity, parcels);
+        this.binCapacity = binCapacity;
+        this.parcels = parcels;
+        this.parcelBatch = null;
+        this.weightScale = weightScale;
+        this.volumeCapacity = volumeCapacity;
+        this.palletCapacity = palletCapacity;
+    }
+
+    /**
+     * Constructs a new TruckLoadingProblem instance over a columnar batch of
+     * parcels. Strategies that support it read the weight column directly;
+     * {@link #getParcels()} returns a view creating parcels on demand.
+     *
+     * @param binCapacity The maximum weight capacity of each truck (bin).
+     * @param parcelBatch The parcels (items) that need to be loaded.
+     * @param weightScale The fixed-point scale, or null for double arithmetic.
+     * The capacity and every parcel weight must be representable at it.
+     */
+    public TruckLoadingProblem(double binCapacity, ParcelBatch parcelBatch, WeightScale weightScale) {
+        if (parcelBatch == null || parcelBatch.isEmpty()) {
+            throw new IllegalArgumentException("Parcel batch cannot be null or empty.");
+        }
+        validate(binCapacity, parcelBatch.size(), parcelBatch::getWeight, weightScale);
+        this.binCapacity = binCapacity;
+        this.parcels = parcelBatch.asList();
+        this.parcelBatch = parcelBatch;
+        this.weightScale = weightScale;
+        this.volumeCapacity = Truck.UNLIMITED_VOLUME;
+        this.palletCapacity = Truck.UNLIMITED_PALLETS;
+    }
+
+    /**
+     * Checks that the capacity is positive, that every parcel fits in an
+     * empty truck and, in fixed-point mode, that all values are representable.
+     */
+    private static void validate(double binCapacity, int count, IntToDoubleFunction weightAt, WeightScale weightScale) {
         if (binCapacity <= 0) {
             throw new IllegalArgumentException("Bin capacity must be greater than zero.");
         }
-        if (parcels == null || parcels.isEmpty()) {
-            throw new IllegalArgumentException("Parcels list cannot be null or empty.");
+        if (weightScale != null && !weightScale.isRepresentable(binCapacity)) {
+            throw new IllegalArgumentException("Bin capacity " + binCapacity + " is not representable in " + weightScale + ".");
         }
         // Check if any parcel is too large for the bin
-        double maxParcelWeight = parcels.stream().mapToDouble(Parcel::getWeight).max().orElse(0);
+        double maxParcelWeight = 0;
+        for (int i = 0; i < count; i++) {
+            double weight = weightAt.applyAsDouble(i);
+            maxParcelWeight = Math.max(maxParcelWeight, weight);
+            if (weightScale != null && !weightScale.isRepresentable(weight)) {
+                throw new IllegalArgumentException("Weight " + weight + " of parcel #" + (i + 1) + " is not representable in " + weightScale + ".");
+            }
+        }
         if (binCapacity < maxParcelWeight) {
             System.err.printf("Unsolvable: Bin capacity %.2f is smaller than the largest parcel weight %.2f.\n", binCapacity, maxParcelWeight);
             throw new IllegalArgumentException("Problem is unsolvable: bin capacity is smaller than the largest parcel.");
         }
-        this.binCapacity = binCapacity;
-        this.parcels = parcels;
+    }
+
+    /**
+     * Checks that the volume and pallet limits are positive and that every
+     * parcel fits them in an empty truck.
+     */
+    private static void validateResources(double volumeCapacity, int palletCapacity, List<Parcel> parcels) {
+        if (!(volumeCapacity > 0)) {
+            throw new IllegalArgumentException("Volume capacity must be greater than zero.");
+        }
+        if (palletCapacity <= 0) {
+            throw new IllegalArgumentException("Pallet capacity must be greater than zero.");
+        }
+        for (int i = 0; i < parcels.size(); i++) {
+            Parcel parcel = parcels.get(i);
+            if (!(parcel.getVolume() >= 0) || parcel.getVolume() > volumeCapacity || parcel.getVolume() == Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException("Volume " + parcel.getVolume() + " of parcel #" + (i + 1) + " does not fit an empty truck.");
+            }
+            if (parcel.getPalletSlots() < 0 || parcel.getPalletSlots() > palletCapacity) {
+                throw new IllegalArgumentException("Pallet slots " + parcel.getPalletSlots() + " of parcel #" + (i + 1) + " do not fit an empty truck.");
+            }
+        }
     }
 
     /**
@@ -43,6 +152,68 @@ public class TruckLoadingProblem {
         return binCapacity;
     }
 
+    /**
+     * Returns the volume limit of the trucks.
+     *
+     * @return The maximum volume of each truck, or
+     * {@link Truck#UNLIMITED_VOLUME}.
+     */
+    public double getVolumeCapacity() {
+        return volumeCapacity;
+    }
+
+    /**
+     * Returns the pallet slot limit of the trucks.
+     *
+     * @return The number of pallet slots of each truck, or
+     * {@link Truck#UNLIMITED_PALLETS}.
+     */
+    public int getPalletCapacity() {
+        return palletCapacity;
+    }
+
+    /**
+     * Checks whether the trucks limit volume or pallet slots as well as
+     * weight.
+     *
+     * @return true if either limit is set
+     */
+    public boolean limitsVolumeOrPallets() {
+        return volumeCapacity != Truck.UNLIMITED_VOLUME || palletCapacity != Truck.UNLIMITED_PALLETS;
+    }
+
+    /**
+     * Checks that a strategy packing by weight alone can solve this problem,
+     * rather than let it load trucks beyond their volume or pallet slots.
+     *
+     * @param strategyName the name of the strategy, for the message
+     * @throws IllegalArgumentException if the trucks limit volume or pallet
+     * slots
+     */
+    public void requireWeightOnly(String strategyName) {
+        if (limitsVolumeOrPallets()) {
+            throw new IllegalArgumentException(strategyName + " packs by weight alone, but the trucks limit volume or pallet slots.");
+        }
+    }
+
+    /**
+     * Returns the fixed-point scale used for capacity arithmetic.
+     *
+     * @return The scale, or null if capacities are computed as doubles.
+     */
+    public WeightScale getWeightScale() {
+        return weightScale;
+    }
+
+    /**
+     * Returns the columnar batch of parcels to be loaded.
+     *
+     * @return The batch, or null if the problem was built from a list.
+     */
+    public ParcelBatch getParcelBatch() {
+        return parcelBatch;
+    }
+
     /**
      * Returns the list of parcels to be loaded.
      *
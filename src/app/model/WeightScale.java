@@ -0,0 +1,154 @@
+package app.model;
+
+/**
+ * Defines a fixed-point representation of weights as a {@code long} number of
+ * units, where one unit is {@code 10^-decimals} kg.
+ * <p>
+ * Capacity arithmetic on units is exact, so remaining capacities never drift
+ * the way repeated {@code double} subtraction does. Converting units back with
+ * {@link #toWeight(long)} always yields the {@code double} closest to the
+ * decimal value, the same one {@link Double#parseDouble(String)} returns for
+ * its text, so both representations agree exactly.
+ */
+public final class WeightScale {
+
+    /**
+     * Scale with a resolution of 0.1 kg, the resolution of the parcel data.
+     */
+    public static final WeightScale TENTHS = new WeightScale(1);
+
+    private static final int MAX_DECIMALS = 9;
+
+    private final int decimals;
+    private final long unitsPerKg;
+
+    /**
+     * Constructs a scale.
+     *
+     * @param decimals the number of decimal places of one unit (0 to 9)
+     */
+    public WeightScale(int decimals) {
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("Decimals must be between 0 and " + MAX_DECIMALS + ".");
+        }
+        long units = 1;
+        for (int i = 0; i < decimals; i++) {
+            units *= 10;
+        }
+        this.decimals = decimals;
+        this.unitsPerKg = units;
+    }
+
+    /**
+     * Returns the number of decimal places of one unit.
+     *
+     * @return the number of decimals
+     */
+    public int getDecimals() {
+        return decimals;
+    }
+
+    /**
+     * Returns the number of units in one kilogram.
+     *
+     * @return units per kg
+     */
+    public long getUnitsPerKg() {
+        return unitsPerKg;
+    }
+
+    /**
+     * Converts a weight to the nearest number of units. Exact for every weight
+     * that is representable at this scale (see {@link #isRepresentable}).
+     *
+     * @param weight the weight in kg
+     * @return the weight in units
+     */
+    public long toUnits(double weight) {
+        return Math.round(weight * unitsPerKg);
+    }
+
+    /**
+     * Converts a number of units to a weight in kg.
+     *
+     * @param units the weight in units
+     * @return the weight in kg
+     */
+    public double toWeight(long units) {
+        return units / (double) unitsPerKg;
+    }
+
+    /**
+     * Checks whether a weight has no more decimal places than this scale, i.e.
+     * converting it to units and back gives the same {@code double}.
+     *
+     * @param weight the weight in kg
+     * @return true if the weight is exactly representable
+     */
+    public boolean isRepresentable(double weight) {
+        return toWeight(toUnits(weight)) == weight;
+    }
+
+    /**
+     * Parses a decimal weight such as {@code "49.7"} directly into units
+     * without going through a {@code double}.
+     *
+     * @param text the weight text, without surrounding whitespace
+     * @return the weight in units
+     * @throws NumberFormatException if the text is not a plain decimal number,
+     * or has non-zero digits beyond the scale's resolution
+     */
+    public long parseUnits(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long units = 0;
+        int digits = 0;
+        int fractionDigits = -1; // -1 until the decimal point is seen
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Invalid weight: \"" + text + "\"");
+            }
+            digits++;
+            if (fractionDigits >= 0) {
+                if (fractionDigits == decimals) {
+                    if (c != '0') {
+                        throw new NumberFormatException("Weight \"" + text + "\" is finer than " + decimals + " decimal place(s)");
+                    }
+                    continue;
+                }
+                fractionDigits++;
+            }
+            if (units > (Long.MAX_VALUE - 9) / 10) {
+                throw new NumberFormatException("Weight out of range: \"" + text + "\"");
+            }
+            units = units * 10 + (c - '0');
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Invalid weight: \"" + text + "\"");
+        }
+        for (int f = Math.max(fractionDigits, 0); f < decimals; f++) {
+            units *= 10;
+        }
+        return negative ? -units : units;
+    }
+
+    /**
+     * Returns a string representation of the scale.
+     *
+     * @return a string such as "0.1 kg units"
+     */
+    @Override
+    public String toString() {
+        return toWeight(1) + " kg units";
+    }
+}
@@ -0,0 +1,387 @@
+package app.service;
+
+import app.io.CsvDataLoader;
+import app.io.OutputFormatter;
+import app.model.LowerBounds;
+import app.model.Parcel;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import app.model.WeightScale;
+import app.strategy.CachingTruckLoadingStrategy;
+import app.strategy.SolutionCache;
+import app.strategy.StrategyRegistry;
+import app.strategy.TruckLoadingStrategy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-running solver process that takes jobs over a localhost socket, so the
+ * JVM starts, loads the strategies and warms up its JIT once instead of once
+ * per job.
+ * <p>
+ * Each connection is served by its own thread: a virtual thread when the
+ * runtime has them (Java 21 and later, looked up by reflection so the class
+ * still compiles and runs on older releases), otherwise a thread from a
+ * cached pool. Connection threads only parse requests and write reports; the
+ * solves run on a fixed pool of solver threads behind a bounded queue. When
+ * the queue is full, connection threads block until a job finishes, so a
+ * burst of clients slows down instead of exhausting the heap.
+ * <p>
+ * The protocol is line-based UTF-8 text. A connection sends any number of
+ * jobs, one after the other:
+ * <pre>
+ *   SOLVE &lt;capacity&gt; &lt;strategy&gt;                    parcel rows follow, then a line END
+ *   SOLVE &lt;capacity&gt; &lt;strategy&gt; &lt;file&gt; [&lt;count&gt;]   parcels are read from a CSV file
+ *   QUIT
+ * </pre>
+ * The strategy is a simple class name from {@link StrategyRegistry} and the
+ * parcel rows use the CSV format of {@link CsvDataLoader}, without a header.
+ * Each job is answered with the report of
+ * {@link OutputFormatter#displayResults(List, String, LowerBounds, PrintWriter)},
+ * or a line {@code ERROR <message>}, followed by a line {@code END}. The
+ * report is written straight to the socket as it is formatted. Jobs that
+ * repeat a manifest are answered from a {@link SolutionCache}.
+ * <p>
+ * Options (all optional):
+ * <pre>
+ *   --port 7878  --threads (number of cores)  --queue 1024
+ *   --cache-mb 64 (memory budget of the solution cache, or 0 to solve every job)
+ *   --decimals none (doubles, or the fixed-point weight scale, e.g. 1)
+ * </pre>
+ */
+public class SolverService implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 7878;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final int DEFAULT_CACHE_MB = 64;
+
+    private static final String SOLVE = "SOLVE";
+    private static final String QUIT = "QUIT";
+    private static final String END = "END";
+    private static final String ERROR = "ERROR";
+
+    private final WeightScale weightScale;
+    private final SolutionCache cache; // Packings of recent jobs, or null
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private final ThreadPoolExecutor solvers;
+    private final Semaphore slots; // Jobs that may be running or queued
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    /**
+     * Starts a service listening on localhost.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @param threads the number of solver threads
+     * @param queueCapacity the number of jobs that may wait for a solver
+     * thread before connections block
+     * @param weightScale the fixed-point scale of the parcel weights, or null
+     * to parse them as doubles
+     * @param cache the cache of packings, or null to solve every job
+     * @throws IOException if the port cannot be bound
+     */
+    public SolverService(int port, int threads, int queueCapacity, WeightScale weightScale, SolutionCache cache) throws IOException {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("The service needs at least one solver thread and one queue slot.");
+        }
+        this.weightScale = weightScale;
+        this.cache = cache;
+        this.serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        this.connections = newConnectionExecutor();
+        AtomicInteger solverCount = new AtomicInteger();
+        this.solvers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "solver-" + solverCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.slots = new Semaphore(threads + queueCapacity);
+        this.acceptor = new Thread(this::acceptLoop, "solver-service-acceptor");
+        this.acceptor.start();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("port", String.valueOf(DEFAULT_PORT));
+        options.put("threads", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        options.put("queue", String.valueOf(DEFAULT_QUEUE_CAPACITY));
+        options.put("decimals", "none");
+        options.put("cache-mb", String.valueOf(DEFAULT_CACHE_MB));
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Invalid argument: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        WeightScale scale = options.get("decimals").equals("none")
+                ? null : new WeightScale(Integer.parseInt(options.get("decimals")));
+        long cacheBytes = Long.parseLong(options.get("cache-mb")) << 20;
+
+        SolverService service = new SolverService(Integer.parseInt(options.get("port")),
+                Integer.parseInt(options.get("threads")), Integer.parseInt(options.get("queue")), scale,
+                cacheBytes > 0 ? new SolutionCache(cacheBytes) : null);
+        Runtime.getRuntime().addShutdownHook(new Thread(service::close));
+        System.out.println("Solver service listening on port " + service.getPort()
+                + " (" + (service.usesVirtualThreads() ? "virtual" : "pooled") + " connection threads)");
+        service.acceptor.join();
+    }
+
+    /**
+     * Returns the port the service listens on.
+     *
+     * @return the local port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns whether connections are served on virtual threads.
+     *
+     * @return true on runtimes with virtual threads
+     */
+    public boolean usesVirtualThreads() {
+        return !(connections instanceof ThreadPoolExecutor);
+    }
+
+    /**
+     * Stops accepting connections and closes the thread pools. Jobs already
+     * submitted are abandoned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        connections.shutdownNow();
+        solvers.shutdownNow();
+    }
+
+    /**
+     * Creates a virtual thread per task executor when the runtime has one,
+     * otherwise a cached thread pool.
+     */
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger connectionCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "solver-connection-" + connectionCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (RejectedExecutionException | IOException e) {
+                if (!closed) {
+                    System.err.println("Error accepting connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Answers the jobs of one connection until the client quits or hangs up.
+     */
+    private void serve(Socket socket) {
+        try (Socket client = socket;
+                BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8)))) {
+            client.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.equals(QUIT)) {
+                    break;
+                }
+                try {
+                    Solution solution = solve(readJob(line, in));
+                    OutputFormatter.displayResults(solution.trucks, solution.name, solution.bounds, out);
+                } catch (IllegalArgumentException e) {
+                    out.println(ERROR + " " + e.getMessage());
+                } catch (ExecutionException e) {
+                    out.println(ERROR + " " + e.getCause());
+                }
+                out.println(END);
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SocketException e) {
+            // The client hung up
+        } catch (IOException e) {
+            System.err.println("Error serving connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a job from its request line and, for inline parcels, the rows up
+     * to the END line. The rows are always consumed, so an invalid job does
+     * not desynchronise the connection.
+     *
+     * @throws IllegalArgumentException if the job or its problem is invalid
+     */
+    private Job readJob(String request, BufferedReader in) throws IOException {
+        String[] tokens = request.split("\\s+");
+        List<String> rows = null;
+        if (tokens.length == 3 && tokens[0].equals(SOLVE)) {
+            rows = new ArrayList<>();
+            String row;
+            while ((row = in.readLine()) != null && !row.trim().equals(END)) {
+                if (!row.isBlank()) {
+                    rows.add(row);
+                }
+            }
+        }
+        if (!tokens[0].equals(SOLVE) || tokens.length < 3 || tokens.length > 5) {
+            throw new IllegalArgumentException("Expected SOLVE <capacity> <strategy> [<file> [<count>]], got: " + request);
+        }
+        double capacity = Double.parseDouble(tokens[1]);
+        Class<? extends TruckLoadingStrategy> strategyClass = StrategyRegistry.forName(tokens[2]);
+        if (strategyClass == null) {
+            throw new IllegalArgumentException("Unknown strategy: " + tokens[2]);
+        }
+
+        List<Parcel> parcels;
+        if (rows != null) {
+            parcels = new ArrayList<>(rows.size());
+            for (String row : rows) {
+                parcels.add(parseRow(parcels.size(), row));
+            }
+        } else {
+            int count = tokens.length == 5 ? Integer.parseInt(tokens[4]) : Integer.MAX_VALUE;
+            parcels = readParcels(tokens[3], count);
+        }
+        return new Job(new TruckLoadingProblem(capacity, parcels, weightScale), strategyClass);
+    }
+
+    /**
+     * Reads up to {@code count} parcels from a CSV file with a header. Unlike
+     * {@link CsvDataLoader#readCSV}, which logs problems to the console and
+     * carries on, this reports them to the client: an unreadable file or an
+     * invalid row fails the job.
+     */
+    private List<Parcel> readParcels(String filePath, int count) {
+        List<Parcel> parcels = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            reader.readLine(); // Skip the header
+            String row;
+            while (parcels.size() < count && (row = reader.readLine()) != null) {
+                if (!row.isBlank()) {
+                    parcels.add(parseRow(parcels.size(), row));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read " + filePath + ": " + e.getMessage());
+        }
+        return parcels;
+    }
+
+    /**
+     * Parses one parcel row of a job.
+     */
+    private Parcel parseRow(int index, String row) {
+        try {
+            return CsvDataLoader.parseParcel(index, row, weightScale);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid parcel row (" + e.getMessage() + "): " + row);
+        }
+    }
+
+    /**
+     * Runs a job on a solver thread, first waiting for a queue slot if every
+     * slot is taken.
+     */
+    private Solution solve(Job job) throws InterruptedException, ExecutionException {
+        slots.acquire();
+        Future<Solution> result;
+        try {
+            result = solvers.submit(() -> {
+                try {
+                    return job.solve(cache);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw new IllegalArgumentException("The service is shutting down.");
+        }
+        return result.get();
+    }
+
+    /**
+     * A parsed request.
+     */
+    private static final class Job {
+
+        final TruckLoadingProblem problem;
+        final Class<? extends TruckLoadingStrategy> strategyClass;
+
+        Job(TruckLoadingProblem problem, Class<? extends TruckLoadingStrategy> strategyClass) {
+            this.problem = problem;
+            this.strategyClass = strategyClass;
+        }
+
+        Solution solve(SolutionCache cache) {
+            TruckLoadingStrategy strategy = cache != null
+                    ? new CachingTruckLoadingStrategy(strategyClass, cache) : StrategyRegistry.newInstance(strategyClass);
+            strategy.solve(problem);
+            return new Solution(strategy.getName(), strategy.getTrucks(), LowerBounds.of(problem));
+        }
+    }
+
+    /**
+     * The outcome of a job, formatted by the connection thread.
+     */
+    private static final class Solution {
+
+        final String name;
+        final List<Truck> trucks;
+        final LowerBounds bounds;
+
+        Solution(String name, List<Truck> trucks, LowerBounds bounds) {
+            this.name = name;
+            this.trucks = trucks;
+            this.bounds = bounds;
+        }
+    }
+}
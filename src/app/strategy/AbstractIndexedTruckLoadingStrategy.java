@@ -0,0 +1,223 @@
+package app.strategy;
+
+import app.model.Parcel;
+import app.model.ParcelBatch;
+import app.model.Truck;
+import java.util.List;
+
+/**
+ * Base class for strategies that choose a truck from a parcel's weight alone,
+ * using a primitive capacity index instead of the Truck objects.
+ * <p>
+ * Subclasses implement {@link #place(double)}, which selects a truck, updates
+ * the index with its new remaining capacity (computed exactly like
+ * {@link Truck#addParcel} does) and returns the truck index. The same method
+ * serves both input forms:
+ * <ul>
+ * <li>for a list of parcels, each parcel is then added to its Truck object;</li>
+ * <li>for a {@link ParcelBatch}, only the truck index of every parcel is
+ * recorded, and the Truck and Parcel objects are created the first time
+ * {@link #getTrucks()} is called, if ever.</li>
+ * </ul>
+ */
+public abstract class AbstractIndexedTruckLoadingStrategy extends AbstractRemovableTruckLoadingStrategy {
+
+    protected int truckCount; // Number of trucks opened so far
+
+    private ParcelBatch pendingBatch; // Batch whose trucks are not materialised yet
+    private int[] assignment; // Truck index of every parcel of the batch
+    private int[] pendingOrder; // Packing order of the batch, or null for input order
+
+    public AbstractIndexedTruckLoadingStrategy() {
+        super();
+    }
+
+    /**
+     * Constructor for an engine that packs the parcels in input order, or
+     * heaviest first.
+     *
+     * @param decreasing whether to sort the parcels by descending weight
+     * first
+     */
+    protected AbstractIndexedTruckLoadingStrategy(boolean decreasing) {
+        super(decreasing);
+    }
+
+    /**
+     * Selects the truck for a parcel of the given weight, opening a new one
+     * (index {@code truckCount}) if none fits, and records its new remaining
+     * capacity in the index.
+     *
+     * @param weight the weight of the parcel
+     * @return the index of the chosen truck
+     */
+    protected abstract int place(double weight);
+
+    /**
+     * Packs one parcel into the truck chosen by {@link #place(double)}. After
+     * a batch solve, the batch's trucks are created first, so the parcel goes
+     * into the truck the index chose.
+     *
+     * @param parcel the parcel to be packed
+     */
+    @Override
+    public void packParcel(Parcel parcel) {
+        if (pendingBatch != null) {
+            materialise();
+        }
+        this.addItemToTruck(parcel, place(parcel.getWeight()));
+    }
+
+    /**
+     * Removes a packed parcel, creating the trucks of a batch solve first.
+     */
+    @Override
+    public Parcel removeParcel(int parcelIndex) {
+        if (pendingBatch != null) {
+            materialise();
+        }
+        return super.removeParcel(parcelIndex);
+    }
+
+    /**
+     * Consolidates the trucks, creating the trucks of a batch solve first.
+     */
+    @Override
+    public int consolidate(double maxLoadFactor) {
+        if (pendingBatch != null) {
+            materialise();
+        }
+        return super.consolidate(maxLoadFactor);
+    }
+
+    /**
+     * Places every parcel of the batch by weight, recording only its truck
+     * index.
+     *
+     * @param batch the parcels to pack
+     */
+    @Override
+    protected void solveBatch(ParcelBatch batch) {
+        int[] order = packingOrder(batch::getWeight, batch.size());
+        int[] truckOf = new int[batch.size()];
+        if (order == null) {
+            for (int i = 0; i < truckOf.length; i++) {
+                checkCancelled(i);
+                truckOf[i] = place(batch.getWeight(i));
+            }
+        } else {
+            // Gather the weights in packing order and scatter the results
+            // afterwards, so the placement loop itself reads and writes
+            // sequentially instead of missing the cache on every parcel
+            double[] weights = new double[order.length];
+            for (int k = 0; k < order.length; k++) {
+                weights[k] = batch.getWeight(order[k]);
+            }
+            int[] truckByRank = new int[order.length];
+            for (int k = 0; k < order.length; k++) {
+                checkCancelled(k);
+                truckByRank[k] = place(weights[k]);
+            }
+            for (int k = 0; k < order.length; k++) {
+                truckOf[order[k]] = truckByRank[k];
+            }
+        }
+        this.assignment = truckOf;
+        this.pendingBatch = batch;
+        this.pendingOrder = order;
+    }
+
+    /**
+     * Returns the truck list, creating the trucks of a batch solve on first
+     * access.
+     *
+     * @return the trucks
+     */
+    @Override
+    public List<Truck> getTrucks() {
+        if (pendingBatch != null) {
+            materialise();
+        }
+        return trucks;
+    }
+
+    /**
+     * Returns the truck index assigned to each parcel of the last batch solve.
+     *
+     * @return the assignment, or null if the last solve was not a batch solve
+     */
+    public int[] getAssignment() {
+        return assignment;
+    }
+
+    /**
+     * Returns the number of trucks opened so far, without materialising them.
+     *
+     * @return the truck count
+     */
+    public int getTruckCount() {
+        return truckCount;
+    }
+
+    /**
+     * Opens a new truck in the index and returns its index.
+     *
+     * @return the new truck index
+     */
+    protected int openTruck() {
+        return truckCount++;
+    }
+
+    /**
+     * Takes the renumbered trucks as the ones opened so far. Subclasses
+     * rebuild their index over the trucks and call this.
+     *
+     * @param newIndexOf the new index of each truck by its old index, or -1
+     * for a dropped truck
+     */
+    @Override
+    protected void reindex(int[] newIndexOf) {
+        truckCount = trucks.size();
+    }
+
+    /**
+     * Returns the remaining capacity of a truck after adding a parcel, with
+     * the same arithmetic as {@link Truck#addParcel}: exact units in
+     * fixed-point mode, double subtraction otherwise.
+     *
+     * @param remaining the remaining capacity before
+     * @param weight the weight of the parcel
+     * @return the remaining capacity after
+     */
+    protected double remainingAfter(double remaining, double weight) {
+        if (weightScale != null) {
+            return weightScale.toWeight(weightScale.toUnits(remaining) - weightScale.toUnits(weight));
+        }
+        return remaining - weight;
+    }
+
+    /**
+     * Creates the Truck and Parcel objects of the pending batch.
+     *
+     * @throws IllegalStateException if a parcel does not fit the truck the
+     * index assigned it, which means the index and the trucks disagree
+     */
+    private void materialise() {
+        ParcelBatch batch = pendingBatch;
+        pendingBatch = null;
+        for (int t = trucks.size(); t < truckCount; t++) {
+            trucks.add(new Truck(t, truckCapacity, weightScale));
+        }
+        // Load each truck in packing order, so it ends up as in a list solve
+        for (int k = 0; k < batch.size(); k++) {
+            int i = pendingOrder == null ? k : pendingOrder[k];
+            Parcel parcel = batch.get(i);
+            Truck truck = trucks.get(assignment[i]);
+            if (!truck.addParcel(parcel)) {
+                throw new IllegalStateException("Truck " + truck.getIndex() + " cannot fit " + parcel + ".");
+            }
+            parcelPlaced(parcel, truck);
+        }
+        pendingOrder = null;
+    }
+}
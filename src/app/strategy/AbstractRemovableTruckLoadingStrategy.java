@@ -0,0 +1,275 @@
+package app.strategy;
+
+import app.model.Parcel;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for strategies that keep their trucks in a capacity index and
+ * can therefore take parcels back out after packing, for cancellations and
+ * reroutes.
+ * <p>
+ * Subclasses implement {@link #detachTruck}, {@link #attachTruck} and
+ * {@link #fittingTruck}, so that {@link #removeParcel(int)} and
+ * {@link #consolidate(double)} update the index in O(log n) per truck touched
+ * instead of solving again, and {@link #reindex} to rebuild the index once
+ * consolidation has dropped the empty trucks.
+ * <p>
+ * The truck holding each parcel is found through a map from parcel index to
+ * truck. It is built from the trucks on the first removal, so a solve that
+ * never removes a parcel does not pay for it, and from then on is updated
+ * wherever a parcel is placed, through {@link #parcelPlaced}.
+ *
+ * @see RemovableTruckLoadingStrategy
+ */
+public abstract class AbstractRemovableTruckLoadingStrategy extends AbstractTruckLoadingStrategy
+        implements RemovableTruckLoadingStrategy {
+
+    private Map<Integer, Truck> truckOfParcel; // Truck holding each parcel, built on first removal
+
+    public AbstractRemovableTruckLoadingStrategy() {
+        super();
+    }
+
+    /**
+     * Constructor for a strategy that packs the parcels in input order, or
+     * heaviest first.
+     *
+     * @param decreasing whether to sort the parcels by descending weight
+     * first
+     */
+    protected AbstractRemovableTruckLoadingStrategy(boolean decreasing) {
+        super(decreasing);
+    }
+
+    @Override
+    public void solve(TruckLoadingProblem problem) {
+        this.truckOfParcel = null;
+        super.solve(problem);
+    }
+
+    /**
+     * Adds the parcel to a truck, as {@link AbstractTruckLoadingStrategy}
+     * does, and records where it went.
+     */
+    @Override
+    protected Truck addItemToTruck(Parcel parcel, int truckIndex) {
+        Truck truck = super.addItemToTruck(parcel, truckIndex);
+        parcelPlaced(parcel, truck);
+        return truck;
+    }
+
+    /**
+     * Records the truck a parcel was placed in. Subclasses that add parcels
+     * to their trucks directly, rather than through {@link #addItemToTruck},
+     * call this after each one.
+     *
+     * @param parcel the parcel
+     * @param truck the truck now holding it
+     */
+    protected final void parcelPlaced(Parcel parcel, Truck truck) {
+        if (truckOfParcel != null) {
+            truckOfParcel.put(parcel.getIndex(), truck);
+        }
+    }
+
+    /**
+     * Removes a packed parcel, for example a cancelled one, from its truck and
+     * updates the strategy's index with the truck's new remaining capacity.
+     *
+     * @param parcelIndex the index of the parcel
+     * @return the removed parcel
+     * @throws IllegalArgumentException if no packed parcel has that index
+     */
+    @Override
+    public Parcel removeParcel(int parcelIndex) {
+        if (truckOfParcel == null) {
+            indexParcels();
+        }
+        Truck truck = truckOfParcel.get(parcelIndex);
+        Parcel parcel = truck == null ? null : parcelIn(truck, parcelIndex);
+        if (parcel == null) {
+            throw new IllegalArgumentException("No packed parcel has index " + parcelIndex + ".");
+        }
+        unload(truck, parcel);
+        truckOfParcel.remove(parcelIndex);
+        return parcel;
+    }
+
+    /**
+     * Empties under-filled trucks into the others, then drops the empty
+     * trucks. The trucks loaded to at most the given fraction of their weight
+     * capacity are tried lightest first: each parcel of the truck, heaviest
+     * first, goes where the strategy would pack it among the other trucks,
+     * and if one of them fits nowhere the truck is left as it was. Emptied
+     * trucks stay out of the index, so no parcel is moved into a truck that
+     * was just emptied.
+     *
+     * @param maxLoadFactor the largest load, as a fraction of the capacity, of
+     * a truck worth emptying
+     * @return the number of trucks emptied
+     */
+    @Override
+    public int consolidate(double maxLoadFactor) {
+        List<Truck> candidates = new ArrayList<>();
+        for (Truck truck : getTrucks()) {
+            if (!truck.isEmpty() && truck.getUsedCapacity() <= maxLoadFactor * truck.getCapacity()) {
+                candidates.add(truck);
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(Truck::getUsedCapacity));
+        if (truckOfParcel == null) {
+            indexParcels();
+        }
+
+        int emptied = 0;
+        for (Truck truck : candidates) {
+            // Earlier merges may have filled this truck beyond the limit
+            if (truck.getUsedCapacity() > maxLoadFactor * truck.getCapacity()) {
+                continue;
+            }
+            detachTruck(truck);
+            List<Parcel> cargo = new ArrayList<>(truck.getParcels());
+            cargo.sort(Comparator.comparingDouble(Parcel::getWeight).reversed());
+            Truck[] targets = new Truck[cargo.size()];
+            int moved = 0;
+            while (moved < cargo.size()) {
+                int target = fittingTruck(cargo.get(moved));
+                if (target < 0) {
+                    break;
+                }
+                targets[moved] = trucks.get(target);
+                load(targets[moved], cargo.get(moved));
+                moved++;
+            }
+            if (moved < cargo.size()) {
+                // Put back what was moved, newest first
+                while (moved-- > 0) {
+                    unload(targets[moved], cargo.get(moved));
+                }
+                attachTruck(truck);
+                continue;
+            }
+            for (int i = 0; i < cargo.size(); i++) {
+                truck.removeParcel(cargo.get(i));
+                truckOfParcel.put(cargo.get(i).getIndex(), targets[i]);
+            }
+            emptied++;
+        }
+        dropEmptyTrucks();
+        return emptied;
+    }
+
+    /**
+     * Drops the empty trucks, those emptied by consolidation or by removals,
+     * and renumbers the others from 0 in their previous order. Trucks whose
+     * index changes are replaced by copies with the new index, and the index
+     * is rebuilt over the new list.
+     */
+    private void dropEmptyTrucks() {
+        int[] newIndexOf = new int[trucks.size()];
+        List<Truck> loaded = new ArrayList<>(trucks.size());
+        for (Truck truck : trucks) {
+            if (truck.isEmpty()) {
+                newIndexOf[truck.getIndex()] = -1;
+                continue;
+            }
+            newIndexOf[truck.getIndex()] = loaded.size();
+            if (truck.getIndex() == loaded.size()) {
+                loaded.add(truck);
+                continue;
+            }
+            Truck copy = truck.withIndex(loaded.size());
+            for (Parcel parcel : copy.getParcels()) {
+                truckOfParcel.put(parcel.getIndex(), copy);
+            }
+            loaded.add(copy);
+        }
+        if (loaded.size() == trucks.size()) {
+            return;
+        }
+        trucks.clear();
+        trucks.addAll(loaded);
+        reindex(newIndexOf);
+    }
+
+    /**
+     * Adds a parcel to a truck, keeping the index up to date.
+     */
+    private void load(Truck truck, Parcel parcel) {
+        detachTruck(truck);
+        if (!truck.addParcel(parcel)) {
+            throw new IllegalStateException("Truck " + truck.getIndex() + " cannot fit " + parcel + ".");
+        }
+        attachTruck(truck);
+    }
+
+    /**
+     * Removes a parcel from a truck, keeping the index up to date.
+     */
+    private void unload(Truck truck, Parcel parcel) {
+        detachTruck(truck);
+        truck.removeParcel(parcel);
+        attachTruck(truck);
+    }
+
+    /**
+     * Takes a truck out of the index before its load changes, so that
+     * {@link #fittingTruck} no longer returns it.
+     *
+     * @param truck a truck in the index
+     */
+    protected abstract void detachTruck(Truck truck);
+
+    /**
+     * Puts a truck back into the index with its current remaining capacity.
+     *
+     * @param truck a truck taken out by {@link #detachTruck}
+     */
+    protected abstract void attachTruck(Truck truck);
+
+    /**
+     * Returns the truck the strategy would pack a parcel into, among the
+     * trucks in the index, without packing it.
+     *
+     * @param parcel the parcel
+     * @return the truck index, or -1 if the parcel would open a new truck
+     */
+    protected abstract int fittingTruck(Parcel parcel);
+
+    /**
+     * Rebuilds the index over the truck list after consolidation has dropped
+     * the empty trucks and renumbered the others. Every truck in the list is
+     * to be indexed, with its current remaining capacity.
+     *
+     * @param newIndexOf the new index of each truck by its old index, or -1
+     * for a dropped truck
+     */
+    protected abstract void reindex(int[] newIndexOf);
+
+    private static Parcel parcelIn(Truck truck, int parcelIndex) {
+        for (Parcel parcel : truck.getParcels()) {
+            if (parcel.getIndex() == parcelIndex) {
+                return parcel;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Maps every packed parcel to its truck.
+     */
+    private void indexParcels() {
+        truckOfParcel = new HashMap<>();
+        for (Truck truck : getTrucks()) {
+            for (Parcel parcel : truck.getParcels()) {
+                truckOfParcel.put(parcel.getIndex(), truck);
+            }
+        }
+    }
+}
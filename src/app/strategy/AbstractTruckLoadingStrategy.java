@@ -1,39 +1,61 @@
 package app.strategy;
 
 import app.model.Parcel;
+import app.model.ParcelBatch;
 import app.model.Truck;
 import app.model.TruckLoadingProblem;
+import app.model.WeightScale;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntToDoubleFunction;
 
 /**
  * Abstract base class for implementing truck loading strategies in a bin
  * packing problem.
  *
  * This class provides the common structure and methods for different truck
- * loading algorithms. It implements the TruckLoadingStrategy interface and
+ * loading algorithms. It implements the OnlineTruckLoadingStrategy interface and
  * manages the basic operations for processing parcels and loading them into
  * trucks based on weight constraints.
  *
  * Concrete subclasses must implement the packParcel method to define specific
  * packing strategies.
  *
- * @see TruckLoadingStrategy
+ * @see OnlineTruckLoadingStrategy
+ * @see AbstractRemovableTruckLoadingStrategy
  * @see Truck
  * @see Parcel
  * @see TruckLoadingProblem
  */
-public abstract class AbstractTruckLoadingStrategy implements TruckLoadingStrategy {
+public abstract class AbstractTruckLoadingStrategy implements OnlineTruckLoadingStrategy {
+
+    protected static final int CANCEL_CHECK_INTERVAL = 4096; // Parcels between interrupt checks
 
     protected List<Truck> trucks; // Data structure to store the final list of truck
     protected double truckCapacity; //The maximum weight limit of each truck
     protected List<Parcel> parcels; // The list of parcels
+    protected WeightScale weightScale; // Fixed-point scale of the problem, or null
+
+    private final boolean decreasing; // Whether the parcels are packed heaviest first
 
     /**
      * Constructor, to load data from TruckLoadingProblem class
      */
     public AbstractTruckLoadingStrategy() {
+        this(false);
+    }
+
+    /**
+     * Constructor for a strategy that packs the parcels in input order, or
+     * sorted heaviest first to make it an offline Decreasing strategy.
+     *
+     * @param decreasing whether to sort the parcels by descending weight
+     * first
+     */
+    protected AbstractTruckLoadingStrategy(boolean decreasing) {
         this.trucks = new ArrayList<>();
+        this.decreasing = decreasing;
     }
 
     /**
@@ -44,16 +66,91 @@ public abstract class AbstractTruckLoadingStrategy implements TruckLoadingStrate
         return trucks;
     }
 
+    /**
+     * Returns true: the packing loop looks at the resources of each parcel
+     * only. Subclasses that order or place parcels by other fields return
+     * false.
+     */
+    @Override
+    public boolean packsByResourcesOnly() {
+        return true;
+    }
+
     @Override
     /**
      * Pack all the parcels, by invoking the packParcel method
      */
     public void solve(TruckLoadingProblem problem) {
+        if (!honoursResourceLimits()) {
+            problem.requireWeightOnly(getName());
+        }
         this.truckCapacity = problem.getBinCapacity();
         this.parcels = problem.getParcels();
+        this.weightScale = problem.getWeightScale();
+
+        if (problem.getParcelBatch() != null) {
+            solveBatch(problem.getParcelBatch());
+            return;
+        }
+        int[] order = packingOrder(i -> parcels.get(i).getWeight(), parcels.size());
+        for (int k = 0; k < parcels.size(); k++) {
+            checkCancelled(k);
+            packParcel(parcels.get(order == null ? k : order[k]));
+        }
+    }
 
-        for (Parcel parcel : parcels) {
-            packParcel(parcel);
+    /**
+     * Returns whether the strategy honours the volume and pallet limits of a
+     * problem. Strategies that pack by weight alone, the default, reject a
+     * problem that sets them instead of overloading its trucks.
+     *
+     * @return true if every truck limit is honoured
+     */
+    protected boolean honoursResourceLimits() {
+        return false;
+    }
+
+    /**
+     * Pack all the parcels of a columnar batch. By default each parcel is
+     * materialised and passed to packParcel; strategies that can place a
+     * parcel from its weight alone override this to avoid the objects.
+     */
+    protected void solveBatch(ParcelBatch batch) {
+        int[] order = packingOrder(batch::getWeight, batch.size());
+        for (int k = 0; k < batch.size(); k++) {
+            checkCancelled(k);
+            packParcel(batch.get(order == null ? k : order[k]));
+        }
+    }
+
+    /**
+     * Returns the order in which the parcels are packed, as a permutation of
+     * their positions in the input, or null to pack them in input order.
+     * Online strategies pack in input order; Decreasing strategies, built
+     * with {@code decreasing} set, pack from heaviest to lightest (see
+     * {@link DecreasingOrder}). Other offline strategies override this to see
+     * the whole input first.
+     *
+     * @param weightOf the weight of the parcel at each position
+     * @param count the number of parcels
+     * @return the positions in packing order, or null for input order
+     */
+    protected int[] packingOrder(IntToDoubleFunction weightOf, int count) {
+        return decreasing ? DecreasingOrder.of(weightOf, count, weightScale) : null;
+    }
+
+    /**
+     * Stops the solve if its thread has been interrupted, for example by a
+     * {@link PortfolioSolver} whose time budget has run out. The interrupt
+     * flag is only polled every {@value #CANCEL_CHECK_INTERVAL} parcels, so
+     * the check costs nothing measurable.
+     *
+     * @param parcelsPacked the number of parcels packed so far in this solve
+     * @throws CancellationException if the thread has been interrupted
+     */
+    protected static void checkCancelled(int parcelsPacked) {
+        if (parcelsPacked % CANCEL_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Solve interrupted after " + parcelsPacked + " parcels.");
         }
     }
 
@@ -66,7 +163,7 @@ public abstract class AbstractTruckLoadingStrategy implements TruckLoadingStrate
         int binSize = this.trucks.size();
         if (truckIndex < 0 || truckIndex >= binSize) { //Index not available
             truckIndex = binSize;
-            this.trucks.add(new Truck(truckIndex, truckCapacity));
+            this.trucks.add(new Truck(truckIndex, truckCapacity, weightScale));
         }
 
         this.trucks.get(truckIndex).addParcel(parcel);
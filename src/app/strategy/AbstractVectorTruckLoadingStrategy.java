@@ -0,0 +1,141 @@
+package app.strategy;
+
+import app.model.Parcel;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+
+/**
+ * Base class for strategies that honour every resource a truck limits:
+ * weight, and the volume and pallet slots of problems that set them.
+ * <p>
+ * Each truck is described to the subclass by a vector of its remaining
+ * resources, and each parcel by a vector of its demands, with one dimension
+ * per limited resource: weight always (in fixed-point units when the problem
+ * has a scale), then volume and pallet slots if limited. A truck fits a parcel
+ * when its vector is at least the demand in every dimension, exactly as
+ * {@link Truck#canFit} decides, so a chosen truck always takes the parcel.
+ * Subclasses keep the vectors in an index and pick the truck.
+ */
+public abstract class AbstractVectorTruckLoadingStrategy extends AbstractRemovableTruckLoadingStrategy {
+
+    protected double volumeCapacity = Truck.UNLIMITED_VOLUME; // Volume limit of each truck
+    protected int palletCapacity = Truck.UNLIMITED_PALLETS; // Pallet slot limit of each truck
+    protected int dimensions = 1; // Number of limited resources
+
+    /**
+     * Packs the parcels, first noting which resources the trucks limit.
+     */
+    @Override
+    public void solve(TruckLoadingProblem problem) {
+        this.volumeCapacity = problem.getVolumeCapacity();
+        this.palletCapacity = problem.getPalletCapacity();
+        this.dimensions = 1 + (limitsVolume() ? 1 : 0) + (limitsPallets() ? 1 : 0);
+        super.solve(problem);
+    }
+
+    /**
+     * Returns true: every resource a truck limits is packed by.
+     */
+    @Override
+    protected boolean honoursResourceLimits() {
+        return true;
+    }
+
+    /**
+     * Packs a parcel into the truck chosen by the subclass, or a new truck if
+     * none fits it.
+     * @param parcel the parcel to be packed
+     */
+    @Override
+    public void packParcel(Parcel parcel) {
+        double[] demand = demand(parcel);
+        int truckIndex = findTruck(demand);
+        if (truckIndex < 0) {
+            truckIndex = trucks.size();
+            Truck truck = new Truck(truckIndex, truckCapacity, volumeCapacity, palletCapacity, weightScale);
+            truck.addParcel(parcel);
+            trucks.add(truck);
+            parcelPlaced(parcel, truck);
+            truckOpened(truckIndex, remaining(truck));
+            return;
+        }
+        Truck truck = trucks.get(truckIndex);
+        if (!truck.addParcel(parcel)) {
+            throw new IllegalStateException("Truck " + truckIndex + " cannot fit " + parcel + ".");
+        }
+        parcelPlaced(parcel, truck);
+        truckChanged(truckIndex, remaining(truck));
+    }
+
+    /**
+     * Returns the index of a truck whose remaining resources dominate the
+     * demand.
+     *
+     * @param demand the parcel's demand in each dimension
+     * @return the truck index, or -1 to open a new truck
+     */
+    protected abstract int findTruck(double[] demand);
+
+    /**
+     * Records a new truck, already holding its first parcel.
+     *
+     * @param truckIndex the index of the truck
+     * @param remaining its remaining resources
+     */
+    protected abstract void truckOpened(int truckIndex, double[] remaining);
+
+    /**
+     * Records the new remaining resources of a truck that took a parcel.
+     *
+     * @param truckIndex the index of the truck
+     * @param remaining its remaining resources
+     */
+    protected abstract void truckChanged(int truckIndex, double[] remaining);
+
+    /**
+     * Returns the demand vector of a parcel.
+     */
+    protected double[] demand(Parcel parcel) {
+        double[] demand = new double[dimensions];
+        demand[0] = weightScale != null ? weightScale.toUnits(parcel.getWeight()) : parcel.getWeight();
+        int d = 1;
+        if (limitsVolume()) {
+            demand[d++] = parcel.getVolume();
+        }
+        if (limitsPallets()) {
+            demand[d] = parcel.getPalletSlots();
+        }
+        return demand;
+    }
+
+    /**
+     * Returns the vector of the remaining resources of a truck.
+     */
+    protected double[] remaining(Truck truck) {
+        double[] remaining = new double[dimensions];
+        remaining[0] = weightScale != null ? truck.getRemainingUnits() : truck.getRemainingCapacity();
+        int d = 1;
+        if (limitsVolume()) {
+            remaining[d++] = truck.getRemainingVolume();
+        }
+        if (limitsPallets()) {
+            remaining[d] = truck.getRemainingPalletSlots();
+        }
+        return remaining;
+    }
+
+    /**
+     * Returns the vector of the resources of an empty truck.
+     */
+    protected double[] capacities() {
+        return remaining(new Truck(-1, truckCapacity, volumeCapacity, palletCapacity, weightScale));
+    }
+
+    private boolean limitsVolume() {
+        return volumeCapacity != Truck.UNLIMITED_VOLUME;
+    }
+
+    private boolean limitsPallets() {
+        return palletCapacity != Truck.UNLIMITED_PALLETS;
+    }
+}
@@ -0,0 +1,55 @@
+package app.strategy;
+
+import app.model.Parcel;
+
+/**
+ * Almost Worst Fit engine: each parcel goes into the truck with the second
+ * most remaining capacity if it fits there, otherwise into the truck with the
+ * most, otherwise into a new truck.
+ * <p>
+ * Keeping the emptiest truck in reserve for large parcels gives it a better
+ * worst case than Worst Fit, for the same O(log n) heap update per parcel.
+ */
+public class AlmostWorstFitStrategy extends WorstFitStrategy {
+
+    private final String name = "Almost Worst Fit Strategy";
+
+    public AlmostWorstFitStrategy() {
+        super();
+    }
+
+    /**
+     * Selects the truck with the second largest remaining capacity, falling
+     * back to the largest and then to a new truck.
+     *
+     * @param weight the weight of the parcel
+     * @return the index of the chosen truck
+     */
+    @Override
+    protected int place(double weight) {
+        int second = capacities.secondMax();
+        if (second >= 0 && capacities.getKey(second) >= weight) {
+            return placeIn(second, weight);
+        }
+        return placeIn(capacities.max(), weight);
+    }
+
+    @Override
+    protected int fittingTruck(Parcel parcel) {
+        int second = capacities.secondMax();
+        if (second >= 0 && capacities.getKey(second) >= parcel.getWeight()) {
+            return second;
+        }
+        return super.fittingTruck(parcel);
+    }
+
+    /**
+     * Returns the name of this strategy.
+     *
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+}
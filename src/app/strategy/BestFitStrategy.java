@@ -9,17 +9,55 @@ import java.util.*;
  * each parcel into the truck that has the smallest remaining capacity
  * sufficient to hold the parcel. It uses a TreeMap to efficiently find the
  * best-fitting truck.
+ * <p>
+ * The trucks are keyed by their remaining capacity and, among equal
+ * capacities, by when they were last put in the map, most recent first, so
+ * ties go to the truck packed last. Every truck has a key of its own, so a
+ * truck is taken out of the map in O(log n).
  */
-public class BestFitStrategy extends AbstractTruckLoadingStrategy {
+public class BestFitStrategy extends AbstractRemovableTruckLoadingStrategy {
 
-    private final TreeMap<Double, Stack<Truck>> treeMap;
+    private final TreeMap<Slot, Truck> treeMap;
+    private final List<Slot> slots = new ArrayList<>(); // Current key of each truck
     private final String name = "Best Fit Strategy";
-    private int binSize = 0;
+    private long stamp = 0; // Number of keys handed out so far
 
     public BestFitStrategy() {
         this.treeMap = new TreeMap<>();
     }
 
+    @Override
+    protected void detachTruck(Truck truck) {
+        treeMap.remove(slots.get(truck.getIndex()));
+    }
+
+    @Override
+    protected void attachTruck(Truck truck) {
+        Slot slot = new Slot(truck.getRemainingCapacity(), stamp++);
+        slots.set(truck.getIndex(), slot);
+        treeMap.put(slot, truck);
+    }
+
+    /**
+     * Returns the truck {@link #packParcel} would take: the most recently
+     * packed one among those with the smallest capacity that fits.
+     */
+    @Override
+    protected int fittingTruck(Parcel parcel) {
+        Map.Entry<Slot, Truck> fit = treeMap.ceilingEntry(new Slot(parcel.getWeight(), Long.MAX_VALUE));
+        return fit == null ? -1 : fit.getValue().getIndex();
+    }
+
+    @Override
+    protected void reindex(int[] newIndexOf) {
+        treeMap.clear();
+        slots.clear();
+        for (Truck truck : trucks) {
+            slots.add(null);
+            attachTruck(truck);
+        }
+    }
+
     /**
      * Gets the name of the packing strategy.
      *
@@ -42,42 +80,46 @@ public class BestFitStrategy extends AbstractTruckLoadingStrategy {
     @Override
     public void packParcel(Parcel parcel) {
         // Find the smallest remaining capacity that can fit this parcel
-        Double suitableCapacity = treeMap.ceilingKey(parcel.getWeight());
+        Map.Entry<Slot, Truck> fit = treeMap.ceilingEntry(new Slot(parcel.getWeight(), Long.MAX_VALUE));
 
         Truck truck;
-        if (suitableCapacity == null || treeMap.get(suitableCapacity).isEmpty()) {
+        if (fit == null) {
             // No existing truck can fit - create new one
-            truck = new Truck(binSize++, truckCapacity);
+            truck = new Truck(trucks.size(), truckCapacity, weightScale);
             trucks.add(truck);
+            slots.add(null);
         } else {
-            // Get the best-fit truck from the stack
-            Stack<Truck> truckStack = treeMap.get(suitableCapacity);
-            truck = truckStack.pop();
-
-            // Clean up empty stacks (no other truck with same capacity)
-            if (truckStack.isEmpty()) {
-                treeMap.remove(suitableCapacity);
-            }
-        }
-
-        // Remove truck from its old capacity entry (if it existed)
-        double oldCapacity = truck.getRemainingCapacity() + parcel.getWeight();
-        if (treeMap.containsKey(oldCapacity)) {
-            treeMap.get(oldCapacity).remove(truck);
-            if (treeMap.get(oldCapacity).isEmpty()) {
-                treeMap.remove(oldCapacity);
-            }
+            // Take the best-fit truck out of the TreeMap before its capacity changes
+            truck = fit.getValue();
+            treeMap.remove(fit.getKey());
         }
 
         // Add the parcel to the truck
         truck.addParcel(parcel);
+        parcelPlaced(parcel, truck);
 
         // Update the truck's position in the TreeMap with new capacity
-        Stack<Truck> trucksWithCapacity = treeMap.getOrDefault(
-                truck.getRemainingCapacity(),
-                new Stack<>()
-        );
-        trucksWithCapacity.push(truck);
-        treeMap.put(truck.getRemainingCapacity(), trucksWithCapacity);
+        attachTruck(truck);
+    }
+
+    /**
+     * The key of a truck in the TreeMap: its remaining capacity, then the
+     * stamp it was put in with, larger stamps first.
+     */
+    private static final class Slot implements Comparable<Slot> {
+
+        final double remaining;
+        final long stamp;
+
+        Slot(double remaining, long stamp) {
+            this.remaining = remaining;
+            this.stamp = stamp;
+        }
+
+        @Override
+        public int compareTo(Slot other) {
+            int cmp = Double.compare(remaining, other.remaining);
+            return cmp != 0 ? cmp : Long.compare(other.stamp, stamp);
+        }
     }
 }
@@ -0,0 +1,465 @@
+package app.strategy;
+
+import app.model.LowerBounds;
+import app.model.Parcel;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import app.model.WeightScale;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exact solver for small shipments: a depth-first branch and bound over the
+ * parcels in decreasing order of weight, in the style of Martello and Toth's
+ * MTP procedure.
+ * <p>
+ * The search starts from the First Fit Decreasing packing as incumbent and
+ * stops at once if it meets the {@link LowerBounds L2 bound}. Each parcel is
+ * then tried in every open truck it fits and in one new truck, pruned by:
+ * <ul>
+ * <li>a bound at every node: the trucks used so far, plus whatever weight is
+ * left beyond the free space of the open trucks;</li>
+ * <li>symmetry: of several open trucks with the same remaining capacity only
+ * the first is tried, and a parcel of the same weight as the previous one
+ * never goes into an earlier truck than it;</li>
+ * <li>dominance: a parcel that exactly fills an open truck goes there.</li>
+ * </ul>
+ * The top of the search tree is expanded breadth-first into subtrees that run
+ * in parallel on a {@link ForkJoinPool}, all pruning against one shared
+ * incumbent. With a wall-clock budget the search stops when it runs out and
+ * keeps the best packing found so far; {@link #isOptimal()} tells whether it
+ * was proven optimal.
+ * <p>
+ * In fixed-point mode the search works on exact units; with double weights it
+ * uses the same arithmetic as {@link Truck}, so the packing it finds can be
+ * loaded as is.
+ */
+public class BranchAndBoundStrategy implements TruckLoadingStrategy {
+
+    private static final long DEFAULT_BUDGET_MILLIS = 10_000;
+    private static final int TASKS_PER_THREAD = 8; // Subtrees generated per thread, for load balance
+    private static final int TIME_CHECK_INTERVAL = 4096; // Nodes between deadline checks
+    private static final double RELATIVE_TOLERANCE = 1e-9; // Allowed rounding error of double sums
+
+    private final long budgetMillis;
+    private final int parallelism;
+    private final String name = "Branch and Bound Strategy";
+
+    private List<Truck> trucks = new ArrayList<>();
+    private LowerBounds lowerBounds;
+    private boolean optimal;
+    private long nodeCount;
+
+    // Search state shared by all workers of a solve
+    private double[] weights; // In decreasing order, in units when exact
+    private double[] weightAfter; // weightAfter[i] = weights[i] + ... + weights[n - 1]
+    private double capacity;
+    private boolean exact;
+    private volatile int bestCount;
+    private int[] bestAssignment; // Truck of each parcel in decreasing order; guarded by this
+    private volatile boolean stopped;
+    private long deadline;
+    private final AtomicLong nodes = new AtomicLong();
+
+    /**
+     * Constructs a solver with a 10 second budget, using all available cores.
+     */
+    public BranchAndBoundStrategy() {
+        this(DEFAULT_BUDGET_MILLIS, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a solver.
+     *
+     * @param budgetMillis the wall-clock budget in milliseconds, or 0 to search
+     * until the packing is proven optimal
+     * @param parallelism the number of threads searching at once
+     */
+    public BranchAndBoundStrategy(long budgetMillis, int parallelism) {
+        if (budgetMillis < 0) {
+            throw new IllegalArgumentException("Time budget cannot be negative.");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        this.budgetMillis = budgetMillis;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Return the trucks of the best packing found
+     */
+    @Override
+    public List<Truck> getTrucks() {
+        return trucks;
+    }
+
+    /**
+     * Returns the name of this strategy.
+     *
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns true, as only the weights of the parcels are searched over.
+     */
+    @Override
+    public boolean packsByResourcesOnly() {
+        return true;
+    }
+
+    /**
+     * Returns whether the last solve proved its packing optimal, either by
+     * meeting the lower bound or by completing the search within the budget.
+     *
+     * @return true if no packing uses fewer trucks
+     */
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    /**
+     * Returns the lower bounds of the last solved problem.
+     *
+     * @return the bounds, or null before the first solve
+     */
+    public LowerBounds getLowerBounds() {
+        return lowerBounds;
+    }
+
+    /**
+     * Returns the number of search nodes visited by the last solve.
+     *
+     * @return the node count
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Searches for a packing with the fewest trucks, within the budget.
+     *
+     * @param problem the problem to solve
+     * @throws CancellationException if the calling thread is interrupted
+     * @throws IllegalArgumentException if the trucks limit volume or pallet
+     * slots, which the search ignores
+     */
+    @Override
+    public void solve(TruckLoadingProblem problem) {
+        problem.requireWeightOnly(getName());
+        long start = System.nanoTime();
+        this.deadline = budgetMillis > 0 ? start + budgetMillis * 1_000_000 : Long.MAX_VALUE;
+        this.stopped = false;
+        this.nodes.set(0);
+
+        List<Parcel> parcels = problem.getParcels();
+        WeightScale scale = problem.getWeightScale();
+        int n = parcels.size();
+        int[] order = DecreasingOrder.of(i -> parcels.get(i).getWeight(), n, scale);
+        this.exact = scale != null;
+        this.capacity = exact ? scale.toUnits(problem.getBinCapacity()) : problem.getBinCapacity();
+        this.weights = new double[n];
+        this.weightAfter = new double[n + 1];
+        for (int k = 0; k < n; k++) {
+            double weight = parcels.get(order[k]).getWeight();
+            weights[k] = exact ? scale.toUnits(weight) : weight;
+        }
+        for (int k = n - 1; k >= 0; k--) {
+            weightAfter[k] = weightAfter[k + 1] + weights[k];
+        }
+
+        this.lowerBounds = LowerBounds.of(problem);
+        this.bestAssignment = firstFitDecreasing();
+        this.bestCount = count(bestAssignment);
+        if (!lowerBounds.isReachedBy(bestCount)) {
+            search();
+        }
+        this.optimal = lowerBounds.isReachedBy(bestCount) || !timedOut();
+        this.nodeCount = nodes.get();
+
+        List<Truck> result = new ArrayList<>();
+        for (int t = 0; t < bestCount; t++) {
+            result.add(new Truck(t, problem.getBinCapacity(), scale));
+        }
+        for (int k = 0; k < n; k++) {
+            if (!result.get(bestAssignment[k]).addParcel(parcels.get(order[k]))) {
+                throw new IllegalStateException("Parcel " + parcels.get(order[k]) + " does not fit its truck.");
+            }
+        }
+        this.trucks = result;
+    }
+
+    /**
+     * Returns the First Fit Decreasing assignment, the initial incumbent.
+     */
+    private int[] firstFitDecreasing() {
+        int n = weights.length;
+        int[] assignment = new int[n];
+        double[] remaining = new double[n];
+        int used = 0;
+        for (int k = 0; k < n; k++) {
+            int t = 0;
+            while (t < used && remaining[t] < weights[k]) {
+                t++;
+            }
+            if (t == used) {
+                remaining[used++] = capacity;
+            }
+            remaining[t] = subtract(remaining[t], weights[k]);
+            assignment[k] = t;
+        }
+        return assignment;
+    }
+
+    /**
+     * Expands the top of the search tree breadth-first into enough subtrees
+     * to keep every thread busy, then searches them on a ForkJoinPool.
+     */
+    private void search() {
+        int n = weights.length;
+        List<int[]> frontier = new ArrayList<>();
+        frontier.add(new int[0]);
+        Search expander = new Search();
+        int depth = 0;
+        while (parallelism > 1 && frontier.size() < parallelism * TASKS_PER_THREAD && depth < n - 1 && !frontier.isEmpty()) {
+            List<int[]> next = new ArrayList<>();
+            for (int[] prefix : frontier) {
+                expander.replay(prefix);
+                for (int t = expander.nextCandidate(depth, 0); t >= 0; t = expander.nextCandidate(depth, t + 1)) {
+                    expander.place(depth, t);
+                    if (!expander.pruned(depth + 1)) {
+                        int[] child = Arrays.copyOf(prefix, depth + 1);
+                        child[depth] = t;
+                        next.add(child);
+                    }
+                    expander.undo(depth);
+                }
+            }
+            frontier = next;
+            depth++;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int[] prefix : frontier) {
+                tasks.add(pool.submit(() -> new Search().run(prefix)));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            stopped = true;
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Branch and bound interrupted.");
+        } catch (ExecutionException e) {
+            stopped = true;
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Records a complete packing if it beats the incumbent, and stops the
+     * search once the lower bound is met.
+     */
+    private synchronized void offer(int count, int[] assignment) {
+        if (count < bestCount) {
+            bestAssignment = assignment.clone();
+            bestCount = count;
+            if (lowerBounds.isReachedBy(count)) {
+                stopped = true;
+            }
+        }
+    }
+
+    private boolean timedOut() {
+        return stopped && !lowerBounds.isReachedBy(bestCount);
+    }
+
+    private static int count(int[] assignment) {
+        int count = 0;
+        for (int t : assignment) {
+            count = Math.max(count, t + 1);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the remaining capacity after adding a weight, with the same
+     * arithmetic as {@link Truck#addParcel}.
+     */
+    private double subtract(double remaining, double weight) {
+        return remaining - weight;
+    }
+
+    /**
+     * Rounds weight / capacity up, either exactly for whole units or allowing
+     * for the rounding error of double sums.
+     */
+    private long trucksFor(double weight) {
+        if (weight <= 0) {
+            return 0;
+        }
+        if (exact) {
+            return -Math.floorDiv(-(long) weight, (long) capacity);
+        }
+        return (long) Math.ceil(weight / capacity - RELATIVE_TOLERANCE * Math.max(1, weight / capacity));
+    }
+
+    /**
+     * The state of one depth-first search: the trucks of the parcels placed so
+     * far, in decreasing order, with everything needed to undo a placement
+     * exactly.
+     */
+    private final class Search {
+
+        private final int n = weights.length;
+        private final double[] remaining = new double[n + 1];
+        private final int[] assignment = new int[n];
+        private final boolean[] opened = new boolean[n]; // Whether placing parcel i opened its truck
+        private final double[] savedRemaining = new double[n];
+        private final double[] savedFree = new double[n];
+        private final int[] cursor = new int[n + 1]; // Next truck to try for each parcel
+        private int used;
+        private double free; // Remaining capacity of the open trucks
+        private long visited;
+
+        /**
+         * Searches every completion of a prefix of placements.
+         *
+         * @param prefix the trucks of the first parcels
+         */
+        void run(int[] prefix) {
+            replay(prefix);
+            int base = prefix.length;
+            if (base == n) {
+                offer(used, assignment);
+                return;
+            }
+            if (pruned(base)) {
+                return;
+            }
+            int i = base;
+            cursor[i] = 0;
+            try {
+                while (!stopped) {
+                    int t = nextCandidate(i, cursor[i]);
+                    if (t < 0) {
+                        if (i == base) {
+                            return;
+                        }
+                        undo(--i);
+                        continue;
+                    }
+                    place(i, t);
+                    cursor[i] = t + 1;
+                    if (++visited % TIME_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                        stopped = true;
+                    }
+                    if (i + 1 == n) {
+                        offer(used, assignment);
+                        undo(i);
+                    } else if (pruned(i + 1)) {
+                        undo(i);
+                    } else {
+                        cursor[++i] = 0;
+                    }
+                }
+            } finally {
+                nodes.addAndGet(visited);
+            }
+        }
+
+        /**
+         * Resets the state and places the parcels of a prefix.
+         */
+        void replay(int[] prefix) {
+            used = 0;
+            free = 0;
+            for (int i = 0; i < prefix.length; i++) {
+                place(i, prefix[i]);
+            }
+        }
+
+        /**
+         * Returns the next truck to try for parcel i, from truck {@code from}
+         * on, where truck {@code used} stands for a new truck.
+         *
+         * @return the truck, or -1 if there is none left
+         */
+        int nextCandidate(int i, int from) {
+            double weight = weights[i];
+            // Identical parcels go into trucks in nondecreasing order
+            int first = i > 0 && weights[i - 1] == weight ? assignment[i - 1] : 0;
+            for (int t = first; t < used; t++) {
+                if (remaining[t] == weight) {
+                    return t >= from ? t : -1; // An exact fit dominates every other choice
+                }
+            }
+            for (int t = Math.max(from, first); t < used; t++) {
+                if (remaining[t] >= weight && !sameAsEarlier(t, first)) {
+                    return t;
+                }
+            }
+            return from <= used && used + 1 < bestCount ? used : -1;
+        }
+
+        /**
+         * Checks whether an earlier candidate truck has the same remaining
+         * capacity, which makes trying this one redundant.
+         */
+        private boolean sameAsEarlier(int t, int first) {
+            for (int s = first; s < t; s++) {
+                if (remaining[s] == remaining[t]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Checks whether no completion of the current state, before placing
+         * parcel i, can beat the incumbent.
+         */
+        boolean pruned(int i) {
+            return used + trucksFor(weightAfter[i] - free) >= bestCount;
+        }
+
+        void place(int i, int t) {
+            savedFree[i] = free;
+            opened[i] = t == used;
+            if (opened[i]) {
+                remaining[used++] = capacity;
+                free += capacity;
+            }
+            savedRemaining[i] = remaining[t];
+            remaining[t] = subtract(remaining[t], weights[i]);
+            free -= weights[i];
+            assignment[i] = t;
+        }
+
+        void undo(int i) {
+            int t = assignment[i];
+            remaining[t] = savedRemaining[i];
+            if (opened[i]) {
+                used--;
+            }
+            free = savedFree[i];
+        }
+    }
+}
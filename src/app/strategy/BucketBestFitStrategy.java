@@ -0,0 +1,107 @@
+package app.strategy;
+
+import app.index.CapacityBuckets;
+import app.model.Parcel;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+
+/**
+ * Best Fit engine for fixed-point problems, backed by {@link CapacityBuckets}:
+ * one bucket per possible remaining capacity in units, with a bitmap to jump
+ * to the tightest non-empty bucket.
+ * <p>
+ * Placement costs no comparisons and no allocation. Trucks sharing a bucket
+ * are taken in last-in, first-out order, so the assignment is the same as
+ * {@link BestFitStrategy} on the same fixed-point problem.
+ */
+public class BucketBestFitStrategy extends AbstractIndexedTruckLoadingStrategy {
+
+    private static final int INITIAL_TRUCKS = 1024;
+
+    protected CapacityBuckets capacities;
+    private final String name = "Bucket Best Fit Strategy";
+
+    public BucketBestFitStrategy() {
+        super();
+    }
+
+    /**
+     * Sizes the bucket index for the problem's truck capacity, then packs all
+     * the parcels.
+     *
+     * @param problem a problem with a fixed-point weight scale
+     * @throws IllegalArgumentException if the problem has no weight scale
+     */
+    @Override
+    public void solve(TruckLoadingProblem problem) {
+        if (problem.getWeightScale() == null) {
+            throw new IllegalArgumentException(name + " requires a fixed-point TruckLoadingProblem.");
+        }
+        this.capacities = new CapacityBuckets(problem.getWeightScale().toUnits(problem.getBinCapacity()), INITIAL_TRUCKS);
+        super.solve(problem);
+    }
+
+    /**
+     * Selects the truck with the smallest remaining capacity that can still
+     * hold the parcel, opening a new truck if there is none.
+     *
+     * @param weight the weight of the parcel
+     * @return the index of the chosen truck
+     * @throws IllegalStateException if no problem has been solved yet, so the
+     *         buckets are not sized
+     */
+    @Override
+    protected int place(double weight) {
+        if (capacities == null) {
+            throw new IllegalStateException(name + " sizes its buckets in solve(); solve a fixed-point problem before packing parcels.");
+        }
+        long units = weightScale.toUnits(weight);
+        int truckIndex = capacities.ceiling(units);
+
+        long remaining;
+        if (truckIndex < 0) {
+            truckIndex = openTruck();
+            remaining = weightScale.toUnits(truckCapacity);
+        } else {
+            // Remove from the index before its capacity changes
+            remaining = capacities.getUnits(truckIndex);
+            capacities.remove(truckIndex);
+        }
+        capacities.insert(truckIndex, remaining - units);
+        return truckIndex;
+    }
+
+    @Override
+    protected void detachTruck(Truck truck) {
+        capacities.remove(truck.getIndex());
+    }
+
+    @Override
+    protected void attachTruck(Truck truck) {
+        capacities.insert(truck.getIndex(), truck.getRemainingUnits());
+    }
+
+    @Override
+    protected int fittingTruck(Parcel parcel) {
+        return capacities.ceiling(weightScale.toUnits(parcel.getWeight()));
+    }
+
+    @Override
+    protected void reindex(int[] newIndexOf) {
+        capacities = new CapacityBuckets(weightScale.toUnits(truckCapacity), Math.max(INITIAL_TRUCKS, trucks.size()));
+        for (Truck truck : trucks) {
+            attachTruck(truck);
+        }
+        super.reindex(newIndexOf);
+    }
+
+    /**
+     * Returns the name of this strategy.
+     *
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,100 @@
+package app.strategy;
+
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts a {@link SolutionCache} in front of another strategy: a problem whose
+ * fingerprint is in the cache gets its trucks rebuilt from the cached packing,
+ * any other problem is solved by a fresh instance of the strategy and its
+ * packing cached.
+ * <p>
+ * The trucks are the same, parcel for parcel and in the same order, as the
+ * strategy would produce, so the two can be swapped freely. Rebuilding costs
+ * one pass over the parcels, against a full solve on a miss. Problems given
+ * as a {@link app.model.ParcelBatch} are always solved, as the cache keys on
+ * parcel lists.
+ */
+public class CachingTruckLoadingStrategy implements TruckLoadingStrategy {
+
+    private final Class<? extends TruckLoadingStrategy> member;
+    private final SolutionCache cache;
+    private final String name;
+    private final boolean resourcesOnly; // Whether the member packs by parcel resources only
+    private List<Truck> trucks = new ArrayList<>();
+    private boolean cacheHit;
+
+    /**
+     * Constructs a caching strategy.
+     *
+     * @param member the strategy to cache, with a no-argument constructor
+     * @param cache the cache, which may be shared between strategies and threads
+     */
+    public CachingTruckLoadingStrategy(Class<? extends TruckLoadingStrategy> member, SolutionCache cache) {
+        this.member = member;
+        this.cache = cache;
+        TruckLoadingStrategy strategy = StrategyRegistry.newInstance(member);
+        this.name = strategy.getName();
+        this.resourcesOnly = strategy.packsByResourcesOnly();
+    }
+
+    /**
+     * Returns the trucks of the last solve.
+     */
+    @Override
+    public List<Truck> getTrucks() {
+        return trucks;
+    }
+
+    /**
+     * Returns the name of the cached strategy, so reports read the same
+     * whether or not the packing came from the cache.
+     *
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns whether the last solve was answered from the cache.
+     *
+     * @return true on a cache hit
+     */
+    public boolean isCacheHit() {
+        return cacheHit;
+    }
+
+    /**
+     * Rebuilds the packing from the cache, or solves the problem and caches
+     * the packing.
+     *
+     * @param problem the problem to solve
+     */
+    @Override
+    public void solve(TruckLoadingProblem problem) {
+        cacheHit = false;
+        if (problem.getParcelBatch() != null) {
+            trucks = solveWithMember(problem);
+            return;
+        }
+        SolutionCache.Fingerprint key = SolutionCache.fingerprint(member, resourcesOnly, problem);
+        List<Truck> cached = cache.get(key, problem);
+        if (cached != null) {
+            cacheHit = true;
+            trucks = cached;
+            return;
+        }
+        trucks = solveWithMember(problem);
+        cache.put(key, problem, trucks);
+    }
+
+    private List<Truck> solveWithMember(TruckLoadingProblem problem) {
+        TruckLoadingStrategy strategy = StrategyRegistry.newInstance(member);
+        strategy.solve(problem);
+        return strategy.getTrucks();
+    }
+}
@@ -0,0 +1,96 @@
+package app.strategy;
+
+import app.index.CapacityTree;
+import app.model.Parcel;
+import app.model.Truck;
+
+/**
+ * Best Fit engine backed by a {@link CapacityTree}, a primitive-keyed index of
+ * the trucks' remaining capacities.
+ * <p>
+ * Unlike {@link BestFitStrategy}, lookups, removals and reinsertions never box
+ * a capacity or allocate a bucket, and each is a single O(log n) walk. Among
+ * trucks with the same tightest remaining capacity the lowest-indexed one is
+ * chosen, where {@link BestFitStrategy} takes the most recently updated.
+ */
+public class CapacityTreeBestFitStrategy extends AbstractIndexedTruckLoadingStrategy {
+
+    private static final int INITIAL_TRUCKS = 1024;
+
+    protected CapacityTree capacities;
+    private final String name = "Capacity Tree Best Fit Strategy";
+
+    public CapacityTreeBestFitStrategy() {
+        this(false);
+    }
+
+    /**
+     * Constructor for the engine, packing the parcels in input order or
+     * heaviest first.
+     *
+     * @param decreasing whether to sort the parcels by descending weight
+     * first
+     */
+    protected CapacityTreeBestFitStrategy(boolean decreasing) {
+        super(decreasing);
+        this.capacities = new CapacityTree(INITIAL_TRUCKS);
+    }
+
+    /**
+     * Selects the truck with the smallest remaining capacity that can still
+     * hold the parcel, opening a new truck if there is none.
+     *
+     * @param weight the weight of the parcel
+     * @return the index of the chosen truck
+     */
+    @Override
+    protected int place(double weight) {
+        int truckIndex = capacities.ceiling(weight);
+
+        double remaining;
+        if (truckIndex < 0) {
+            truckIndex = openTruck();
+            remaining = truckCapacity;
+        } else {
+            // Remove from the index before its capacity changes
+            remaining = capacities.getKey(truckIndex);
+            capacities.remove(truckIndex);
+        }
+        capacities.insert(truckIndex, remainingAfter(remaining, weight));
+        return truckIndex;
+    }
+
+    @Override
+    protected void detachTruck(Truck truck) {
+        capacities.remove(truck.getIndex());
+    }
+
+    @Override
+    protected void attachTruck(Truck truck) {
+        capacities.insert(truck.getIndex(), truck.getRemainingCapacity());
+    }
+
+    @Override
+    protected int fittingTruck(Parcel parcel) {
+        return capacities.ceiling(parcel.getWeight());
+    }
+
+    @Override
+    protected void reindex(int[] newIndexOf) {
+        capacities = new CapacityTree(Math.max(INITIAL_TRUCKS, trucks.size()));
+        for (Truck truck : trucks) {
+            attachTruck(truck);
+        }
+        super.reindex(newIndexOf);
+    }
+
+    /**
+     * Returns the name of this strategy.
+     *
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+}
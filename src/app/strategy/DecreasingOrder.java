@@ -0,0 +1,105 @@
+package app.strategy;
+
+import app.model.WeightScale;
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Computes the permutation that lists parcels from heaviest to lightest, for
+ * the offline Decreasing strategies. Parcels of equal weight keep their input
+ * order, so the result is deterministic.
+ * <p>
+ * No Parcel is compared or moved: only primitive arrays are sorted.
+ * <ul>
+ * <li>With a fixed-point scale and a modest range of unit values, the weights
+ * are counting-sorted by units in O(n).</li>
+ * <li>Otherwise each weight is turned into a {@code long} whose natural order
+ * is descending weight order, a copy is sorted with
+ * {@link Arrays#parallelSort(long[])}, and parcels are then placed by the rank
+ * of their key, which keeps the sort stable.</li>
+ * </ul>
+ */
+final class DecreasingOrder {
+
+    private static final long MAX_COUNTING_RANGE = 1L << 24; // Largest unit range counting-sorted
+
+    private DecreasingOrder() {
+    }
+
+    /**
+     * Returns the positions of the parcels in descending order of weight.
+     *
+     * @param weightOf the weight of the parcel at each position
+     * @param count the number of parcels
+     * @param weightScale the fixed-point scale, or null for double weights
+     * @return the permutation
+     */
+    static int[] of(IntToDoubleFunction weightOf, int count, WeightScale weightScale) {
+        if (weightScale != null) {
+            long[] units = new long[count];
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < count; i++) {
+                units[i] = weightScale.toUnits(weightOf.applyAsDouble(i));
+                min = Math.min(min, units[i]);
+                max = Math.max(max, units[i]);
+            }
+            if (count > 0 && max - min < MAX_COUNTING_RANGE) {
+                int[] bucketOf = new int[count];
+                for (int i = 0; i < count; i++) {
+                    bucketOf[i] = (int) (max - units[i]); // Heaviest in bucket 0
+                }
+                return countingSort(bucketOf, (int) (max - min) + 1);
+            }
+        }
+
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = descendingKey(weightOf.applyAsDouble(i));
+        }
+        long[] sorted = keys.clone();
+        Arrays.parallelSort(sorted);
+
+        // Rank each key among the distinct keys, then place stably by rank
+        int distinct = 0;
+        for (int k = 0; k < count; k++) {
+            if (k == 0 || sorted[k] != sorted[distinct - 1]) {
+                sorted[distinct++] = sorted[k];
+            }
+        }
+        int[] rank = new int[count];
+        for (int i = 0; i < count; i++) {
+            rank[i] = Arrays.binarySearch(sorted, 0, distinct, keys[i]);
+        }
+        return countingSort(rank, distinct);
+    }
+
+    /**
+     * Maps a weight to a {@code long} that sorts ascending in descending order
+     * of weight, treating -0.0 as 0.0.
+     */
+    private static long descendingKey(double weight) {
+        long bits = Double.doubleToLongBits(weight + 0.0);
+        long ascending = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        return ~ascending;
+    }
+
+    /**
+     * Returns the positions ordered by bucket, keeping input order within a
+     * bucket.
+     */
+    private static int[] countingSort(int[] bucketOf, int buckets) {
+        int[] start = new int[buckets + 1];
+        for (int bucket : bucketOf) {
+            start[bucket + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            start[b + 1] += start[b];
+        }
+        int[] order = new int[bucketOf.length];
+        for (int i = 0; i < bucketOf.length; i++) {
+            order[start[bucketOf[i]]++] = i;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,149 @@
+package app.strategy;
+
+import app.model.Parcel;
+import app.model.ParcelBatch;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Packs each destination separately, so that every truck only carries parcels
+ * for a single destination.
+ * <p>
+ * Parcels are grouped by {@link Parcel#getDestination()}, and each group is
+ * solved by a fresh instance of the member strategy on its own thread. The
+ * trucks are then numbered globally: destinations in order of first appearance
+ * in the input, and within a destination in the order the member strategy
+ * opened them. The result is a plain truck list, so it can be passed to
+ * {@code OutputFormatter.displayResults} and
+ * {@code OutputFormatter.displayDestinationSummary}.
+ */
+public class DestinationPartitionedStrategy implements TruckLoadingStrategy {
+
+    private final Class<? extends TruckLoadingStrategy> member;
+    private final int parallelism;
+    private final String name;
+    private List<Truck> trucks = new ArrayList<>();
+
+    /**
+     * Constructs a partitioned strategy that packs each destination with
+     * {@link CapacityTreeBestFitStrategy} on all available cores.
+     */
+    public DestinationPartitionedStrategy() {
+        this(CapacityTreeBestFitStrategy.class, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a partitioned strategy.
+     *
+     * @param member the strategy used for each destination, with a
+     * no-argument constructor
+     * @param parallelism the maximum number of destinations solved at once
+     */
+    public DestinationPartitionedStrategy(Class<? extends TruckLoadingStrategy> member, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        this.member = member;
+        this.parallelism = parallelism;
+        this.name = "Destination-Partitioned " + StrategyRegistry.newInstance(member).getName();
+    }
+
+    /**
+     * Return the trucks of all destinations, numbered globally
+     */
+    @Override
+    public List<Truck> getTrucks() {
+        return trucks;
+    }
+
+    /**
+     * Returns the name of this strategy.
+     *
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Splits the problem by destination, solves the partitions in parallel
+     * and renumbers their trucks.
+     *
+     * @param problem the problem to solve
+     */
+    @Override
+    public void solve(TruckLoadingProblem problem) {
+        List<TruckLoadingProblem> partitions = partition(problem);
+        List<Callable<List<Truck>>> tasks = new ArrayList<>();
+        for (TruckLoadingProblem partition : partitions) {
+            tasks.add(() -> {
+                TruckLoadingStrategy strategy = StrategyRegistry.newInstance(member);
+                strategy.solve(partition);
+                return strategy.getTrucks();
+            });
+        }
+
+        List<Truck> result = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, partitions.size()));
+        try {
+            for (Future<List<Truck>> future : executor.invokeAll(tasks)) {
+                for (Truck truck : future.get()) {
+                    result.add(truck.withIndex(result.size()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Partitioned solve interrupted.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        this.trucks = result;
+    }
+
+    /**
+     * Splits a problem into one problem per destination, in order of first
+     * appearance, with the same truck limits. Batch problems are split into
+     * batches sharing the original dictionaries.
+     */
+    private static List<TruckLoadingProblem> partition(TruckLoadingProblem problem) {
+        List<TruckLoadingProblem> partitions = new ArrayList<>();
+        ParcelBatch batch = problem.getParcelBatch();
+        if (batch != null) {
+            Map<Integer, ParcelBatch> groups = new LinkedHashMap<>();
+            for (int i = 0; i < batch.size(); i++) {
+                groups.computeIfAbsent(batch.getDestinationId(i),
+                        id -> new ParcelBatch(16, batch.getTypes(), batch.getDestinations()))
+                        .add(batch.getIndex(i), batch.getTypeId(i), batch.getWeight(i), batch.isFragile(i), batch.getDestinationId(i));
+            }
+            for (ParcelBatch group : groups.values()) {
+                partitions.add(new TruckLoadingProblem(problem.getBinCapacity(), group, problem.getWeightScale()));
+            }
+        } else {
+            Map<String, List<Parcel>> groups = new LinkedHashMap<>();
+            for (Parcel parcel : problem.getParcels()) {
+                groups.computeIfAbsent(parcel.getDestination(), destination -> new ArrayList<>()).add(parcel);
+            }
+            for (List<Parcel> group : groups.values()) {
+                partitions.add(new TruckLoadingProblem(problem.getBinCapacity(), problem.getVolumeCapacity(),
+                        problem.getPalletCapacity(), group, problem.getWeightScale()));
+            }
+        }
+        return partitions;
+    }
+}
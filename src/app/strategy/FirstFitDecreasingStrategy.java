@@ -0,0 +1,28 @@
+package app.strategy;
+
+/**
+ * Offline First Fit Decreasing: sorts the parcels from heaviest to lightest,
+ * then packs them with the {@link SegmentTreeFirstFitStrategy} engine.
+ * <p>
+ * Packing the heavy parcels first leaves the light ones to fill the gaps, so
+ * late heavy parcels no longer open mostly empty trucks. The presort works on
+ * primitive weights only (see {@link DecreasingOrder}).
+ */
+public class FirstFitDecreasingStrategy extends SegmentTreeFirstFitStrategy {
+
+    private final String name = "First Fit Decreasing Strategy";
+
+    public FirstFitDecreasingStrategy() {
+        super(true);
+    }
+
+    /**
+     * Returns the name of this strategy.
+     *
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -3,19 +3,30 @@ package app.strategy;
 import app.avltree.*;
 import app.model.Parcel;
 import app.model.Truck;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Strategy that packs parcels into the first truck that can accommodate them.
- * Uses an AVLTree to track trucks by remaining capacity for efficient search.
+ * Uses an AVLTree to track trucks by remaining capacity for efficient search;
+ * any other {@link Tree}, such as an {@link ArenaAVLTree}, can be used instead.
  */
-public class FirstFitStrategy extends AbstractTruckLoadingStrategy {
+public class FirstFitStrategy extends AbstractRemovableTruckLoadingStrategy {
 
-    protected AVLTree<Truck> tree;
+    protected Tree<Truck> tree;
     private final String name = "First Fit Strategy";
 
     public FirstFitStrategy() {
+        this(new AVLTree<>());
+    }
+
+    /**
+     * Constructs a First Fit strategy that tracks trucks in the given tree.
+     * @param tree an empty tree ordering trucks by remaining capacity
+     */
+    public FirstFitStrategy(Tree<Truck> tree) {
         super();
-        this.tree = new AVLTree<>();
+        this.tree = tree;
     }
 
     /**
@@ -56,6 +67,34 @@ public class FirstFitStrategy extends AbstractTruckLoadingStrategy {
         }
     }
 
+    @Override
+    protected void detachTruck(Truck truck) {
+        tree.delete(truck.getIndex(), truck);
+    }
+
+    @Override
+    protected void attachTruck(Truck truck) {
+        tree.add(truck.getIndex(), truck);
+    }
+
+    @Override
+    protected int fittingTruck(Parcel parcel) {
+        int truckIndex = tree.find(new Truck(-1, parcel.getWeight()));
+        return truckIndex == Integer.MAX_VALUE ? -1 : truckIndex;
+    }
+
+    @Override
+    protected void reindex(int[] newIndexOf) {
+        List<Truck> indexed = new ArrayList<>(tree.getSize());
+        tree.forEach(indexed::add);
+        for (Truck truck : indexed) {
+            tree.delete(truck.getIndex(), truck);
+        }
+        for (Truck truck : trucks) {
+            tree.add(truck.getIndex(), truck);
+        }
+    }
+
     /**
      * Returns the name of this strategy.
      * @return the strategy name
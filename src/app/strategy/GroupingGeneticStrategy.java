@@ -0,0 +1,532 @@
+package app.strategy;
+
+import app.index.MaxSegmentTree;
+import app.model.LowerBounds;
+import app.model.Parcel;
+import app.model.Progress;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import app.model.WeightScale;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Grouping genetic algorithm in the style of Falkenauer, for planning runs
+ * that can spend minutes to save trucks.
+ * <p>
+ * A chromosome is a list of trucks, each holding whole parcels. Crossover
+ * inserts a random run of trucks from one parent into the other, drops the
+ * trucks of the other parent that share a parcel with them, and repairs the
+ * solution by packing the parcels left out First Fit Decreasing into the
+ * remaining trucks. Mutation dissolves the lightest truck and a few random
+ * ones and repairs the same way. Fitness is Falkenauer's mean squared fill
+ * ratio, which rewards full trucks and so favours emptying light ones; the
+ * best solution is the one with the fewest trucks, ties broken by fitness.
+ * <p>
+ * The population is split into islands that evolve separately, each keeping
+ * its best solutions, and pass their best solution to the next island around
+ * a ring at fixed intervals. Every generation, the offspring of all islands
+ * are bred and evaluated in parallel on a {@link ForkJoinPool}. Each
+ * offspring draws from its own random generator, derived from the seed, the
+ * generation and its position, so a run is reproducible for a given seed
+ * whatever the parallelism, as long as it is not cut short by the time
+ * budget.
+ * <p>
+ * The initial population holds the First Fit Decreasing packing and First Fit
+ * packings of random parcel orders. The search stops after the given number
+ * of generations, when the time budget runs out, or as soon as the best
+ * solution meets the {@link LowerBounds L2 bound}. {@link #getProgress()}
+ * records when the best truck count improved, as a time-to-quality curve.
+ */
+public class GroupingGeneticStrategy implements TruckLoadingStrategy {
+
+    private static final long DEFAULT_SEED = 42L;
+    private static final int DEFAULT_ISLANDS = 4;
+    private static final int DEFAULT_POPULATION = 24;
+    private static final int DEFAULT_GENERATIONS = 1000;
+    private static final long DEFAULT_BUDGET_MILLIS = 60_000;
+    private static final int ELITES = 2; // Best solutions of an island that survive each generation
+    private static final int MIGRATION_INTERVAL = 10; // Generations between migrations
+    private static final double MUTATION_RATE = 0.5;
+    private static final int MUTATED_TRUCKS = 3; // At most this many random trucks, besides the lightest
+
+    private final long seed;
+    private final int islands;
+    private final int populationSize;
+    private final int generations;
+    private final long budgetMillis;
+    private final int parallelism;
+    private final String name = "Grouping Genetic Algorithm Strategy";
+
+    private List<Truck> trucks = new ArrayList<>();
+    private List<Progress> progress = new ArrayList<>();
+    private LowerBounds lowerBounds;
+    private int generationsRun;
+
+    // The problem being solved
+    private double[] weights; // In units when exact
+    private double capacity;
+
+    private static final Comparator<Solution> BEST_FIRST = (a, b) -> a.groups.length != b.groups.length
+            ? Integer.compare(a.groups.length, b.groups.length)
+            : Double.compare(b.fitness, a.fitness);
+
+    /**
+     * Constructs a solver with seed 42, 4 islands of 24 solutions, up to 1000
+     * generations and a one minute budget, using all available cores.
+     */
+    public GroupingGeneticStrategy() {
+        this(DEFAULT_SEED, DEFAULT_ISLANDS, DEFAULT_POPULATION, DEFAULT_GENERATIONS, DEFAULT_BUDGET_MILLIS,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a solver.
+     *
+     * @param seed the seed of every random choice
+     * @param islands the number of islands
+     * @param populationSize the number of solutions on each island, more than
+     * the number of elites
+     * @param generations the maximum number of generations
+     * @param budgetMillis the wall-clock budget in milliseconds, or 0 for none
+     * @param parallelism the number of threads breeding offspring
+     */
+    public GroupingGeneticStrategy(long seed, int islands, int populationSize, int generations, long budgetMillis, int parallelism) {
+        if (islands < 1) {
+            throw new IllegalArgumentException("At least one island is required.");
+        }
+        if (populationSize <= ELITES) {
+            throw new IllegalArgumentException("Population size must be greater than " + ELITES + ".");
+        }
+        if (generations < 0 || budgetMillis < 0) {
+            throw new IllegalArgumentException("Generations and time budget cannot be negative.");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        this.seed = seed;
+        this.islands = islands;
+        this.populationSize = populationSize;
+        this.generations = generations;
+        this.budgetMillis = budgetMillis;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Return the trucks of the best solution found
+     */
+    @Override
+    public List<Truck> getTrucks() {
+        return trucks;
+    }
+
+    /**
+     * Returns the name of this strategy.
+     *
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns true, as only the weights of the parcels are searched over.
+     */
+    @Override
+    public boolean packsByResourcesOnly() {
+        return true;
+    }
+
+    /**
+     * Returns the time-to-quality curve of the last solve: one point for the
+     * initial population, then one for each improvement of the best truck
+     * count.
+     *
+     * @return the points, in time order
+     */
+    public List<Progress> getProgress() {
+        return progress;
+    }
+
+    /**
+     * Returns the number of generations the last solve ran.
+     *
+     * @return the generation count
+     */
+    public int getGenerationsRun() {
+        return generationsRun;
+    }
+
+    /**
+     * Returns the lower bounds of the last solved problem.
+     *
+     * @return the bounds, or null before the first solve
+     */
+    public LowerBounds getLowerBounds() {
+        return lowerBounds;
+    }
+
+    /**
+     * Evolves packings of the problem and keeps the best.
+     *
+     * @param problem the problem to solve
+     * @throws CancellationException if the calling thread is interrupted
+     * @throws IllegalArgumentException if the trucks limit volume or pallet
+     * slots, which the search ignores
+     */
+    @Override
+    public void solve(TruckLoadingProblem problem) {
+        problem.requireWeightOnly(getName());
+        long start = System.nanoTime();
+        long deadline = budgetMillis > 0 ? start + budgetMillis * 1_000_000 : Long.MAX_VALUE;
+
+        List<Parcel> parcels = problem.getParcels();
+        WeightScale scale = problem.getWeightScale();
+        int n = parcels.size();
+        this.capacity = scale != null ? scale.toUnits(problem.getBinCapacity()) : problem.getBinCapacity();
+        this.weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            double weight = parcels.get(i).getWeight();
+            weights[i] = scale != null ? scale.toUnits(weight) : weight;
+        }
+        this.lowerBounds = LowerBounds.of(problem);
+        this.progress = new ArrayList<>();
+        this.generationsRun = 0;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Solution best;
+        try {
+            int[] decreasing = DecreasingOrder.of(i -> weights[i], n, null);
+            Solution[] initial = breedAll(pool, k -> {
+                if (k % populationSize == 0) {
+                    return pack(new ArrayList<>(), decreasing);
+                }
+                return pack(new ArrayList<>(), shuffled(n, random(0, k)));
+            });
+            Solution[][] population = new Solution[islands][];
+            for (int island = 0; island < islands; island++) {
+                population[island] = Arrays.copyOfRange(initial, island * populationSize, (island + 1) * populationSize);
+                Arrays.sort(population[island], BEST_FIRST);
+            }
+            best = bestOf(population);
+            progress.add(new Progress(elapsedMs(start), 0, best.groups.length));
+
+            for (int generation = 1; generation <= generations && !lowerBounds.isReachedBy(best.groups.length)
+                    && System.nanoTime() < deadline; generation++) {
+                Solution[][] parents = population;
+                int g = generation;
+                Solution[] offspring = breedAll(pool, k -> breed(parents[k / populationSize], random(g, k)));
+
+                population = new Solution[islands][];
+                for (int island = 0; island < islands; island++) {
+                    Solution[] next = new Solution[ELITES + populationSize];
+                    System.arraycopy(parents[island], 0, next, 0, ELITES);
+                    System.arraycopy(offspring, island * populationSize, next, ELITES, populationSize);
+                    Arrays.sort(next, BEST_FIRST);
+                    population[island] = Arrays.copyOf(next, populationSize);
+                }
+                if (generation % MIGRATION_INTERVAL == 0 && islands > 1) {
+                    migrate(population);
+                }
+
+                generationsRun = generation;
+                Solution generationBest = bestOf(population);
+                if (generationBest.groups.length < best.groups.length) {
+                    progress.add(new Progress(elapsedMs(start), generation, generationBest.groups.length));
+                }
+                if (BEST_FIRST.compare(generationBest, best) < 0) {
+                    best = generationBest;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<Truck> result = new ArrayList<>();
+        for (Group group : best.groups) {
+            Truck truck = new Truck(result.size(), problem.getBinCapacity(), scale);
+            for (int item : group.items) {
+                if (!truck.addParcel(parcels.get(item))) {
+                    throw new IllegalStateException("Parcel " + parcels.get(item) + " does not fit its truck.");
+                }
+            }
+            result.add(truck);
+        }
+        this.trucks = result;
+    }
+
+    /**
+     * Creates one solution for every position of every island, in parallel.
+     */
+    private Solution[] breedAll(ForkJoinPool pool, IntFunction<Solution> breeder) {
+        try {
+            return pool.submit(() -> IntStream.range(0, islands * populationSize).parallel()
+                    .mapToObj(breeder).toArray(Solution[]::new)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Genetic algorithm interrupted.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the random generator of one offspring, independent of the
+     * thread that breeds it.
+     */
+    private SplittableRandom random(int generation, int position) {
+        return new SplittableRandom(seed ^ generation * 0x9E3779B97F4A7C15L ^ position * 0xC2B2AE3D27D4EB4FL);
+    }
+
+    /**
+     * Breeds one offspring from an island sorted best first: crossover of two
+     * parents chosen by binary tournament, then possibly mutation.
+     */
+    private Solution breed(Solution[] island, SplittableRandom random) {
+        Solution first = island[Math.min(random.nextInt(island.length), random.nextInt(island.length))];
+        Solution second = island[Math.min(random.nextInt(island.length), random.nextInt(island.length))];
+        Solution child = crossover(first, second, random);
+        if (random.nextDouble() < MUTATION_RATE) {
+            child = mutate(child, random);
+        }
+        return child;
+    }
+
+    /**
+     * Inserts a random run of the second parent's trucks into the first
+     * parent at a random position, drops the first parent's trucks that share
+     * a parcel with them and repacks the parcels left out.
+     */
+    private Solution crossover(Solution first, Solution second, SplittableRandom random) {
+        Group[] donor = second.groups;
+        int length = 1 + random.nextInt(Math.max(1, donor.length / 2));
+        int from = random.nextInt(donor.length - length + 1);
+        boolean[] inserted = new boolean[weights.length];
+        for (int g = from; g < from + length; g++) {
+            for (int item : donor[g].items) {
+                inserted[item] = true;
+            }
+        }
+
+        int at = random.nextInt(first.groups.length + 1);
+        List<Group> groups = new ArrayList<>(first.groups.length + length);
+        IntList freed = new IntList();
+        for (int g = 0; g <= first.groups.length; g++) {
+            if (g == at) {
+                groups.addAll(Arrays.asList(donor).subList(from, from + length));
+            }
+            if (g == first.groups.length) {
+                break;
+            }
+            Group group = first.groups[g];
+            boolean clashes = false;
+            for (int item : group.items) {
+                clashes |= inserted[item];
+            }
+            if (!clashes) {
+                groups.add(group);
+                continue;
+            }
+            for (int item : group.items) {
+                if (!inserted[item]) {
+                    freed.add(item);
+                }
+            }
+        }
+        return pack(groups, decreasing(freed));
+    }
+
+    /**
+     * Dissolves the lightest truck and up to a few random ones, and repacks
+     * their parcels.
+     */
+    private Solution mutate(Solution solution, SplittableRandom random) {
+        Group[] groups = solution.groups;
+        boolean[] dissolved = new boolean[groups.length];
+        int lightest = 0;
+        for (int g = 1; g < groups.length; g++) {
+            if (groups[g].remaining > groups[lightest].remaining) {
+                lightest = g;
+            }
+        }
+        dissolved[lightest] = true;
+        int extra = random.nextInt(MUTATED_TRUCKS + 1);
+        for (int k = 0; k < extra; k++) {
+            dissolved[random.nextInt(groups.length)] = true;
+        }
+
+        List<Group> kept = new ArrayList<>(groups.length);
+        IntList freed = new IntList();
+        for (int g = 0; g < groups.length; g++) {
+            if (dissolved[g]) {
+                for (int item : groups[g].items) {
+                    freed.add(item);
+                }
+            } else {
+                kept.add(groups[g]);
+            }
+        }
+        return pack(kept, decreasing(freed));
+    }
+
+    /**
+     * Packs parcels in the given order into the first truck they fit in,
+     * opening trucks as needed. Trucks that receive parcels are copied; the
+     * others are shared with the parent.
+     */
+    private Solution pack(List<Group> groups, int[] order) {
+        MaxSegmentTree remaining = new MaxSegmentTree(groups.size() + 1);
+        for (Group group : groups) {
+            remaining.add(group.remaining);
+        }
+        List<IntList> added = new ArrayList<>(groups.size());
+        for (int g = 0; g < groups.size(); g++) {
+            added.add(null);
+        }
+        for (int item : order) {
+            int g = remaining.findFirst(weights[item]);
+            if (g < 0) {
+                g = remaining.add(capacity);
+                added.add(null);
+            }
+            remaining.set(g, remaining.get(g) - weights[item]);
+            if (added.get(g) == null) {
+                added.set(g, new IntList());
+            }
+            added.get(g).add(item);
+        }
+
+        Group[] result = new Group[remaining.size()];
+        for (int g = 0; g < result.length; g++) {
+            IntList items = added.get(g);
+            if (items == null) {
+                result[g] = groups.get(g);
+                continue;
+            }
+            int[] previous = g < groups.size() ? groups.get(g).items : new int[0];
+            int[] all = Arrays.copyOf(previous, previous.length + items.size);
+            System.arraycopy(items.values, 0, all, previous.length, items.size);
+            result[g] = new Group(all, remaining.get(g));
+        }
+        return new Solution(result, capacity);
+    }
+
+    /**
+     * Returns parcels from heaviest to lightest.
+     */
+    private int[] decreasing(IntList items) {
+        int[] order = DecreasingOrder.of(i -> weights[items.values[i]], items.size, null);
+        int[] sorted = new int[items.size];
+        for (int k = 0; k < sorted.length; k++) {
+            sorted[k] = items.values[order[k]];
+        }
+        return sorted;
+    }
+
+    private static int[] shuffled(int n, SplittableRandom random) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    /**
+     * Passes the best solution of each island to the next one around the
+     * ring, in place of its worst.
+     */
+    private void migrate(Solution[][] population) {
+        Solution[] migrants = new Solution[islands];
+        for (int island = 0; island < islands; island++) {
+            migrants[island] = population[island][0];
+        }
+        for (int island = 0; island < islands; island++) {
+            Solution[] target = population[(island + 1) % islands];
+            target[target.length - 1] = migrants[island];
+            Arrays.sort(target, BEST_FIRST);
+        }
+    }
+
+    private static Solution bestOf(Solution[][] population) {
+        Solution best = population[0][0];
+        for (Solution[] island : population) {
+            if (BEST_FIRST.compare(island[0], best) < 0) {
+                best = island[0];
+            }
+        }
+        return best;
+    }
+
+    private static double elapsedMs(long start) {
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+
+    /**
+     * A truck of a chromosome: its parcels in loading order and its remaining
+     * capacity, computed as a truck would. Shared between solutions, so never
+     * modified.
+     */
+    private static final class Group {
+
+        final int[] items;
+        final double remaining;
+
+        Group(int[] items, double remaining) {
+            this.items = items;
+            this.remaining = remaining;
+        }
+    }
+
+    /**
+     * A chromosome and its fitness: the mean squared fill ratio of its trucks.
+     */
+    private static final class Solution {
+
+        final Group[] groups;
+        final double fitness;
+
+        Solution(Group[] groups, double capacity) {
+            this.groups = groups;
+            double sum = 0;
+            for (Group group : groups) {
+                double fill = (capacity - group.remaining) / capacity;
+                sum += fill * fill;
+            }
+            this.fitness = groups.length == 0 ? 0 : sum / groups.length;
+        }
+    }
+
+    /**
+     * A growable list of primitive ints.
+     */
+    private static final class IntList {
+
+        int[] values = new int[8];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
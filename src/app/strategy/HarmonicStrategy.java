@@ -0,0 +1,137 @@
+package app.strategy;
+
+import app.model.Parcel;
+import app.model.Truck;
+import java.util.Arrays;
+
+/**
+ * Harmonic-k engine: parcels are classified by size and each class is packed
+ * Next Fit into its own trucks.
+ * <p>
+ * For a truck capacity C, a parcel of weight w in (C/(i+1), C/i] belongs to
+ * class i, for i = 1 to k-1, so a truck of class i holds exactly i parcels;
+ * all parcels of at most C/k share class k. At most k trucks are open at any
+ * time and each parcel costs O(1), whatever the size of the input. It uses at
+ * most about 1.69 times the optimal number of trucks as k grows.
+ */
+public class HarmonicStrategy extends AbstractIndexedTruckLoadingStrategy {
+
+    private static final int DEFAULT_CLASSES = 10;
+
+    private final int k;
+    private final int[] current; // Open truck of each class, or -1
+    private final double[] currentRemaining; // Remaining capacity of each open truck
+    private final String name;
+
+    /**
+     * Constructs a Harmonic-10 strategy.
+     */
+    public HarmonicStrategy() {
+        this(DEFAULT_CLASSES);
+    }
+
+    /**
+     * Constructs a Harmonic-k strategy.
+     *
+     * @param k the number of size classes, which is also the maximum number
+     * of open trucks
+     */
+    public HarmonicStrategy(int k) {
+        super();
+        if (k < 1) {
+            throw new IllegalArgumentException("Harmonic needs at least one class.");
+        }
+        this.k = k;
+        this.current = new int[k + 1]; // Classes 1 to k
+        Arrays.fill(current, -1);
+        this.currentRemaining = new double[k + 1];
+        this.name = "Harmonic-" + k + " Strategy";
+    }
+
+    /**
+     * Places the parcel in the open truck of its class, or in a new truck of
+     * that class if it does not fit.
+     *
+     * @param weight the weight of the parcel
+     * @return the index of the chosen truck
+     */
+    @Override
+    protected int place(double weight) {
+        int sizeClass = sizeClass(weight);
+        if (current[sizeClass] < 0 || currentRemaining[sizeClass] < weight) {
+            current[sizeClass] = openTruck();
+            currentRemaining[sizeClass] = truckCapacity;
+        }
+        currentRemaining[sizeClass] = remainingAfter(currentRemaining[sizeClass], weight);
+        return current[sizeClass];
+    }
+
+    /**
+     * Closed trucks are never packed again, so only the open truck of each
+     * class is tracked: it is hidden while detached.
+     */
+    @Override
+    protected void detachTruck(Truck truck) {
+        for (int c = 1; c <= k; c++) {
+            if (current[c] == truck.getIndex()) {
+                currentRemaining[c] = Double.NEGATIVE_INFINITY;
+            }
+        }
+    }
+
+    @Override
+    protected void attachTruck(Truck truck) {
+        for (int c = 1; c <= k; c++) {
+            if (current[c] == truck.getIndex()) {
+                currentRemaining[c] = truck.getRemainingCapacity();
+            }
+        }
+    }
+
+    @Override
+    protected int fittingTruck(Parcel parcel) {
+        int sizeClass = sizeClass(parcel.getWeight());
+        return current[sizeClass] >= 0 && currentRemaining[sizeClass] >= parcel.getWeight() ? current[sizeClass] : -1;
+    }
+
+    /**
+     * Follows the open truck of each class to its new index. If it was
+     * dropped, the next parcel of the class opens a new truck.
+     */
+    @Override
+    protected void reindex(int[] newIndexOf) {
+        for (int c = 1; c <= k; c++) {
+            if (current[c] >= 0) {
+                current[c] = newIndexOf[current[c]];
+                currentRemaining[c] = current[c] < 0 ? Double.NEGATIVE_INFINITY : trucks.get(current[c]).getRemainingCapacity();
+            }
+        }
+        super.reindex(newIndexOf);
+    }
+
+    /**
+     * Returns the class of a parcel: the i with w in (C/(i+1), C/i], capped
+     * to 1 to k. Parcels heavier than a truck fall in class 1, so they get a
+     * truck of their own.
+     */
+    private int sizeClass(double weight) {
+        if (!(weight > 0)) {
+            return k;
+        }
+        double ratio = truckCapacity / weight;
+        if (ratio >= k) {
+            return k;
+        }
+        return Math.max(1, (int) ratio);
+    }
+
+    /**
+     * Returns the name of this strategy.
+     *
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+}
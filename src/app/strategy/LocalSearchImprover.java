@@ -0,0 +1,486 @@
+package app.strategy;
+
+import app.model.LowerBounds;
+import app.model.Parcel;
+import app.model.Truck;
+import app.model.WeightScale;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Improves the trucks of any strategy by local search, trying to empty the
+ * least-loaded trucks within a time budget.
+ * <p>
+ * Each step dissolves the lightest truck not yet tried: its parcels become
+ * free, and the other trucks then swap parcels with them, one of theirs for
+ * one free parcel, one for two or two for one, whenever that fills them more.
+ * Free parcels are then relocated to the fullest trucks they fit in. If all
+ * of them find a place, the truck is gone; otherwise the rest are loaded into
+ * a new truck, and the step is kept only if the trucks are more unevenly
+ * filled than before (by the sum of squared loads), which makes later trucks
+ * easier to empty. A step that is not kept is undone.
+ * <p>
+ * The best swap for every truck is evaluated in parallel on a
+ * {@link ForkJoinPool}, then non-conflicting swaps are applied best first.
+ * The search stops when the budget runs out, when the number of trucks meets
+ * the {@link LowerBounds L2 bound}, or when no truck can be emptied.
+ * <p>
+ * All trucks must have the same capacity. In fixed-point mode loads are exact
+ * units; with double weights, trucks the search changes are kept a tiny
+ * relative margin below capacity, so that they can be loaded as is. The
+ * trucks passed in are not modified.
+ */
+public class LocalSearchImprover {
+
+    private static final long DEFAULT_BUDGET_MILLIS = 2_000;
+    private static final double RELATIVE_TOLERANCE = 1e-9; // Allowed rounding error of double sums
+
+    private final long budgetMillis;
+    private final int parallelism;
+    private int dissolved;
+
+    // State of the current improvement
+    private Parcel[] parcels;
+    private double[] weights; // In units when exact
+    private double capacity; // Largest load of a changed truck
+    private double epsilon; // Smallest meaningful change of a load
+    private int stamp; // Number of the current step, to save each bin once per step
+
+    /**
+     * Constructs an improver with a 2 second budget, using all available
+     * cores.
+     */
+    public LocalSearchImprover() {
+        this(DEFAULT_BUDGET_MILLIS, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an improver.
+     *
+     * @param budgetMillis the wall-clock budget in milliseconds, or 0 to search
+     * until no truck can be emptied
+     * @param parallelism the number of threads evaluating swaps
+     */
+    public LocalSearchImprover(long budgetMillis, int parallelism) {
+        if (budgetMillis < 0) {
+            throw new IllegalArgumentException("Time budget cannot be negative.");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        this.budgetMillis = budgetMillis;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the number of trucks the last improvement emptied.
+     *
+     * @return the number of trucks saved
+     */
+    public int getTrucksSaved() {
+        return dissolved;
+    }
+
+    /**
+     * Improves a packing.
+     *
+     * @param trucks the trucks of a solution, all of the same capacity
+     * @return new trucks holding the same parcels, never more of them, indexed
+     * from 0
+     * @throws IllegalArgumentException if the capacities differ, or the trucks
+     * limit volume or pallet slots, which the moves ignore
+     */
+    public List<Truck> improve(List<Truck> trucks) {
+        long deadline = budgetMillis > 0 ? System.nanoTime() + budgetMillis * 1_000_000 : Long.MAX_VALUE;
+        dissolved = 0;
+        if (trucks.isEmpty()) {
+            return new ArrayList<>();
+        }
+        double truckCapacity = trucks.get(0).getCapacity();
+        WeightScale scale = trucks.get(0).getScale();
+        for (Truck truck : trucks) {
+            if (truck.getCapacity() != truckCapacity) {
+                throw new IllegalArgumentException("All trucks must have the same capacity.");
+            }
+            if (truck.getVolumeCapacity() != Truck.UNLIMITED_VOLUME || truck.getPalletCapacity() != Truck.UNLIMITED_PALLETS) {
+                throw new IllegalArgumentException("Local search moves parcels by weight alone, but the trucks limit volume or pallet slots.");
+            }
+        }
+
+        boolean exact = scale != null;
+        double units = exact ? scale.toUnits(truckCapacity) : truckCapacity;
+        this.capacity = exact ? units : units * (1 - RELATIVE_TOLERANCE);
+        this.epsilon = exact ? 0 : units * RELATIVE_TOLERANCE;
+        List<Parcel> all = new ArrayList<>();
+        List<Bin> bins = new ArrayList<>();
+        for (Truck truck : trucks) {
+            Bin bin = new Bin(truck.getParcels().size());
+            for (Parcel parcel : truck.getParcels()) {
+                bin.items[bin.size++] = all.size();
+                all.add(parcel);
+            }
+            bins.add(bin);
+        }
+        this.parcels = all.toArray(new Parcel[0]);
+        this.weights = new double[parcels.length];
+        for (int i = 0; i < parcels.length; i++) {
+            weights[i] = exact ? scale.toUnits(parcels[i].getWeight()) : parcels[i].getWeight();
+        }
+        for (Bin bin : bins) {
+            bin.load = bin.sum();
+        }
+        long lowerBound = LowerBounds.of(i -> parcels[i].getWeight(), parcels.length, truckCapacity, scale).get();
+
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        try {
+            while (bins.size() > lowerBound && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                Bin target = null;
+                for (Bin bin : bins) {
+                    if (!bin.tried && (target == null || bin.load < target.load)) {
+                        target = bin;
+                    }
+                }
+                if (target == null) {
+                    break; // Local optimum: no truck can be emptied
+                }
+                step(bins, target, pool, deadline);
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+
+        List<Truck> result = new ArrayList<>();
+        for (Bin bin : bins) {
+            Truck truck = new Truck(result.size(), truckCapacity, scale);
+            for (int k = 0; k < bin.size; k++) {
+                if (!truck.addParcel(parcels[bin.items[k]])) {
+                    throw new IllegalStateException("Parcel " + parcels[bin.items[k]] + " does not fit its truck.");
+                }
+            }
+            result.add(truck);
+        }
+        return result;
+    }
+
+    /**
+     * Tries to empty one truck, keeping the result only if it removes a truck
+     * or makes the loads more uneven.
+     */
+    private void step(List<Bin> bins, Bin target, ForkJoinPool pool, long deadline) {
+        stamp++;
+        int position = bins.indexOf(target);
+        bins.remove(position);
+        List<Bin> touched = new ArrayList<>();
+        double before = target.load * target.load;
+
+        Bin free = new Bin(target.size);
+        free.addAll(target);
+        free.load = target.load;
+
+        // Swap free parcels into the other trucks while that fills them more
+        while (free.size > 0 && System.nanoTime() < deadline) {
+            List<Swap> swaps = bestSwaps(bins, free, pool);
+            if (swaps == null || swaps.isEmpty()) {
+                break;
+            }
+            boolean[] taken = new boolean[free.size];
+            List<Integer> out = new ArrayList<>();
+            for (Swap swap : swaps) {
+                if (taken[swap.in[0]] || swap.in.length > 1 && taken[swap.in[1]]) {
+                    continue;
+                }
+                Bin bin = swap.bin;
+                if (bin.save(stamp)) {
+                    touched.add(bin);
+                    before += bin.load * bin.load;
+                }
+                for (int slot : swap.in) {
+                    taken[slot] = true;
+                }
+                for (int item : swap.outItems()) {
+                    out.add(item);
+                }
+                bin.removeAll(swap.outItems());
+                for (int slot : swap.in) {
+                    bin.add(free.items[slot]);
+                }
+                bin.load = bin.sum();
+            }
+            Bin next = new Bin(free.size + out.size());
+            for (int slot = 0; slot < free.size; slot++) {
+                if (!taken[slot]) {
+                    next.add(free.items[slot]);
+                }
+            }
+            for (int item : out) {
+                next.add(item);
+            }
+            free = next;
+        }
+
+        // Relocate free parcels, heaviest first, to the fullest truck they fit in
+        List<Integer> left = new ArrayList<>();
+        for (int item : free.sortedByWeight()) {
+            Bin best = null;
+            for (Bin bin : bins) {
+                if (bin.load + weights[item] <= capacity && (best == null || bin.load > best.load)) {
+                    best = bin;
+                }
+            }
+            if (best == null) {
+                left.add(item);
+                continue;
+            }
+            if (best.save(stamp)) {
+                touched.add(best);
+                before += best.load * best.load;
+            }
+            best.add(item);
+            best.load += weights[item];
+        }
+
+        // Load what is left into new trucks, first fit decreasing
+        List<Bin> opened = new ArrayList<>();
+        for (int item : left) {
+            Bin bin = null;
+            for (Bin candidate : opened) {
+                if (candidate.load + weights[item] <= capacity) {
+                    bin = candidate;
+                    break;
+                }
+            }
+            if (bin == null) {
+                bin = new Bin(left.size());
+                opened.add(bin);
+            }
+            bin.add(item);
+            bin.load += weights[item];
+        }
+
+        double after = 0;
+        for (Bin bin : touched) {
+            after += bin.load * bin.load;
+        }
+        for (Bin bin : opened) {
+            after += bin.load * bin.load;
+        }
+        if (opened.isEmpty() || opened.size() == 1 && after > before + epsilon * capacity) {
+            // Kept: every truck may be worth trying again
+            if (opened.isEmpty()) {
+                dissolved++;
+            }
+            for (Bin bin : bins) {
+                bin.tried = false;
+            }
+            bins.addAll(opened);
+        } else {
+            for (Bin bin : touched) {
+                bin.restore();
+            }
+            target.tried = true;
+            bins.add(position, target);
+        }
+    }
+
+    /**
+     * Finds the best swap with the free parcels for every truck, in parallel,
+     * best first.
+     *
+     * @return the swaps, or null if interrupted
+     */
+    private List<Swap> bestSwaps(List<Bin> bins, Bin free, ForkJoinPool pool) {
+        Comparator<Swap> order = Comparator.comparingDouble((Swap s) -> -s.gain);
+        if (pool == null) {
+            List<Swap> swaps = new ArrayList<>();
+            for (Bin bin : bins) {
+                Swap swap = bestSwap(bin, free);
+                if (swap != null) {
+                    swaps.add(swap);
+                }
+            }
+            swaps.sort(order);
+            return swaps;
+        }
+        try {
+            return pool.submit(() -> bins.parallelStream()
+                    .map(bin -> bestSwap(bin, free))
+                    .filter(swap -> swap != null)
+                    .sorted(order)
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Finds the swap that raises the load of a truck the most without
+     * overfilling it: one of its parcels for one or two free parcels, or two
+     * of its parcels for one free parcel.
+     *
+     * @return the swap, or null if none raises the load
+     */
+    private Swap bestSwap(Bin bin, Bin free) {
+        double space = capacity - bin.load;
+        Swap best = null;
+        double bestGain = epsilon;
+        for (int a = 0; a < bin.size; a++) {
+            double outA = weights[bin.items[a]];
+            for (int f = 0; f < free.size; f++) {
+                double inF = weights[free.items[f]];
+                double gain = inF - outA;
+                if (gain > bestGain && gain <= space) {
+                    bestGain = gain;
+                    best = new Swap(bin, new int[] {a}, new int[] {f}, gain);
+                }
+                // One out, two in
+                for (int g = f + 1; g < free.size; g++) {
+                    gain = inF + weights[free.items[g]] - outA;
+                    if (gain > bestGain && gain <= space) {
+                        bestGain = gain;
+                        best = new Swap(bin, new int[] {a}, new int[] {f, g}, gain);
+                    }
+                }
+                // Two out, one in
+                for (int b = a + 1; b < bin.size; b++) {
+                    gain = inF - outA - weights[bin.items[b]];
+                    if (gain > bestGain && gain <= space) {
+                        bestGain = gain;
+                        best = new Swap(bin, new int[] {a, b}, new int[] {f}, gain);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A swap between a truck and the free parcels: positions of the truck's
+     * parcels going out and of the free parcels coming in.
+     */
+    private final class Swap {
+
+        final Bin bin;
+        final int[] out;
+        final int[] in;
+        final double gain;
+
+        Swap(Bin bin, int[] out, int[] in, double gain) {
+            this.bin = bin;
+            this.out = out;
+            this.in = in;
+            this.gain = gain;
+        }
+
+        int[] outItems() {
+            int[] items = new int[out.length];
+            for (int k = 0; k < out.length; k++) {
+                items[k] = bin.items[out[k]];
+            }
+            return items;
+        }
+    }
+
+    /**
+     * The parcels of a truck, by position in the parcel array, in loading
+     * order, with a copy saved before the first change of a step.
+     */
+    private final class Bin {
+
+        int[] items;
+        int size;
+        double load;
+        boolean tried; // Failed to empty since the last kept step
+
+        private int[] savedItems;
+        private int savedSize;
+        private double savedLoad;
+        private int savedStamp;
+
+        Bin(int capacity) {
+            this.items = new int[Math.max(1, capacity)];
+        }
+
+        void add(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+
+        void addAll(Bin other) {
+            for (int k = 0; k < other.size; k++) {
+                add(other.items[k]);
+            }
+        }
+
+        /**
+         * Removes parcels, keeping the others in loading order.
+         */
+        void removeAll(int[] removed) {
+            int kept = 0;
+            for (int k = 0; k < size; k++) {
+                int item = items[k];
+                boolean keep = true;
+                for (int r : removed) {
+                    keep &= item != r;
+                }
+                if (keep) {
+                    items[kept++] = item;
+                }
+            }
+            size = kept;
+        }
+
+        /**
+         * Sums the weights in loading order, as a truck would.
+         */
+        double sum() {
+            double total = 0;
+            for (int k = 0; k < size; k++) {
+                total += weights[items[k]];
+            }
+            return total;
+        }
+
+        int[] sortedByWeight() {
+            return Arrays.stream(items, 0, size).boxed()
+                    .sorted(Comparator.comparingDouble((Integer item) -> -weights[item]))
+                    .mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * Saves the contents once per step.
+         *
+         * @return true if this is the first change of the step
+         */
+        boolean save(int step) {
+            if (savedStamp == step) {
+                return false;
+            }
+            savedStamp = step;
+            savedItems = Arrays.copyOf(items, size);
+            savedSize = size;
+            savedLoad = load;
+            return true;
+        }
+
+        void restore() {
+            items = savedItems;
+            size = savedSize;
+            load = savedLoad;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package app.strategy;
+
+import app.model.Parcel;
+import app.model.Truck;
+
+/**
+ * Next Fit engine: only the most recently opened truck is open. A parcel goes
+ * into it if it fits; otherwise that truck is closed for good and a new one is
+ * opened.
+ * <p>
+ * Each parcel costs O(1) and the engine holds a single remaining capacity, so
+ * time and memory do not depend on how many trucks have been filled. It uses
+ * at most twice the optimal number of trucks.
+ */
+public class NextFitStrategy extends AbstractIndexedTruckLoadingStrategy {
+
+    private int current = -1; // Index of the open truck, or -1 before the first parcel
+    private double currentRemaining; // Remaining capacity of the open truck
+    private final String name = "Next Fit Strategy";
+
+    public NextFitStrategy() {
+        super();
+    }
+
+    /**
+     * Places the parcel in the open truck, or in a new truck if it does not
+     * fit.
+     *
+     * @param weight the weight of the parcel
+     * @return the index of the chosen truck
+     */
+    @Override
+    protected int place(double weight) {
+        if (current < 0 || currentRemaining < weight) {
+            current = openTruck();
+            currentRemaining = truckCapacity;
+        }
+        currentRemaining = remainingAfter(currentRemaining, weight);
+        return current;
+    }
+
+    /**
+     * Closed trucks are never packed again, so only the open truck is
+     * tracked: it is hidden while detached.
+     */
+    @Override
+    protected void detachTruck(Truck truck) {
+        if (truck.getIndex() == current) {
+            currentRemaining = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    @Override
+    protected void attachTruck(Truck truck) {
+        if (truck.getIndex() == current) {
+            currentRemaining = truck.getRemainingCapacity();
+        }
+    }
+
+    @Override
+    protected int fittingTruck(Parcel parcel) {
+        return current >= 0 && currentRemaining >= parcel.getWeight() ? current : -1;
+    }
+
+    /**
+     * Follows the open truck to its new index. If it was dropped, the next
+     * parcel opens a new truck.
+     */
+    @Override
+    protected void reindex(int[] newIndexOf) {
+        if (current >= 0) {
+            current = newIndexOf[current];
+            currentRemaining = current < 0 ? Double.NEGATIVE_INFINITY : trucks.get(current).getRemainingCapacity();
+        }
+        super.reindex(newIndexOf);
+    }
+
+    /**
+     * Returns the name of this strategy.
+     *
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,15 @@
+package app.strategy;
+
+import app.model.Parcel;
+
+/**
+ * A strategy that can also pack parcels one at a time, as they arrive, into
+ * the trucks of its last solve.
+ */
+public interface OnlineTruckLoadingStrategy extends TruckLoadingStrategy {
+
+    /**
+     * Pack one of the parcel, and add it to Bin List
+     */
+    void packParcel(Parcel parcel);
+}
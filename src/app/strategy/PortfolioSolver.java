@@ -0,0 +1,160 @@
+package app.strategy;
+
+import app.io.OutputFormatter;
+import app.model.Outcome;
+import app.model.Outcome.Status;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solves one problem with several strategies at the same time and keeps the
+ * best packing.
+ * <p>
+ * Each member strategy gets its own instance and its own thread; they all read
+ * the same {@link TruckLoadingProblem}, which none of them modifies. The
+ * winner is the solution with the fewest trucks, ties broken by the highest
+ * utilization as reported by {@link OutputFormatter}, then by member order.
+ * <p>
+ * With a time budget, members still running when it expires are interrupted
+ * and stop at their next cancellation check (see
+ * {@link AbstractTruckLoadingStrategy#checkCancelled(int)}); the winner is
+ * chosen among the members that finished.
+ */
+public class PortfolioSolver {
+
+    /** The strategies to run, or null for those registered for each problem's weight scale. */
+    private final List<Class<? extends TruckLoadingStrategy>> members;
+    private final long budgetMillis;
+    private final int parallelism;
+    private List<Outcome> outcomes = Collections.emptyList();
+
+    /**
+     * Constructs a portfolio of the registered strategies with no time budget,
+     * using all available cores. The members are chosen for each problem with
+     * {@link StrategyRegistry#forScale(app.model.WeightScale)}, so the
+     * fixed-point-only engines run only on fixed-point problems.
+     */
+    public PortfolioSolver() {
+        this.members = null;
+        this.budgetMillis = 0;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Constructs a portfolio.
+     *
+     * @param members the strategies to run, each with a no-argument
+     * constructor
+     * @param budgetMillis the wall-clock budget in milliseconds, or 0 for none
+     * @param parallelism the maximum number of strategies run at once
+     */
+    public PortfolioSolver(List<Class<? extends TruckLoadingStrategy>> members, long budgetMillis, int parallelism) {
+        if (members == null || members.isEmpty()) {
+            throw new IllegalArgumentException("Portfolio must have at least one strategy.");
+        }
+        if (budgetMillis < 0) {
+            throw new IllegalArgumentException("Time budget cannot be negative.");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        this.members = new ArrayList<>(members);
+        this.budgetMillis = budgetMillis;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs every member on the problem and returns the winning strategy, whose
+     * {@link TruckLoadingStrategy#getTrucks()} holds the best packing.
+     *
+     * @param problem the problem to solve
+     * @return the strategy that found the best packing
+     * @throws IllegalStateException if no member finished successfully
+     */
+    public TruckLoadingStrategy solve(TruckLoadingProblem problem) {
+        List<Class<? extends TruckLoadingStrategy>> members = this.members != null
+                ? this.members : StrategyRegistry.forScale(problem.getWeightScale());
+        TruckLoadingStrategy[] solved = new TruckLoadingStrategy[members.size()];
+        List<Callable<Outcome>> tasks = new ArrayList<>();
+        for (int i = 0; i < members.size(); i++) {
+            int member = i;
+            tasks.add(() -> run(members.get(member), problem, solved, member));
+        }
+
+        List<Outcome> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, members.size()));
+        try {
+            List<Future<Outcome>> futures = budgetMillis > 0
+                    ? executor.invokeAll(tasks, budgetMillis, TimeUnit.MILLISECONDS)
+                    : executor.invokeAll(tasks);
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(collect(members.get(i), futures.get(i)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Portfolio interrupted.");
+        } finally {
+            executor.shutdownNow();
+        }
+        this.outcomes = Collections.unmodifiableList(results);
+
+        int best = -1;
+        for (int i = 0; i < results.size(); i++) {
+            Outcome outcome = results.get(i);
+            if (outcome.status == Status.SOLVED && (best < 0 || outcome.truckCount < results.get(best).truckCount
+                    || outcome.truckCount == results.get(best).truckCount && outcome.utilization > results.get(best).utilization)) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            throw new IllegalStateException("No strategy in the portfolio finished"
+                    + (budgetMillis > 0 ? " within " + budgetMillis + " ms." : "."));
+        }
+        return solved[best];
+    }
+
+    /**
+     * Returns the outcome of every member of the last solve, in member order.
+     *
+     * @return the outcomes
+     */
+    public List<Outcome> getOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * Solves the problem with a fresh instance of a member and stores the
+     * instance in its slot of {@code solved}.
+     */
+    private static Outcome run(Class<? extends TruckLoadingStrategy> member, TruckLoadingProblem problem,
+            TruckLoadingStrategy[] solved, int slot) {
+        TruckLoadingStrategy strategy = StrategyRegistry.newInstance(member);
+        long start = System.nanoTime();
+        strategy.solve(problem);
+        List<Truck> trucks = strategy.getTrucks();
+        double timeMs = (System.nanoTime() - start) / 1_000_000.0;
+        solved[slot] = strategy;
+        return new Outcome(strategy.getName(), Status.SOLVED, trucks.size(), OutputFormatter.utilization(trucks), timeMs);
+    }
+
+    private static Outcome collect(Class<? extends TruckLoadingStrategy> member, Future<Outcome> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (CancellationException e) {
+            return new Outcome(member.getSimpleName(), Status.CANCELLED, -1, Double.NaN, Double.NaN);
+        } catch (ExecutionException e) {
+            Status status = e.getCause() instanceof CancellationException ? Status.CANCELLED : Status.FAILED;
+            return new Outcome(member.getSimpleName(), status, -1, Double.NaN, Double.NaN);
+        }
+    }
+}
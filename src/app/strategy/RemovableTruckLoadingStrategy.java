@@ -0,0 +1,34 @@
+package app.strategy;
+
+import app.model.Parcel;
+
+/**
+ * An online strategy that can also take parcels back out of its trucks after
+ * packing, for cancellations and reroutes, and merge the trucks this leaves
+ * under-filled, instead of solving the remaining shipment again.
+ */
+public interface RemovableTruckLoadingStrategy extends OnlineTruckLoadingStrategy {
+
+    /**
+     * Removes a packed parcel from its truck. A rerouted parcel can then be
+     * packed again with {@link #packParcel}. A truck left empty keeps its
+     * index until the next {@link #consolidate}.
+     *
+     * @param parcelIndex the index of the parcel
+     * @return the removed parcel
+     * @throws IllegalArgumentException if no packed parcel has that index
+     */
+    Parcel removeParcel(int parcelIndex);
+
+    /**
+     * Empties the trucks loaded to at most the given fraction of their weight
+     * capacity into the others where the parcels fit, then drops every empty
+     * truck, so that {@link #getTrucks()} only holds loaded trucks, numbered
+     * from 0 in their previous order.
+     *
+     * @param maxLoadFactor the largest load, as a fraction of the capacity, of
+     * a truck worth emptying
+     * @return the number of trucks emptied
+     */
+    int consolidate(double maxLoadFactor);
+}
@@ -0,0 +1,96 @@
+package app.strategy;
+
+import app.index.MaxSegmentTree;
+import app.model.Parcel;
+import app.model.Truck;
+
+/**
+ * First Fit engine backed by a {@link MaxSegmentTree} over the remaining
+ * capacities of the trucks, indexed by truck index.
+ * <p>
+ * Produces the same truck assignment as {@link FirstFitStrategy}, but each
+ * placement is one allocation-free descent to find the leftmost truck that
+ * fits and one ascent to update its capacity, instead of a find, delete and
+ * reinsert in an AVL tree with a dummy truck per parcel.
+ */
+public class SegmentTreeFirstFitStrategy extends AbstractIndexedTruckLoadingStrategy {
+
+    private static final int INITIAL_TRUCKS = 1024;
+
+    protected MaxSegmentTree capacities;
+    private final String name = "Segment Tree First Fit Strategy";
+
+    public SegmentTreeFirstFitStrategy() {
+        this(false);
+    }
+
+    /**
+     * Constructor for the engine, packing the parcels in input order or
+     * heaviest first.
+     *
+     * @param decreasing whether to sort the parcels by descending weight
+     * first
+     */
+    protected SegmentTreeFirstFitStrategy(boolean decreasing) {
+        super(decreasing);
+        this.capacities = new MaxSegmentTree(INITIAL_TRUCKS);
+    }
+
+    /**
+     * Selects the lowest-indexed truck whose remaining capacity is at least
+     * the parcel's weight, opening a new truck if there is none.
+     *
+     * @param weight the weight of the parcel
+     * @return the index of the chosen truck
+     */
+    @Override
+    protected int place(double weight) {
+        int truckIndex = capacities.findFirst(weight);
+
+        if (truckIndex < 0) {
+            truckIndex = openTruck();
+            capacities.add(remainingAfter(truckCapacity, weight));
+        } else {
+            capacities.set(truckIndex, remainingAfter(capacities.get(truckIndex), weight));
+        }
+        return truckIndex;
+    }
+
+    /**
+     * Hides a truck from {@link MaxSegmentTree#findFirst} behind an empty
+     * value until it is attached again.
+     */
+    @Override
+    protected void detachTruck(Truck truck) {
+        capacities.set(truck.getIndex(), Double.NEGATIVE_INFINITY);
+    }
+
+    @Override
+    protected void attachTruck(Truck truck) {
+        capacities.set(truck.getIndex(), truck.getRemainingCapacity());
+    }
+
+    @Override
+    protected int fittingTruck(Parcel parcel) {
+        return capacities.findFirst(parcel.getWeight());
+    }
+
+    @Override
+    protected void reindex(int[] newIndexOf) {
+        capacities = new MaxSegmentTree(Math.max(INITIAL_TRUCKS, trucks.size()));
+        for (Truck truck : trucks) {
+            capacities.add(truck.getRemainingCapacity());
+        }
+        super.reindex(newIndexOf);
+    }
+
+    /**
+     * Returns the name of this strategy.
+     *
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+}
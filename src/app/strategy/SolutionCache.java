@@ -0,0 +1,412 @@
+package app.strategy;
+
+import app.model.Parcel;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache of packings, keyed by a 128-bit fingerprint of the strategy
+ * and the problem, so that a manifest solved before is answered by rebuilding
+ * its trucks instead of solving it again.
+ * <p>
+ * A packing is stored compactly, as the input positions of the parcels of
+ * each truck in truck order, one {@code int} per parcel plus one per truck,
+ * so the trucks can be rebuilt exactly, parcel order included, for any list
+ * of parcels with the same fingerprint. Entries are evicted least recently
+ * used first once their estimated size exceeds the memory budget. All methods
+ * are thread-safe.
+ * <p>
+ * The fingerprint covers the strategy class, the truck capacities, the weight
+ * scale and the parcels in order. For a strategy that
+ * {@link TruckLoadingStrategy#packsByResourcesOnly() packs by resources only}
+ * it covers the weight of each parcel, plus its volume and pallet slots when
+ * the trucks limit them; for any other, such as
+ * {@link DestinationPartitionedStrategy}, every field of each parcel.
+ */
+public class SolutionCache {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 160; // Map node, key, entry and array headers
+
+    private final long budgetBytes;
+    private final LinkedHashMap<Fingerprint, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // Access order
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param budgetBytes the estimated memory the entries may take
+     */
+    public SolutionCache(long budgetBytes) {
+        if (budgetBytes < 0) {
+            throw new IllegalArgumentException("Memory budget must not be negative.");
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Rebuilds the cached packing of a problem, if there is one, from the
+     * problem's own parcels.
+     *
+     * @param key the fingerprint of the strategy and the problem
+     * @param problem the problem, with a list of parcels
+     * @return new trucks holding the problem's parcels, or null on a miss
+     */
+    public List<Truck> get(Fingerprint key, TruckLoadingProblem problem) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+        }
+        return entry.rebuild(problem);
+    }
+
+    /**
+     * Stores the packing of a problem, evicting the least recently used
+     * entries to stay within the budget. A packing larger than the whole
+     * budget is not stored.
+     *
+     * @param key the fingerprint of the strategy and the problem
+     * @param problem the problem, with a list of parcels
+     * @param trucks the trucks the strategy packed the problem's parcels into
+     */
+    public void put(Fingerprint key, TruckLoadingProblem problem, List<Truck> trucks) {
+        Entry entry = Entry.of(problem, trucks);
+        if (entry == null || entry.bytes() > budgetBytes) {
+            return;
+        }
+        synchronized (this) {
+            Entry old = entries.put(key, entry);
+            if (old != null) {
+                usedBytes -= old.bytes();
+            }
+            usedBytes += entry.bytes();
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (usedBytes > budgetBytes) {
+                usedBytes -= eldest.next().bytes();
+                eldest.remove();
+                evictions++;
+            }
+        }
+    }
+
+    /**
+     * Computes the fingerprint of a strategy and a list problem.
+     *
+     * @param strategyClass the strategy that packs the problem
+     * @param resourcesOnly whether the strategy
+     * {@link TruckLoadingStrategy#packsByResourcesOnly() packs by resources only},
+     * so that the other parcel fields can be left out
+     * @param problem the problem, with a list of parcels
+     * @return the fingerprint
+     */
+    public static Fingerprint fingerprint(Class<? extends TruckLoadingStrategy> strategyClass, boolean resourcesOnly,
+            TruckLoadingProblem problem) {
+        Hasher hasher = new Hasher();
+        hasher.add(strategyClass.getName());
+        hasher.add(resourcesOnly ? 1 : 0);
+        boolean limitsVolume = problem.getVolumeCapacity() != Truck.UNLIMITED_VOLUME;
+        boolean limitsPallets = problem.getPalletCapacity() != Truck.UNLIMITED_PALLETS;
+        hasher.add(Double.doubleToLongBits(problem.getBinCapacity()));
+        hasher.add(Double.doubleToLongBits(problem.getVolumeCapacity()));
+        hasher.add(problem.getPalletCapacity());
+        hasher.add(problem.getWeightScale() == null ? -1 : problem.getWeightScale().getDecimals());
+        List<Parcel> parcels = problem.getParcels();
+        hasher.add(parcels.size());
+        if (resourcesOnly) {
+            for (Parcel parcel : parcels) {
+                hasher.add(Double.doubleToLongBits(parcel.getWeight()));
+                if (limitsVolume) {
+                    hasher.add(Double.doubleToLongBits(parcel.getVolume()));
+                }
+                if (limitsPallets) {
+                    hasher.add(parcel.getPalletSlots());
+                }
+            }
+            return hasher.finish();
+        }
+        // A manifest repeats a few types and destinations, so each distinct
+        // string is hashed once and added as its 64-bit digest
+        Map<String, Long> digests = new HashMap<>();
+        for (Parcel parcel : parcels) {
+            hasher.add(parcel.getIndex());
+            hasher.add(Double.doubleToLongBits(parcel.getWeight()));
+            hasher.add(Double.doubleToLongBits(parcel.getVolume()));
+            hasher.add((long) parcel.getPalletSlots() << 1 | (parcel.isFragile() ? 1 : 0));
+            hasher.add(digest(parcel.getType(), digests));
+            hasher.add(digest(parcel.getDestination(), digests));
+        }
+        return hasher.finish();
+    }
+
+    /**
+     * Returns the 64-bit digest of a string, hashing it on first sight.
+     */
+    private static long digest(String value, Map<String, Long> digests) {
+        if (value == null) {
+            return -1L;
+        }
+        Long digest = digests.get(value);
+        if (digest == null) {
+            Hasher hasher = new Hasher();
+            hasher.add(value);
+            digest = hasher.finish().low;
+            digests.put(value, digest);
+        }
+        return digest;
+    }
+
+    /**
+     * Returns the number of lookups that found a packing.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that found none.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries evicted to stay within the budget.
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of cached packings.
+     *
+     * @return the entry count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the estimated memory taken by the entries.
+     *
+     * @return the estimate in bytes
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * A 128-bit fingerprint. Two problems that share one are taken to be the
+     * same problem.
+     */
+    public static final class Fingerprint {
+
+        public final long high;
+        public final long low;
+
+        public Fingerprint(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint fingerprint = (Fingerprint) other;
+            return high == fingerprint.high && low == fingerprint.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (low ^ (low >>> 32));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%016x%016x", high, low);
+        }
+    }
+
+    /**
+     * A packing, as the input positions of the parcels of each truck.
+     */
+    private static final class Entry {
+
+        final int[] positions; // Parcel positions, grouped by truck
+        final int[] truckEnds; // End of each truck's group in positions
+        final double volumeCapacity;
+        final int palletCapacity;
+
+        Entry(int[] positions, int[] truckEnds, double volumeCapacity, int palletCapacity) {
+            this.positions = positions;
+            this.truckEnds = truckEnds;
+            this.volumeCapacity = volumeCapacity;
+            this.palletCapacity = palletCapacity;
+        }
+
+        /**
+         * Encodes the trucks, or returns null if they hold a parcel that is
+         * not in the problem.
+         */
+        static Entry of(TruckLoadingProblem problem, List<Truck> trucks) {
+            List<Parcel> parcels = problem.getParcels();
+            Map<Parcel, Integer> positionOf = new IdentityHashMap<>(parcels.size());
+            for (int i = 0; i < parcels.size(); i++) {
+                positionOf.put(parcels.get(i), i);
+            }
+            int[] truckEnds = new int[trucks.size()];
+            int count = 0;
+            for (int t = 0; t < trucks.size(); t++) {
+                count += trucks.get(t).getParcels().size();
+                truckEnds[t] = count;
+            }
+            int[] positions = new int[count];
+            int next = 0;
+            for (Truck truck : trucks) {
+                for (Parcel parcel : truck.getParcels()) {
+                    Integer position = positionOf.get(parcel);
+                    if (position == null) {
+                        return null;
+                    }
+                    positions[next++] = position;
+                }
+            }
+            return trucks.isEmpty()
+                    ? new Entry(positions, truckEnds, Truck.UNLIMITED_VOLUME, Truck.UNLIMITED_PALLETS)
+                    : new Entry(positions, truckEnds, trucks.get(0).getVolumeCapacity(), trucks.get(0).getPalletCapacity());
+        }
+
+        /**
+         * Creates the trucks again with the problem's parcels, each truck
+         * loaded in its original order so its remaining capacity is
+         * identical.
+         */
+        List<Truck> rebuild(TruckLoadingProblem problem) {
+            List<Parcel> parcels = problem.getParcels();
+            List<Truck> trucks = new ArrayList<>(truckEnds.length);
+            int start = 0;
+            for (int t = 0; t < truckEnds.length; t++) {
+                Truck truck = new Truck(t, problem.getBinCapacity(), volumeCapacity, palletCapacity, problem.getWeightScale());
+                for (int k = start; k < truckEnds[t]; k++) {
+                    truck.addParcel(parcels.get(positions[k]));
+                }
+                trucks.add(truck);
+                start = truckEnds[t];
+            }
+            return trucks;
+        }
+
+        long bytes() {
+            return ENTRY_OVERHEAD_BYTES + 4L * (positions.length + truckEnds.length);
+        }
+    }
+
+    /**
+     * Streaming MurmurHash3 (x64, 128-bit) over 64-bit values, two values per
+     * block.
+     */
+    private static final class Hasher {
+
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+
+        private long h1;
+        private long h2;
+        private long pending;
+        private boolean hasPending;
+        private long length;
+
+        void add(long value) {
+            if (!hasPending) {
+                pending = value;
+                hasPending = true;
+                return;
+            }
+            hasPending = false;
+            h1 ^= mixK1(pending);
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52dce729;
+            h2 ^= mixK2(value);
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495ab5;
+            length += 16;
+        }
+
+        /**
+         * Adds a string: its length, then its characters four to a value.
+         * Null is told apart from every string by a negative length.
+         */
+        void add(String value) {
+            if (value == null) {
+                add(-1L);
+                return;
+            }
+            add(value.length());
+            long chars = 0;
+            for (int i = 0; i < value.length(); i++) {
+                chars = chars << 16 | value.charAt(i);
+                if (i % 4 == 3) {
+                    add(chars);
+                    chars = 0;
+                }
+            }
+            if (value.length() % 4 != 0) {
+                add(chars);
+            }
+        }
+
+        Fingerprint finish() {
+            if (hasPending) {
+                h1 ^= mixK1(pending);
+                length += 8;
+            }
+            h1 ^= length;
+            h2 ^= length;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix(h1);
+            h2 = fmix(h2);
+            h1 += h2;
+            h2 += h1;
+            return new Fingerprint(h1, h2);
+        }
+
+        private static long mixK1(long k1) {
+            return Long.rotateLeft(k1 * C1, 31) * C2;
+        }
+
+        private static long mixK2(long k2) {
+            return Long.rotateLeft(k2 * C2, 33) * C1;
+        }
+
+        private static long fmix(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package app.strategy;
+
+import app.model.WeightScale;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The truck loading strategies available to the application, the benchmark
+ * runner and the {@link PortfolioSolver}.
+ * <p>
+ * Every registered strategy has a public no-argument constructor, so a fresh
+ * instance with no internal state can be created for each solve.
+ */
+public final class StrategyRegistry {
+
+    private static final List<Class<? extends TruckLoadingStrategy>> STRATEGIES = Collections.unmodifiableList(Arrays.asList(
+            FirstFitStrategy.class, BestFitStrategy.class, SegmentTreeFirstFitStrategy.class,
+            CapacityTreeBestFitStrategy.class, BucketBestFitStrategy.class, StreamingTruckLoader.class,
+            FirstFitDecreasingStrategy.class, BestFitDecreasingStrategy.class, NextFitStrategy.class,
+            WorstFitStrategy.class, AlmostWorstFitStrategy.class, HarmonicStrategy.class,
+            VectorFirstFitStrategy.class, VectorBestFitStrategy.class));
+
+    private static final List<Class<? extends TruckLoadingStrategy>> FIXED_POINT_ONLY = Collections.unmodifiableList(Arrays.asList(
+            BucketBestFitStrategy.class));
+
+    private StrategyRegistry() {
+    }
+
+    /**
+     * Returns every registered strategy, in registration order.
+     *
+     * @return the strategy classes
+     */
+    public static List<Class<? extends TruckLoadingStrategy>> all() {
+        return STRATEGIES;
+    }
+
+    /**
+     * Returns the registered strategies that can solve problems with the
+     * given weight scale: all of them for a fixed-point problem, all but the
+     * fixed-point-only engines for a problem with double weights.
+     *
+     * @param weightScale the weight scale of the problems, or null
+     * @return the strategy classes, in registration order
+     */
+    public static List<Class<? extends TruckLoadingStrategy>> forScale(WeightScale weightScale) {
+        if (weightScale != null) {
+            return STRATEGIES;
+        }
+        List<Class<? extends TruckLoadingStrategy>> strategies = new ArrayList<>(STRATEGIES);
+        strategies.removeAll(FIXED_POINT_ONLY);
+        return Collections.unmodifiableList(strategies);
+    }
+
+    /**
+     * Looks up a registered strategy by its simple class name.
+     *
+     * @param simpleName the simple name of the class, e.g. "BestFitStrategy"
+     * @return the strategy class, or null if none is registered under that name
+     */
+    public static Class<? extends TruckLoadingStrategy> forName(String simpleName) {
+        for (Class<? extends TruckLoadingStrategy> strategyClass : STRATEGIES) {
+            if (strategyClass.getSimpleName().equals(simpleName)) {
+                return strategyClass;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a new instance of a strategy through its no-argument
+     * constructor.
+     *
+     * @param strategyClass the strategy to instantiate
+     * @return a strategy with fresh internal state
+     */
+    public static TruckLoadingStrategy newInstance(Class<? extends TruckLoadingStrategy> strategyClass) {
+        try {
+            return strategyClass.getDeclaredConstructor().newInstance();
+        } catch (IllegalAccessException | IllegalArgumentException | InstantiationException | NoSuchMethodException | SecurityException | InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
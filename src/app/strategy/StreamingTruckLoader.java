@@ -0,0 +1,383 @@
+package app.strategy;
+
+import app.index.CapacityTree;
+import app.model.Parcel;
+import app.model.ParcelBatch;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import app.model.WeightScale;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * Online Best Fit loader for parcel streams, with memory bounded by the number
+ * of open trucks rather than the number of parcels.
+ * <p>
+ * At most {@code maxOpenTrucks} trucks are open at a time. Each parcel goes
+ * into the open truck with the smallest remaining capacity that can hold it.
+ * When none can and the limit is reached, the fullest open truck is closed to
+ * make room. A truck is also closed as soon as its remaining capacity drops to
+ * {@code closeThreshold} or below. Closed trucks are handed to the sink and
+ * forgotten; {@link #finish()} closes the rest in index order.
+ * <p>
+ * Parcels can be pushed one at a time with {@link #packParcel(Parcel)}, pulled
+ * from an {@link Iterator}, or received from a {@link Flow.Publisher} with
+ * bounded demand. Each parcel is validated as it arrives, since there is no
+ * {@link TruckLoadingProblem} to check the whole input in advance.
+ * <p>
+ * The existing strategies index every truck they ever opened, so they cannot
+ * release memory; this loader keeps its open trucks in reusable slots of a
+ * {@link CapacityTree} instead. {@link #solve(TruckLoadingProblem)} is also
+ * supported and collects every truck, so the loader can be compared with the
+ * other strategies.
+ */
+public class StreamingTruckLoader extends AbstractTruckLoadingStrategy {
+
+    private static final int DEFAULT_MAX_OPEN_TRUCKS = 64;
+    private static final int REQUEST_BATCH = 256; // Parcels requested from a publisher at a time
+
+    private final String name = "Streaming Best Fit Strategy";
+    private int maxOpenTrucks;
+    private double closeThreshold;
+    private Consumer<Truck> sink;
+    private boolean collecting; // Whether the sink collects into the truck list
+
+    private Truck[] openTrucks; // Open truck of each slot, or null if free
+    private int[] freeSlots;
+    private int freeCount;
+    private CapacityTree capacities; // Remaining capacity of each open slot
+    private int truckCount; // Number of trucks opened so far
+    private long parcelCount; // Number of parcels packed so far
+
+    /**
+     * Constructs a loader for {@link #solve(TruckLoadingProblem)}, which
+     * collects the trucks into {@link #getTrucks()}. It has no truck capacity
+     * or sink until then, so parcels cannot be streamed into it directly.
+     */
+    public StreamingTruckLoader() {
+        super();
+        this.maxOpenTrucks = DEFAULT_MAX_OPEN_TRUCKS;
+    }
+
+    /**
+     * Constructs a loader for a stream of parcels.
+     *
+     * @param truckCapacity the capacity of each truck
+     * @param weightScale the fixed-point scale, or null for double weights
+     * @param maxOpenTrucks the maximum number of trucks open at a time
+     * @param closeThreshold a truck is closed once its remaining capacity is
+     * at most this value
+     * @param sink receives each truck when it is closed
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public StreamingTruckLoader(double truckCapacity, WeightScale weightScale, int maxOpenTrucks,
+            double closeThreshold, Consumer<Truck> sink) {
+        super();
+        if (truckCapacity <= 0) {
+            throw new IllegalArgumentException("Bin capacity must be greater than zero.");
+        }
+        if (weightScale != null && !weightScale.isRepresentable(truckCapacity)) {
+            throw new IllegalArgumentException("Bin capacity " + truckCapacity + " is not representable in " + weightScale + ".");
+        }
+        if (maxOpenTrucks < 1) {
+            throw new IllegalArgumentException("At least one truck must be allowed to be open.");
+        }
+        if (sink == null) {
+            throw new IllegalArgumentException("Truck sink cannot be null.");
+        }
+        this.truckCapacity = truckCapacity;
+        this.weightScale = weightScale;
+        this.maxOpenTrucks = maxOpenTrucks;
+        this.closeThreshold = closeThreshold;
+        this.sink = sink;
+        reset();
+    }
+
+    /**
+     * Packs all the parcels of the problem, collecting every truck in index
+     * order into {@link #getTrucks()}.
+     *
+     * @param problem the problem to solve
+     */
+    @Override
+    public void solve(TruckLoadingProblem problem) {
+        problem.requireWeightOnly(getName());
+        this.truckCapacity = problem.getBinCapacity();
+        this.weightScale = problem.getWeightScale();
+        this.parcels = problem.getParcels();
+        this.trucks = new ArrayList<>();
+        this.sink = trucks::add;
+        this.collecting = true;
+        reset();
+
+        if (problem.getParcelBatch() != null) {
+            solveBatch(problem.getParcelBatch());
+        } else {
+            load(parcels.iterator());
+        }
+        trucks.sort(Comparator.comparingInt(Truck::getIndex));
+    }
+
+    /**
+     * Packs the parcels of a batch one at a time, so only the parcels of open
+     * trucks are materialised at once.
+     *
+     * @param batch the parcels to pack
+     */
+    @Override
+    protected void solveBatch(ParcelBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            checkCancelled(i);
+            packParcel(batch.get(i));
+        }
+        finish();
+    }
+
+    /**
+     * Packs every parcel of an iterator, then closes the remaining trucks.
+     *
+     * @param source the parcels to pack
+     * @return the number of trucks used
+     */
+    public int load(Iterator<? extends Parcel> source) {
+        for (int i = 0; source.hasNext(); i++) {
+            checkCancelled(i);
+            packParcel(source.next());
+        }
+        finish();
+        return truckCount;
+    }
+
+    /**
+     * Subscribes to a publisher of parcels. Parcels are requested
+     * {@value #REQUEST_BATCH} at a time, so a fast publisher cannot queue up
+     * more than that. The remaining trucks are closed when the publisher
+     * completes.
+     *
+     * @param publisher the source of parcels
+     * @return a future completed with the number of trucks used, or
+     * exceptionally if the publisher or the packing fails
+     */
+    public CompletableFuture<Integer> subscribe(Flow.Publisher<? extends Parcel> publisher) {
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<Parcel>() {
+
+            private Flow.Subscription subscription;
+            private int outstanding; // Parcels requested but not received yet
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                outstanding = REQUEST_BATCH;
+                subscription.request(REQUEST_BATCH);
+            }
+
+            @Override
+            public void onNext(Parcel parcel) {
+                if (done.isDone()) {
+                    return;
+                }
+                try {
+                    packParcel(parcel);
+                } catch (RuntimeException e) {
+                    subscription.cancel();
+                    done.completeExceptionally(e);
+                    return;
+                }
+                // Top the demand up once half of it has been delivered
+                if (--outstanding <= REQUEST_BATCH / 2) {
+                    subscription.request(REQUEST_BATCH - outstanding);
+                    outstanding = REQUEST_BATCH;
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                if (done.isDone()) {
+                    return;
+                }
+                try {
+                    finish();
+                    done.complete(truckCount);
+                } catch (RuntimeException e) {
+                    done.completeExceptionally(e);
+                }
+            }
+        });
+        return done;
+    }
+
+    /**
+     * Packs one parcel into the open truck with the smallest remaining
+     * capacity that can hold it, opening a truck if there is none.
+     *
+     * @param parcel the parcel to be packed
+     * @throws IllegalArgumentException if the parcel can never fit in a truck
+     * @throws IllegalStateException if the loader was built for
+     * {@link #solve(TruckLoadingProblem)} and has not solved a problem yet
+     */
+    @Override
+    public void packParcel(Parcel parcel) {
+        requireStarted();
+        double weight = parcel.getWeight();
+        if (weight > truckCapacity) {
+            throw new IllegalArgumentException("Problem is unsolvable: parcel #" + parcel.getIndex()
+                    + " weighs more than the bin capacity.");
+        }
+        if (weightScale != null && !weightScale.isRepresentable(weight)) {
+            throw new IllegalArgumentException("Weight " + weight + " of parcel #" + parcel.getIndex()
+                    + " is not representable in " + weightScale + ".");
+        }
+
+        int slot = capacities.ceiling(weight);
+        if (slot < 0) {
+            slot = openTruck();
+        } else {
+            // Remove from the index before its capacity changes
+            capacities.remove(slot);
+        }
+        Truck truck = openTrucks[slot];
+        truck.addParcel(parcel);
+        parcelCount++;
+
+        if (truck.getRemainingCapacity() <= closeThreshold) {
+            close(slot);
+        } else {
+            capacities.insert(slot, truck.getRemainingCapacity());
+        }
+    }
+
+    /**
+     * Closes every open truck, in index order.
+     *
+     * @throws IllegalStateException if the loader was built for
+     * {@link #solve(TruckLoadingProblem)} and has not solved a problem yet
+     */
+    public void finish() {
+        requireStarted();
+        List<Integer> slots = new ArrayList<>();
+        for (int slot = 0; slot < openTrucks.length; slot++) {
+            if (openTrucks[slot] != null) {
+                slots.add(slot);
+            }
+        }
+        slots.sort(Comparator.comparingInt(slot -> openTrucks[slot].getIndex()));
+        for (int slot : slots) {
+            capacities.remove(slot);
+            close(slot);
+        }
+    }
+
+    /**
+     * Returns the trucks collected by {@link #solve(TruckLoadingProblem)}, or
+     * the currently open trucks when streaming to a sink.
+     *
+     * @return the trucks
+     */
+    @Override
+    public List<Truck> getTrucks() {
+        if (collecting || openTrucks == null) {
+            return trucks;
+        }
+        List<Truck> open = new ArrayList<>();
+        for (Truck truck : openTrucks) {
+            if (truck != null) {
+                open.add(truck);
+            }
+        }
+        return Collections.unmodifiableList(open);
+    }
+
+    /**
+     * Returns the number of trucks opened so far.
+     *
+     * @return the truck count
+     */
+    public int getTruckCount() {
+        return truckCount;
+    }
+
+    /**
+     * Returns the number of trucks currently open.
+     *
+     * @return the open truck count
+     */
+    public int getOpenTruckCount() {
+        return maxOpenTrucks - freeCount;
+    }
+
+    /**
+     * Returns the number of parcels packed so far.
+     *
+     * @return the parcel count
+     */
+    public long getParcelCount() {
+        return parcelCount;
+    }
+
+    /**
+     * Returns the name of this strategy.
+     *
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Opens a new truck in a free slot, closing the fullest open truck first
+     * if every slot is taken.
+     */
+    private int openTruck() {
+        if (freeCount == 0) {
+            int fullest = capacities.ceiling(Double.NEGATIVE_INFINITY);
+            capacities.remove(fullest);
+            close(fullest);
+        }
+        int slot = freeSlots[--freeCount];
+        openTrucks[slot] = new Truck(truckCount++, truckCapacity, weightScale);
+        return slot;
+    }
+
+    /**
+     * Hands the truck of a slot to the sink and frees the slot. The slot must
+     * already be out of the capacity index.
+     */
+    private void close(int slot) {
+        Truck truck = openTrucks[slot];
+        openTrucks[slot] = null;
+        freeSlots[freeCount++] = slot;
+        sink.accept(truck);
+    }
+
+    private void requireStarted() {
+        if (openTrucks == null) {
+            throw new IllegalStateException(name + " has no truck capacity or sink yet; construct it with them to stream parcels.");
+        }
+    }
+
+    private void reset() {
+        openTrucks = new Truck[maxOpenTrucks];
+        capacities = new CapacityTree(maxOpenTrucks);
+        freeSlots = new int[maxOpenTrucks];
+        // Lowest slots first
+        for (int i = 0; i < maxOpenTrucks; i++) {
+            freeSlots[i] = maxOpenTrucks - 1 - i;
+        }
+        freeCount = maxOpenTrucks;
+        truckCount = 0;
+        parcelCount = 0;
+    }
+}
@@ -1,10 +1,14 @@
 package app.strategy;
 
-import app.model.Parcel;
 import app.model.Truck;
 import app.model.TruckLoadingProblem;
 import java.util.List;
 
+/**
+ * A strategy that packs a whole {@link TruckLoadingProblem} at once.
+ * Strategies that can also take parcels one at a time implement
+ * {@link OnlineTruckLoadingStrategy}.
+ */
 public interface TruckLoadingStrategy {
 
     /**
@@ -20,12 +24,19 @@ public interface TruckLoadingStrategy {
     String getName();
 
     /**
-     * Pack all the parcels, by invoking the packParcel method
+     * Pack all the parcels of the problem
      */
     void solve(TruckLoadingProblem problem);
 
     /**
-     * Pack one of the parcel, and add it to Bin List
+     * Returns whether the packing depends only on the order of the parcels and
+     * their weight, volume and pallet slots, so that a {@link SolutionCache}
+     * may key on those alone. Strategies that also look at other fields, such
+     * as the destination, keep the default.
+     *
+     * @return true if no other parcel field affects the packing
      */
-    void packParcel(Parcel parcel);
+    default boolean packsByResourcesOnly() {
+        return false;
+    }
 }
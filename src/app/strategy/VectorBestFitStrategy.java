@@ -0,0 +1,125 @@
+package app.strategy;
+
+import app.avltree.VectorAVLTree;
+import app.model.Parcel;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Best Fit over every resource a truck limits: packs each parcel into the
+ * most tightly filled truck that has enough weight, volume and pallet slots
+ * left.
+ * <p>
+ * How tightly a truck is filled is measured by its slack: the sum, over the
+ * limited resources, of the fraction of each still free. The trucks are kept
+ * in a {@link VectorAVLTree} ordered by slack, so the first truck in tree
+ * order that holds the parcel is the best fit. With weight as the only limit
+ * it packs as {@link CapacityTreeBestFitStrategy} does, ties going to the
+ * lowest-indexed truck.
+ */
+public class VectorBestFitStrategy extends AbstractVectorTruckLoadingStrategy {
+
+    private VectorAVLTree<Slack> tree;
+    private final List<Slack> slacks = new ArrayList<>(); // Current tree entry of each truck
+    private double[] capacities;
+    private final String name = "Vector Best Fit Strategy";
+
+    public VectorBestFitStrategy() {
+        super();
+    }
+
+    @Override
+    public void solve(TruckLoadingProblem problem) {
+        this.tree = new VectorAVLTree<>(slack -> slack.remaining);
+        this.slacks.clear();
+        this.capacities = null;
+        super.solve(problem);
+    }
+
+    @Override
+    protected int findTruck(double[] demand) {
+        return tree.findFirst(demand);
+    }
+
+    @Override
+    protected void truckOpened(int truckIndex, double[] remaining) {
+        Slack slack = slack(remaining);
+        slacks.add(slack);
+        tree.add(truckIndex, slack);
+    }
+
+    @Override
+    protected void truckChanged(int truckIndex, double[] remaining) {
+        tree.delete(truckIndex, slacks.get(truckIndex));
+        Slack slack = slack(remaining);
+        slacks.set(truckIndex, slack);
+        tree.add(truckIndex, slack);
+    }
+
+    private Slack slack(double[] remaining) {
+        if (capacities == null) {
+            capacities = capacities();
+        }
+        double score = 0;
+        for (int d = 0; d < remaining.length; d++) {
+            score += remaining[d] / capacities[d];
+        }
+        return new Slack(score, remaining);
+    }
+
+    @Override
+    protected void detachTruck(Truck truck) {
+        tree.delete(truck.getIndex(), slacks.get(truck.getIndex()));
+    }
+
+    @Override
+    protected void attachTruck(Truck truck) {
+        Slack slack = slack(remaining(truck));
+        slacks.set(truck.getIndex(), slack);
+        tree.add(truck.getIndex(), slack);
+    }
+
+    @Override
+    protected int fittingTruck(Parcel parcel) {
+        return findTruck(demand(parcel));
+    }
+
+    @Override
+    protected void reindex(int[] newIndexOf) {
+        tree = new VectorAVLTree<>(slack -> slack.remaining);
+        slacks.clear();
+        for (Truck truck : trucks) {
+            truckOpened(truck.getIndex(), remaining(truck));
+        }
+    }
+
+    /**
+     * Returns the name of this strategy.
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The remaining resources of a truck, ordered by slack.
+     */
+    private static final class Slack implements Comparable<Slack> {
+
+        final double score;
+        final double[] remaining;
+
+        Slack(double score, double[] remaining) {
+            this.score = score;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int compareTo(Slack other) {
+            return Double.compare(score, other.score);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package app.strategy;
+
+import app.index.VectorMaxSegmentTree;
+import app.model.Parcel;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import java.util.Arrays;
+
+/**
+ * First Fit over every resource a truck limits: packs each parcel into the
+ * lowest-indexed truck with enough weight, volume and pallet slots left.
+ * <p>
+ * The remaining resources of the trucks are kept in a
+ * {@link VectorMaxSegmentTree} by truck index. Subtrees whose per-resource
+ * maxima cannot hold the parcel are skipped whole. A search costs O(log n)
+ * when one resource decides which trucks fit, and up to O(n) when several
+ * bind at once (see the tree's class comment).
+ */
+public class VectorFirstFitStrategy extends AbstractVectorTruckLoadingStrategy {
+
+    private static final int INITIAL_CAPACITY = 64; // Trucks the tree has room for before it grows
+
+    private VectorMaxSegmentTree tree;
+    private final String name = "Vector First Fit Strategy";
+
+    public VectorFirstFitStrategy() {
+        super();
+    }
+
+    @Override
+    public void solve(TruckLoadingProblem problem) {
+        this.tree = null;
+        super.solve(problem);
+    }
+
+    @Override
+    protected int findTruck(double[] demand) {
+        return tree == null ? -1 : tree.findFirst(demand);
+    }
+
+    @Override
+    protected void truckOpened(int truckIndex, double[] remaining) {
+        if (tree == null) {
+            tree = new VectorMaxSegmentTree(dimensions, INITIAL_CAPACITY);
+        }
+        tree.add(remaining);
+    }
+
+    @Override
+    protected void truckChanged(int truckIndex, double[] remaining) {
+        tree.set(truckIndex, remaining);
+    }
+
+    /**
+     * Hides a truck from the search behind empty values until it is
+     * attached again.
+     */
+    @Override
+    protected void detachTruck(Truck truck) {
+        double[] empty = new double[dimensions];
+        Arrays.fill(empty, Double.NEGATIVE_INFINITY);
+        tree.set(truck.getIndex(), empty);
+    }
+
+    @Override
+    protected void attachTruck(Truck truck) {
+        tree.set(truck.getIndex(), remaining(truck));
+    }
+
+    @Override
+    protected int fittingTruck(Parcel parcel) {
+        return findTruck(demand(parcel));
+    }
+
+    @Override
+    protected void reindex(int[] newIndexOf) {
+        tree = null;
+        for (Truck truck : trucks) {
+            truckOpened(truck.getIndex(), remaining(truck));
+        }
+    }
+
+    /**
+     * Returns the name of this strategy.
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,96 @@
+package app.strategy;
+
+import app.index.IndexedMaxHeap;
+import app.model.Parcel;
+import app.model.Truck;
+
+/**
+ * Worst Fit engine: each parcel goes into the truck with the most remaining
+ * capacity, found at the top of an {@link IndexedMaxHeap}. If even that truck
+ * cannot hold the parcel, a new truck is opened.
+ * <p>
+ * Spreading parcels over the emptiest trucks keeps room everywhere, at the cost
+ * of usually more trucks than Best Fit. Among trucks with the same remaining
+ * capacity the lowest-indexed one is chosen.
+ */
+public class WorstFitStrategy extends AbstractIndexedTruckLoadingStrategy {
+
+    private static final int INITIAL_TRUCKS = 1024;
+
+    protected IndexedMaxHeap capacities;
+    private final String name = "Worst Fit Strategy";
+
+    public WorstFitStrategy() {
+        super();
+        this.capacities = new IndexedMaxHeap(INITIAL_TRUCKS);
+    }
+
+    /**
+     * Selects the truck with the largest remaining capacity, opening a new
+     * truck if the parcel does not fit there.
+     *
+     * @param weight the weight of the parcel
+     * @return the index of the chosen truck
+     */
+    @Override
+    protected int place(double weight) {
+        return placeIn(capacities.max(), weight);
+    }
+
+    /**
+     * Puts a parcel into the given truck, or into a new truck if the given
+     * one is missing or too full, and updates the heap.
+     *
+     * @param truckIndex the candidate truck, or -1 for none
+     * @param weight the weight of the parcel
+     * @return the index of the chosen truck
+     */
+    protected int placeIn(int truckIndex, double weight) {
+        if (truckIndex < 0 || capacities.getKey(truckIndex) < weight) {
+            truckIndex = openTruck();
+            capacities.insert(truckIndex, remainingAfter(truckCapacity, weight));
+        } else {
+            capacities.update(truckIndex, remainingAfter(capacities.getKey(truckIndex), weight));
+        }
+        return truckIndex;
+    }
+
+    /**
+     * Sinks a truck to the bottom of the heap, where no parcel fits it, until
+     * it is attached again. The heap has no removal, and does not need one.
+     */
+    @Override
+    protected void detachTruck(Truck truck) {
+        capacities.update(truck.getIndex(), Double.NEGATIVE_INFINITY);
+    }
+
+    @Override
+    protected void attachTruck(Truck truck) {
+        capacities.update(truck.getIndex(), truck.getRemainingCapacity());
+    }
+
+    @Override
+    protected int fittingTruck(Parcel parcel) {
+        int truckIndex = capacities.max();
+        return truckIndex >= 0 && capacities.getKey(truckIndex) >= parcel.getWeight() ? truckIndex : -1;
+    }
+
+    @Override
+    protected void reindex(int[] newIndexOf) {
+        capacities = new IndexedMaxHeap(Math.max(INITIAL_TRUCKS, trucks.size()));
+        for (Truck truck : trucks) {
+            capacities.insert(truck.getIndex(), truck.getRemainingCapacity());
+        }
+        super.reindex(newIndexOf);
+    }
+
+    /**
+     * Returns the name of this strategy.
+     *
+     * @return the strategy name
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,160 @@
+package app.avltree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the AVL invariants of {@link AVLTree} after random adds, deletes,
+ * splits and joins, against a {@link TreeMap} keyed by (value, index).
+ */
+public class AVLTreeTest {
+
+    @Test
+    void randomOperationsKeepInvariants() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 200; trial++) {
+            AVLTree<Integer> tree = new AVLTree<>();
+            TreeMap<Long, Integer> expected = new TreeMap<>();
+            int range = 1 + random.nextInt(50); // Few values, so many ties
+            int next = 0;
+            for (int op = 0; op < 1000; op++) {
+                int kind = random.nextInt(20);
+                if (kind < 10 || expected.isEmpty()) {
+                    int value = random.nextInt(range);
+                    tree.add(next, value);
+                    expected.put(key(value, next++), value);
+                } else if (kind < 16) {
+                    // Every fourth delete takes the smallest index, which retraces to the root
+                    List<Long> keys = new ArrayList<>(expected.keySet());
+                    long key = random.nextInt(4) == 0
+                            ? keys.stream().min(Comparator.comparingInt(k -> (int) (long) k)).get()
+                            : keys.get(random.nextInt(keys.size()));
+                    int value = expected.remove(key);
+                    tree.delete((int) key, value);
+                } else if (kind < 19) {
+                    int splitAt = random.nextInt(range + 2) - 1;
+                    AVLTree<Integer> upper = tree.split(splitAt);
+                    assertValid(tree, expected.headMap(key(splitAt, 0), false));
+                    assertValid(upper, expected.tailMap(key(splitAt, 0), true));
+                    tree.join(upper);
+                    assertEquals(0, upper.getSize(), "joined tree size");
+                } else {
+                    tree.delete(next + 5, 0); // Not in the tree: no change
+                }
+                if (op % 50 == 0) {
+                    assertValid(tree, expected);
+                }
+            }
+            assertValid(tree, expected);
+        }
+    }
+
+    @Test
+    void findReturnsMinimumIndexAtOrAboveValue() {
+        Random random = new Random(5);
+        AVLTree<Integer> tree = new AVLTree<>();
+        int[] values = new int[500];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(100);
+            tree.add(i, values[i]);
+        }
+        for (int query = -1; query <= 101; query++) {
+            int expected = Integer.MAX_VALUE;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] >= query) {
+                    expected = i;
+                    break;
+                }
+            }
+            assertEquals(expected, tree.find(query), "find(" + query + ")");
+        }
+    }
+
+    @Test
+    void fromSortedBuildsBalancedTree() {
+        for (int n = 0; n < 200; n++) {
+            int[] indexes = new int[n];
+            List<Integer> values = new ArrayList<>();
+            TreeMap<Long, Integer> expected = new TreeMap<>();
+            for (int i = 0; i < n; i++) {
+                indexes[i] = i;
+                values.add(i / 3);
+                expected.put(key(i / 3, i), i / 3);
+            }
+            assertValid(AVLTree.fromSorted(indexes, values), expected);
+        }
+    }
+
+    @Test
+    void joinRejectsOverlappingTrees() {
+        AVLTree<Integer> tree = new AVLTree<>();
+        AVLTree<Integer> other = new AVLTree<>();
+        tree.add(0, 5);
+        other.add(1, 3);
+        assertThrows(IllegalArgumentException.class, () -> tree.join(other));
+        assertThrows(IllegalArgumentException.class, () -> tree.join(tree));
+    }
+
+    private static long key(int value, int index) {
+        return (long) value << 32 | index;
+    }
+
+    /**
+     * Asserts that the tree holds exactly the expected entries, in order,
+     * and that every node's height, balance, count and minimum index are
+     * right.
+     */
+    private static void assertValid(AVLTree<Integer> tree, SortedMap<Long, Integer> expected) {
+        assertEquals(expected.size(), tree.getSize(), "size");
+        assertEquals(expected.size(), checkSubtree(tree.root), "node count");
+        List<Integer> values = new ArrayList<>();
+        tree.forEach(values::add);
+        assertEquals(new ArrayList<>(expected.values()), values, "values in order");
+    }
+
+    /**
+     * Checks a subtree's invariants and returns its node count.
+     */
+    private static int checkSubtree(AVLTreeNode<Integer> node) {
+        if (node == null) {
+            return 0;
+        }
+        int leftCount = checkSubtree(node.left);
+        int rightCount = checkSubtree(node.right);
+        int leftHeight = node.left == null ? 0 : node.left.height;
+        int rightHeight = node.right == null ? 0 : node.right.height;
+        assertEquals(1 + Math.max(leftHeight, rightHeight), node.height, "height of " + node);
+        assertTrue(Math.abs(leftHeight - rightHeight) <= 1, "balance of " + node);
+        assertEquals(1 + leftCount + rightCount, node.count, "count of " + node);
+        int minIndex = node.index;
+        if (node.left != null) {
+            minIndex = Math.min(minIndex, node.left.minIndex);
+            if (compare(node.left, node) >= 0) {
+                fail("left child of " + node + " is out of order");
+            }
+        }
+        if (node.right != null) {
+            minIndex = Math.min(minIndex, node.right.minIndex);
+            if (compare(node.right, node) <= 0) {
+                fail("right child of " + node + " is out of order");
+            }
+        }
+        assertEquals(minIndex, node.minIndex, "minIndex of " + node);
+        return node.count;
+    }
+
+    private static int compare(AVLTreeNode<Integer> a, AVLTreeNode<Integer> b) {
+        int cmp = a.value.compareTo(b.value);
+        return cmp != 0 ? cmp : Integer.compare(a.index, b.index);
+    }
+}
@@ -0,0 +1,101 @@
+package app.avltree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link ArenaAVLTree} against {@link AVLTree}, whose invariants
+ * {@link AVLTreeTest} checks node by node: both run the same algorithm, so
+ * after every add and delete they must have the same height and size, answer
+ * every find alike and iterate in the same order.
+ */
+public class ArenaAVLTreeTest {
+
+    @Test
+    void randomOperationsMatchAVLTree() {
+        Random random = new Random(9);
+        for (int trial = 0; trial < 100; trial++) {
+            AVLTree<Double> expected = new AVLTree<>();
+            // A small initial capacity, so the arrays grow and slots are reused
+            ArenaAVLTree<Double> tree = new ArenaAVLTree<>(Double::doubleValue, 1 + random.nextInt(4));
+            Map<Integer, Double> live = new HashMap<>();
+            int next = 0;
+            for (int op = 0; op < 2000; op++) {
+                int kind = random.nextInt(10);
+                if (kind < 5 || live.isEmpty()) {
+                    double value = random.nextInt(200) / 10.0;
+                    expected.add(next, value);
+                    tree.add(next, value);
+                    live.put(next++, value);
+                } else if (kind < 8) {
+                    int index = new ArrayList<>(live.keySet()).get(random.nextInt(live.size()));
+                    double value = live.remove(index);
+                    expected.delete(index, value);
+                    tree.delete(index, value);
+                } else {
+                    double query = random.nextInt(220) / 10.0;
+                    assertEquals(expected.find(query), tree.find(query), "find(" + query + ")");
+                }
+                assertEquals(expected.getSize(), tree.getSize(), "size");
+                assertEquals(expected.getHeight(), tree.getHeight(), "height");
+            }
+            assertEquals(inorder(expected), inorder(tree), "values in order");
+        }
+    }
+
+    @Test
+    void heightStaysLogarithmic() {
+        ArenaAVLTree<Double> tree = new ArenaAVLTree<>(Double::doubleValue);
+        int n = 1 << 16;
+        for (int i = 0; i < n; i++) {
+            tree.add(i, (double) i); // Sorted input, the worst case for an unbalanced tree
+        }
+        assertTrue(tree.getHeight() <= 1.45 * (Math.log(n + 2) / Math.log(2)), "height " + tree.getHeight());
+        for (int i = 0; i < n; i += 2) {
+            tree.delete(i, (double) i);
+        }
+        assertEquals(n / 2, tree.getSize());
+        assertTrue(tree.getHeight() <= 1.45 * (Math.log(n / 2 + 2) / Math.log(2)), "height " + tree.getHeight());
+    }
+
+    @Test
+    void rangeAndParallelIterationMatchAVLTree() {
+        Random random = new Random(11);
+        AVLTree<Double> expected = new AVLTree<>();
+        ArenaAVLTree<Double> tree = new ArenaAVLTree<>(Double::doubleValue);
+        for (int i = 0; i < 5000; i++) {
+            double value = random.nextInt(200) / 10.0;
+            expected.add(i, value);
+            tree.add(i, value);
+        }
+        List<Double> range = new ArrayList<>();
+        tree.iterator(3.0, 7.5).forEachRemaining(range::add);
+        List<Double> expectedRange = new ArrayList<>();
+        expected.iterator(3.0, 7.5).forEachRemaining(expectedRange::add);
+        assertEquals(expectedRange, range, "range 3.0..7.5");
+
+        List<Double> parallel = StreamSupport.stream(tree.spliterator(), true).collect(Collectors.toList());
+        assertEquals(inorder(expected), parallel, "parallel stream");
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new ArenaAVLTree<Double>(Double::doubleValue, 0));
+    }
+
+    private static List<Double> inorder(Tree<Double> tree) {
+        List<Double> values = new ArrayList<>();
+        tree.forEach(values::add);
+        return values;
+    }
+}
@@ -0,0 +1,79 @@
+package app.avltree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link VectorAVLTree#findFirst(double[])} against a scan, and the
+ * number of nodes it visits: at most two per level when one dimension
+ * decides, and every node in the worst case when two dimensions bind.
+ */
+public class VectorAVLTreeTest {
+
+    @Test
+    void findFirstMatchesScan() {
+        Random random = new Random(12);
+        for (int trial = 0; trial < 50; trial++) {
+            int count = 1 + random.nextInt(300);
+            double[][] vectors = new double[count][];
+            VectorAVLTree<Integer> tree = new VectorAVLTree<>(i -> vectors[i]);
+            for (int i = 0; i < count; i++) {
+                vectors[i] = new double[] { random.nextInt(100), random.nextInt(20), random.nextInt(6) };
+                tree.add(i, i); // Ordered by index, so the first match is the lowest index
+            }
+            for (int query = 0; query < 100; query++) {
+                double[] demand = { random.nextInt(110), random.nextInt(22), random.nextInt(7) };
+                assertEquals(scan(vectors, demand), tree.findFirst(demand), "trial " + trial + ", query " + query);
+            }
+        }
+    }
+
+    @Test
+    void oneBindingDimensionVisitsTwoNodesPerLevel() {
+        Random random = new Random(13);
+        for (int count : new int[] { 1, 10, 1_000, 100_000 }) {
+            double[][] vectors = new double[count][];
+            VectorAVLTree<Integer> tree = new VectorAVLTree<>(i -> vectors[i]);
+            for (int i = 0; i < count; i++) {
+                vectors[i] = new double[] { random.nextInt(1000), 50 };
+                tree.add(i, i);
+            }
+            for (int query = 0; query < 200; query++) {
+                double[] demand = { random.nextInt(1000), random.nextInt(51) };
+                tree.findFirst(demand);
+                assertTrue(tree.getNodesVisited() <= 2 * tree.getHeight(),
+                        count + " entries: visited " + tree.getNodesVisited() + " of height " + tree.getHeight());
+            }
+        }
+    }
+
+    @Test
+    void twoBindingDimensionsCanVisitEveryNode() {
+        int count = 1_000;
+        double[][] vectors = new double[count][];
+        VectorAVLTree<Integer> tree = new VectorAVLTree<>(i -> vectors[i]);
+        for (int i = 0; i < count; i++) {
+            vectors[i] = i % 2 == 0 ? new double[] { 1, 0 } : new double[] { 0, 1 };
+            tree.add(i, i);
+        }
+        // Every subtree's maxima are (1, 1), yet no entry holds both
+        assertEquals(-1, tree.findFirst(new double[] { 1, 1 }));
+        assertEquals(count, tree.getNodesVisited());
+    }
+
+    private static int scan(double[][] vectors, double[] demand) {
+        for (int i = 0; i < vectors.length; i++) {
+            boolean fits = true;
+            for (int d = 0; d < demand.length; d++) {
+                fits &= vectors[i][d] >= demand[d];
+            }
+            if (fits) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,82 @@
+package app.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link VectorMaxSegmentTree#findFirst(double[])} against a scan, and
+ * the number of nodes it visits: at most 2 log n + 1 when one dimension
+ * decides, and every node in the worst case when two dimensions bind.
+ */
+public class VectorMaxSegmentTreeTest {
+
+    @Test
+    void findFirstMatchesScan() {
+        Random random = new Random(14);
+        for (int trial = 0; trial < 50; trial++) {
+            int count = 1 + random.nextInt(300);
+            double[][] vectors = new double[count][];
+            // A small initial capacity, so the tree grows
+            VectorMaxSegmentTree tree = new VectorMaxSegmentTree(3, 1 + random.nextInt(4));
+            for (int i = 0; i < count; i++) {
+                vectors[i] = new double[] { random.nextInt(100), random.nextInt(20), random.nextInt(6) };
+                tree.add(vectors[i]);
+            }
+            for (int query = 0; query < 100; query++) {
+                if (query % 10 == 0) {
+                    int i = random.nextInt(count);
+                    vectors[i] = new double[] { random.nextInt(100), random.nextInt(20), random.nextInt(6) };
+                    tree.set(i, vectors[i]);
+                }
+                double[] demand = { random.nextInt(110), random.nextInt(22), random.nextInt(7) };
+                assertEquals(scan(vectors, demand), tree.findFirst(demand), "trial " + trial + ", query " + query);
+            }
+        }
+    }
+
+    @Test
+    void oneBindingDimensionVisitsTwoNodesPerLevel() {
+        Random random = new Random(15);
+        for (int count : new int[] { 1, 10, 1_000, 100_000 }) {
+            VectorMaxSegmentTree tree = new VectorMaxSegmentTree(2, 1);
+            for (int i = 0; i < count; i++) {
+                tree.add(new double[] { random.nextInt(1000), 50 });
+            }
+            int levels = 32 - Integer.numberOfLeadingZeros(count - 1); // log2 of the leaf count
+            for (int query = 0; query < 200; query++) {
+                double[] demand = { random.nextInt(1000), random.nextInt(51) };
+                tree.findFirst(demand);
+                assertTrue(tree.getNodesVisited() <= 2 * levels + 1,
+                        count + " elements: visited " + tree.getNodesVisited() + " over " + levels + " levels");
+            }
+        }
+    }
+
+    @Test
+    void twoBindingDimensionsCanVisitEveryNode() {
+        int count = 1_024;
+        VectorMaxSegmentTree tree = new VectorMaxSegmentTree(2, count);
+        for (int i = 0; i < count; i++) {
+            tree.add(i % 2 == 0 ? new double[] { 1, 0 } : new double[] { 0, 1 });
+        }
+        // Every internal node's maxima are (1, 1), yet no leaf holds both
+        assertEquals(-1, tree.findFirst(new double[] { 1, 1 }));
+        assertEquals(2 * count - 1, tree.getNodesVisited());
+    }
+
+    private static int scan(double[][] vectors, double[] demand) {
+        for (int i = 0; i < vectors.length; i++) {
+            boolean fits = true;
+            for (int d = 0; d < demand.length; d++) {
+                fits &= vectors[i][d] >= demand[d];
+            }
+            if (fits) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
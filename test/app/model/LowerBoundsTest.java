@@ -0,0 +1,88 @@
+package app.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that L1 <= L2 <= the optimum on small random instances, whose
+ * optimum is found by exhaustive search, in both weight modes.
+ */
+public class LowerBoundsTest {
+
+    @Test
+    void boundsNeverExceedOptimum() {
+        Random random = new Random(2);
+        for (int trial = 0; trial < 2000; trial++) {
+            int n = 1 + random.nextInt(10);
+            long capacity = 50 + random.nextInt(200); // In tenths
+            long[] weights = new long[n];
+            for (int i = 0; i < n; i++) {
+                weights[i] = 1 + random.nextInt((int) capacity);
+            }
+            long optimum = optimum(weights, capacity);
+            for (WeightScale scale : new WeightScale[] { null, WeightScale.TENTHS }) {
+                LowerBounds bounds = LowerBounds.of(i -> weights[i] / 10.0, n, capacity / 10.0, scale);
+                String instance = Arrays.toString(weights) + " in " + capacity + ", " + bounds;
+                assertTrue(bounds.l1 <= bounds.l2, "L1 above L2 for " + instance);
+                assertTrue(bounds.l2 <= optimum, "L2 above the optimum " + optimum + " for " + instance);
+            }
+        }
+    }
+
+    @Test
+    void l2CountsParcelsThatCannotShareATruck() {
+        // Three parcels over half the capacity: L1 says 2 trucks, L2 says 3
+        LowerBounds bounds = LowerBounds.of(i -> 6, 3, 10, null);
+        assertEquals(2, bounds.l1);
+        assertEquals(3, bounds.l2);
+        assertTrue(bounds.isReachedBy(3));
+        assertEquals(1, bounds.gap(4));
+    }
+
+    @Test
+    void emptyProblemNeedsNoTrucks() {
+        LowerBounds bounds = LowerBounds.of(i -> 0, 0, 10, WeightScale.TENTHS);
+        assertEquals(0, bounds.get());
+        assertEquals(0.0, bounds.gapPercent(0));
+    }
+
+    /**
+     * Finds the fewest trucks the weights fit in, by branch and bound over the
+     * weights heaviest first.
+     */
+    private static long optimum(long[] weights, long capacity) {
+        long[] sorted = weights.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length / 2; i++) {
+            long swap = sorted[i];
+            sorted[i] = sorted[sorted.length - 1 - i];
+            sorted[sorted.length - 1 - i] = swap;
+        }
+        long[] best = { sorted.length };
+        search(sorted, 0, new long[sorted.length], 0, capacity, best);
+        return best[0];
+    }
+
+    private static void search(long[] weights, int next, long[] remaining, int used, long capacity, long[] best) {
+        if (used >= best[0]) {
+            return;
+        }
+        if (next == weights.length) {
+            best[0] = used;
+            return;
+        }
+        for (int t = 0; t < used; t++) {
+            if (remaining[t] >= weights[next]) {
+                remaining[t] -= weights[next];
+                search(weights, next + 1, remaining, used, capacity, best);
+                remaining[t] += weights[next];
+            }
+        }
+        remaining[used] = capacity - weights[next];
+        search(weights, next + 1, remaining, used + 1, capacity, best);
+    }
+}
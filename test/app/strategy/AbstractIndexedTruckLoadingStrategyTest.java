@@ -0,0 +1,95 @@
+package app.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import app.model.Parcel;
+import app.model.ParcelBatch;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import app.model.WeightScale;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the index-based engines pack a {@link ParcelBatch} as they pack
+ * the same parcels given as a list, including parcels packed online after a
+ * batch solve, before its trucks were ever asked for.
+ */
+public class AbstractIndexedTruckLoadingStrategyTest {
+
+    private static final List<Supplier<AbstractIndexedTruckLoadingStrategy>> STRATEGIES = Arrays.asList(
+            SegmentTreeFirstFitStrategy::new, CapacityTreeBestFitStrategy::new, BucketBestFitStrategy::new,
+            WorstFitStrategy::new, AlmostWorstFitStrategy::new, NextFitStrategy::new, HarmonicStrategy::new,
+            FirstFitDecreasingStrategy::new, BestFitDecreasingStrategy::new);
+
+    @Test
+    void packParcelAfterBatchSolveKeepsEveryParcel() {
+        ParcelBatch batch = new ParcelBatch();
+        for (double weight : new double[] { 90, 40, 40 }) {
+            batch.add("Appliances", weight, false, "Seremban");
+        }
+        SegmentTreeFirstFitStrategy strategy = new SegmentTreeFirstFitStrategy();
+        strategy.solve(new TruckLoadingProblem(100, batch, WeightScale.TENTHS));
+        Parcel late = new Parcel(3, "Appliances", 15, false, "Seremban");
+        strategy.packParcel(late);
+
+        List<Truck> trucks = strategy.getTrucks();
+        assertEquals(2, trucks.size());
+        assertEquals(1, trucks.get(0).getParcels().size());
+        assertEquals(10, trucks.get(0).getRemainingCapacity(), 1e-9);
+        assertEquals(3, trucks.get(1).getParcels().size());
+        assertSame(late, trucks.get(1).getParcels().get(2));
+        assertEquals(5, trucks.get(1).getRemainingCapacity(), 1e-9);
+    }
+
+    @Test
+    void batchSolveMatchesListSolve() {
+        Random random = new Random(21);
+        for (int trial = 0; trial < 10; trial++) {
+            List<Parcel> parcels = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                parcels.add(new Parcel(i, "Books", 1 + random.nextInt(700) / 10.0, false, "Kuantan"));
+            }
+            List<Parcel> late = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                late.add(new Parcel(300 + i, "Books", 1 + random.nextInt(700) / 10.0, false, "Kuantan"));
+            }
+            for (Supplier<AbstractIndexedTruckLoadingStrategy> maker : STRATEGIES) {
+                AbstractIndexedTruckLoadingStrategy fromList = maker.get();
+                fromList.solve(new TruckLoadingProblem(100, parcels, WeightScale.TENTHS));
+                AbstractIndexedTruckLoadingStrategy fromBatch = maker.get();
+                fromBatch.solve(new TruckLoadingProblem(100, ParcelBatch.of(parcels), WeightScale.TENTHS));
+                for (Parcel parcel : late) {
+                    fromList.packParcel(parcel);
+                    fromBatch.packParcel(parcel);
+                }
+                assertSameLoads(fromList.getTrucks(), fromBatch.getTrucks(), fromList.getName());
+            }
+        }
+    }
+
+    /**
+     * Asserts that two packings hold parcels of the same indexes in the same
+     * order in each truck, with the same remaining capacity. Batch parcels are
+     * created on demand, so they are compared by index.
+     */
+    private static void assertSameLoads(List<Truck> expected, List<Truck> actual, String context) {
+        assertEquals(expected.size(), actual.size(), context + ": truck count");
+        for (int t = 0; t < expected.size(); t++) {
+            List<Parcel> expectedParcels = expected.get(t).getParcels();
+            List<Parcel> actualParcels = actual.get(t).getParcels();
+            assertEquals(expectedParcels.size(), actualParcels.size(), context + ": parcels in truck " + t);
+            for (int k = 0; k < expectedParcels.size(); k++) {
+                assertEquals(expectedParcels.get(k).getIndex(), actualParcels.get(k).getIndex(),
+                        context + ": parcel " + k + " of truck " + t);
+            }
+            assertEquals(expected.get(t).getRemainingCapacity(), actual.get(t).getRemainingCapacity(),
+                    context + ": remaining capacity of truck " + t);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package app.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import app.model.Outcome;
+import app.model.Parcel;
+import app.model.TruckLoadingProblem;
+import app.model.WeightScale;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the default {@link PortfolioSolver} runs the strategies
+ * registered for each problem's weight scale.
+ */
+public class PortfolioSolverTest {
+
+    @Test
+    void defaultPortfolioMatchesWeightScale() {
+        Random random = new Random(9);
+        List<Parcel> parcels = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            parcels.add(new Parcel(i, "Toys", 1 + random.nextInt(700) / 10.0, false, "Kota Bharu"));
+        }
+        PortfolioSolver portfolio = new PortfolioSolver();
+        for (WeightScale scale : new WeightScale[] { null, WeightScale.TENTHS }) {
+            portfolio.solve(new TruckLoadingProblem(100, parcels, scale));
+            List<Outcome> outcomes = portfolio.getOutcomes();
+            assertEquals(StrategyRegistry.forScale(scale).size(), outcomes.size(), "members for scale " + scale);
+            for (Outcome outcome : outcomes) {
+                assertEquals(Outcome.Status.SOLVED, outcome.status, outcome.name + " with scale " + scale);
+            }
+        }
+    }
+}
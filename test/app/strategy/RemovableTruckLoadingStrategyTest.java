@@ -0,0 +1,207 @@
+package app.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import app.model.Parcel;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import app.model.WeightScale;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that removing parcels and consolidating trucks keep every
+ * {@link RemovableTruckLoadingStrategy} consistent: each parcel packed once,
+ * each truck's remaining capacity equal to its capacity minus its load, the
+ * trucks numbered from 0 with no empty truck left after consolidation, and
+ * the strategy's index still choosing trucks as the strategy would.
+ */
+public class RemovableTruckLoadingStrategyTest {
+
+    private static final List<Supplier<RemovableTruckLoadingStrategy>> STRATEGIES = Arrays.asList(
+            FirstFitStrategy::new, BestFitStrategy::new, SegmentTreeFirstFitStrategy::new,
+            CapacityTreeBestFitStrategy::new, BucketBestFitStrategy::new, WorstFitStrategy::new,
+            AlmostWorstFitStrategy::new, NextFitStrategy::new, HarmonicStrategy::new,
+            FirstFitDecreasingStrategy::new, BestFitDecreasingStrategy::new,
+            VectorFirstFitStrategy::new, VectorBestFitStrategy::new);
+
+    @Test
+    void removalAndConsolidationKeepTrucksConsistent() {
+        Random random = new Random(5);
+        for (int trial = 0; trial < 20; trial++) {
+            for (Supplier<RemovableTruckLoadingStrategy> maker : STRATEGIES) {
+                RemovableTruckLoadingStrategy strategy = maker.get();
+                // Bucket Best Fit needs fixed-point weights
+                WeightScale scale = strategy instanceof BucketBestFitStrategy || random.nextBoolean()
+                        ? WeightScale.TENTHS : null;
+                int count = 1 + random.nextInt(400);
+                List<Parcel> parcels = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    parcels.add(randomParcel(random, i));
+                }
+                strategy.solve(new TruckLoadingProblem(100, parcels, scale));
+                Set<Integer> expected = new HashSet<>();
+                for (Parcel parcel : parcels) {
+                    expected.add(parcel.getIndex());
+                }
+                String context = strategy.getName() + ", trial " + trial;
+                assertConsistent(strategy, expected, false, context);
+
+                int next = count;
+                for (int round = 0; round < 3; round++) {
+                    // Remove a quarter of the parcels, packing a third of those back in
+                    List<Integer> live = new ArrayList<>(expected);
+                    Collections.shuffle(live, random);
+                    for (int k = 0; k < live.size() / 4; k++) {
+                        Parcel removed = strategy.removeParcel(live.get(k));
+                        assertEquals(live.get(k).intValue(), removed.getIndex(), context + ": removed parcel");
+                        expected.remove(removed.getIndex());
+                        if (random.nextInt(3) == 0) {
+                            strategy.packParcel(removed);
+                            expected.add(removed.getIndex());
+                        }
+                    }
+                    assertConsistent(strategy, expected, false, context + ", after removals");
+
+                    int before = strategy.getTrucks().size();
+                    int emptied = strategy.consolidate(random.nextDouble());
+                    assertConsistent(strategy, expected, true, context + ", after consolidation");
+                    assertTrue(strategy.getTrucks().size() <= before - emptied, context + ": emptied trucks kept");
+
+                    for (int k = 0; k < 30; k++) {
+                        Parcel parcel = randomParcel(random, next++);
+                        assertPackedAsStrategyWould(strategy, parcel, context);
+                        expected.add(parcel.getIndex());
+                    }
+                    assertConsistent(strategy, expected, false, context + ", after repacking");
+                }
+                assertThrows(IllegalArgumentException.class, () -> strategy.removeParcel(-7));
+            }
+        }
+    }
+
+    @Test
+    void consolidationEmptiesUnderfilledTrucks() {
+        BestFitStrategy strategy = new BestFitStrategy();
+        List<Parcel> parcels = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            parcels.add(new Parcel(i, "Electronics", 60, false, "Melaka"));
+        }
+        strategy.solve(new TruckLoadingProblem(100, parcels));
+        for (int i = 0; i < 4; i++) {
+            strategy.packParcel(new Parcel(4 + i, "Electronics", 30, false, "Melaka"));
+        }
+        // Four trucks of 60 + 30; removing two 60s leaves two trucks of 30
+        strategy.removeParcel(0);
+        strategy.removeParcel(1);
+        assertEquals(4, strategy.getTrucks().size());
+        // The first goes into the second, which is then over half full
+        assertEquals(1, strategy.consolidate(0.5));
+        assertEquals(3, strategy.getTrucks().size());
+        double[] remaining = { 40, 10, 10 };
+        for (int t = 0; t < 3; t++) {
+            assertEquals(t, strategy.getTrucks().get(t).getIndex());
+            assertEquals(remaining[t], strategy.getTrucks().get(t).getRemainingCapacity(), 1e-9);
+        }
+        assertEquals(2, strategy.getTrucks().get(0).getParcels().size());
+    }
+
+    private static Parcel randomParcel(Random random, int index) {
+        return new Parcel(index, "Clothing", 1 + random.nextInt(990) / 10.0, false, "Johor Bahru");
+    }
+
+    /**
+     * Packs a parcel and checks the truck it went to against a scan of the
+     * trucks: for First Fit the first truck that fits, for Best Fit one with
+     * the least room left that fits, and a new truck only if none fits.
+     */
+    private static void assertPackedAsStrategyWould(RemovableTruckLoadingStrategy strategy, Parcel parcel, String context) {
+        List<Truck> trucks = strategy.getTrucks();
+        int firstFit = -1;
+        double tightest = Double.POSITIVE_INFINITY;
+        for (Truck truck : trucks) {
+            if (truck.canFit(parcel)) {
+                if (firstFit < 0) {
+                    firstFit = truck.getIndex();
+                }
+                tightest = Math.min(tightest, truck.getRemainingCapacity());
+            }
+        }
+        int before = trucks.size();
+        double[] remainingBefore = new double[before];
+        for (int t = 0; t < before; t++) {
+            remainingBefore[t] = trucks.get(t).getRemainingCapacity();
+        }
+        strategy.packParcel(parcel);
+        int target = truckOf(strategy, parcel);
+        if (target == before) {
+            if (isFirstFit(strategy) || isBestFit(strategy)) {
+                assertEquals(-1, firstFit, context + ": opened a truck while truck " + firstFit + " fits " + parcel);
+            }
+            return;
+        }
+        if (isFirstFit(strategy)) {
+            assertEquals(firstFit, target, context + ": First Fit truck for " + parcel);
+        } else if (isBestFit(strategy)) {
+            assertEquals(tightest, remainingBefore[target], 1e-9, context + ": Best Fit truck for " + parcel);
+        }
+    }
+
+    private static boolean isFirstFit(RemovableTruckLoadingStrategy strategy) {
+        return strategy instanceof FirstFitStrategy || strategy instanceof SegmentTreeFirstFitStrategy
+                || strategy instanceof VectorFirstFitStrategy;
+    }
+
+    private static boolean isBestFit(RemovableTruckLoadingStrategy strategy) {
+        return strategy instanceof BestFitStrategy || strategy instanceof CapacityTreeBestFitStrategy
+                || strategy instanceof BucketBestFitStrategy || strategy instanceof VectorBestFitStrategy;
+    }
+
+    private static int truckOf(RemovableTruckLoadingStrategy strategy, Parcel parcel) {
+        for (Truck truck : strategy.getTrucks()) {
+            if (truck.getParcels().contains(parcel)) {
+                return truck.getIndex();
+            }
+        }
+        fail(parcel + " was not packed");
+        return -1;
+    }
+
+    /**
+     * Asserts that the trucks hold exactly the expected parcels, are numbered
+     * from 0, and have remaining capacities matching their loads, and, when
+     * compact, that none is empty.
+     */
+    private static void assertConsistent(RemovableTruckLoadingStrategy strategy, Set<Integer> expected, boolean compact,
+            String context) {
+        Set<Integer> packed = new HashSet<>();
+        List<Truck> trucks = strategy.getTrucks();
+        for (int t = 0; t < trucks.size(); t++) {
+            Truck truck = trucks.get(t);
+            assertEquals(t, truck.getIndex(), context + ": truck index");
+            if (compact) {
+                assertFalse(truck.isEmpty(), context + ": truck " + t + " is empty");
+            }
+            double load = 0;
+            for (Parcel parcel : truck.getParcels()) {
+                assertTrue(packed.add(parcel.getIndex()), context + ": parcel " + parcel.getIndex() + " packed twice");
+                load += parcel.getWeight();
+            }
+            assertTrue(load <= truck.getCapacity() + 1e-6, context + ": truck " + t + " over capacity");
+            assertEquals(truck.getCapacity() - load, truck.getRemainingCapacity(), 1e-6,
+                    context + ": remaining capacity of truck " + t);
+        }
+        assertEquals(expected, packed, context + ": packed parcels");
+    }
+}
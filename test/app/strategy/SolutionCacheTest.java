@@ -0,0 +1,186 @@
+package app.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.model.Parcel;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import app.model.WeightScale;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link CachingTruckLoadingStrategy} rebuilds the exact trucks
+ * of a fresh solve on a hit, that the fingerprint tells apart the problems
+ * each strategy packs differently, and that {@link SolutionCache} evicts
+ * least recently used entries to stay within its budget.
+ */
+public class SolutionCacheTest {
+
+    private static final String[] DESTINATIONS = { "Kuala Lumpur", "Penang", "Kuching" };
+
+    @Test
+    void hitRebuildsSameTrucksAsSolve() {
+        Random random = new Random(12);
+        SolutionCache cache = new SolutionCache(64L << 20);
+        List<Class<? extends TruckLoadingStrategy>> strategies = Arrays.asList(BestFitStrategy.class,
+                FirstFitStrategy.class, BucketBestFitStrategy.class, HarmonicStrategy.class,
+                VectorBestFitStrategy.class, DestinationPartitionedStrategy.class);
+        for (Class<? extends TruckLoadingStrategy> member : strategies) {
+            // Only the vector strategies take volume and pallet limits
+            boolean vector = AbstractVectorTruckLoadingStrategy.class.isAssignableFrom(member);
+            double volumeCapacity = vector ? 30 : Truck.UNLIMITED_VOLUME;
+            int palletCapacity = vector ? 8 : Truck.UNLIMITED_PALLETS;
+            TruckLoadingProblem problem = new TruckLoadingProblem(100, volumeCapacity, palletCapacity, parcels(random, 500),
+                    WeightScale.TENTHS);
+            CachingTruckLoadingStrategy first = new CachingTruckLoadingStrategy(member, cache);
+            first.solve(problem);
+            assertFalse(first.isCacheHit(), member.getSimpleName() + " first solve");
+
+            // A copy of the parcel list, as a repeated job would bring
+            TruckLoadingProblem repeat = new TruckLoadingProblem(100, volumeCapacity, palletCapacity,
+                    new ArrayList<>(problem.getParcels()), WeightScale.TENTHS);
+            CachingTruckLoadingStrategy second = new CachingTruckLoadingStrategy(member, cache);
+            second.solve(repeat);
+            assertTrue(second.isCacheHit(), member.getSimpleName() + " repeated solve");
+            TruckLoadingStrategy fresh = StrategyRegistry.newInstance(member);
+            fresh.solve(repeat);
+            assertSameTrucks(fresh.getTrucks(), second.getTrucks(), member.getSimpleName());
+        }
+        assertEquals(strategies.size(), cache.getHits());
+        assertEquals(strategies.size(), cache.getMisses());
+    }
+
+    @Test
+    void fingerprintCoversWhatStrategyPacksBy() {
+        List<Parcel> parcels = parcels(new Random(13), 200);
+        List<Parcel> heavier = new ArrayList<>(parcels);
+        Parcel first = parcels.get(0);
+        heavier.set(0, new Parcel(first.getIndex(), first.getType(), first.getWeight() + 0.1, first.isFragile(),
+                first.getDestination(), first.getVolume(), first.getPalletSlots()));
+        List<Parcel> rerouted = new ArrayList<>(parcels);
+        rerouted.set(0, new Parcel(first.getIndex(), first.getType(), first.getWeight(), first.isFragile(),
+                "Elsewhere", first.getVolume(), first.getPalletSlots()));
+
+        TruckLoadingProblem problem = new TruckLoadingProblem(100, parcels);
+        for (boolean resourcesOnly : new boolean[] { true, false }) {
+            SolutionCache.Fingerprint key = SolutionCache.fingerprint(BestFitStrategy.class, resourcesOnly, problem);
+            assertEquals(key, SolutionCache.fingerprint(BestFitStrategy.class, resourcesOnly,
+                    new TruckLoadingProblem(100, new ArrayList<>(parcels))), "same parcels");
+            assertFalse(key.equals(SolutionCache.fingerprint(BestFitStrategy.class, resourcesOnly,
+                    new TruckLoadingProblem(100, heavier))), "heavier parcel");
+            assertFalse(key.equals(SolutionCache.fingerprint(FirstFitStrategy.class, resourcesOnly, problem)),
+                    "other strategy");
+            assertFalse(key.equals(SolutionCache.fingerprint(BestFitStrategy.class, resourcesOnly,
+                    new TruckLoadingProblem(90, parcels))), "other capacity");
+        }
+        // Only a strategy that looks at destinations tells a reroute apart
+        assertEquals(SolutionCache.fingerprint(BestFitStrategy.class, true, problem),
+                SolutionCache.fingerprint(BestFitStrategy.class, true, new TruckLoadingProblem(100, rerouted)));
+        assertFalse(SolutionCache.fingerprint(DestinationPartitionedStrategy.class, false, problem).equals(
+                SolutionCache.fingerprint(DestinationPartitionedStrategy.class, false, new TruckLoadingProblem(100, rerouted))));
+    }
+
+    @Test
+    void reroutedParcelsAreSolvedAgainOnlyWhenStrategyUsesDestination() {
+        List<Parcel> parcels = parcels(new Random(14), 300);
+        List<Parcel> rerouted = new ArrayList<>();
+        for (Parcel parcel : parcels) {
+            String destination = parcel.getIndex() % 7 == 0 ? "Elsewhere" : parcel.getDestination();
+            rerouted.add(new Parcel(parcel.getIndex(), parcel.getType(), parcel.getWeight(), parcel.isFragile(),
+                    destination, parcel.getVolume(), parcel.getPalletSlots()));
+        }
+        SolutionCache cache = new SolutionCache(64L << 20);
+        for (Class<? extends TruckLoadingStrategy> member : Arrays.asList(DestinationPartitionedStrategy.class,
+                BestFitStrategy.class)) {
+            new CachingTruckLoadingStrategy(member, cache).solve(new TruckLoadingProblem(100, parcels));
+            CachingTruckLoadingStrategy strategy = new CachingTruckLoadingStrategy(member, cache);
+            TruckLoadingProblem problem = new TruckLoadingProblem(100, rerouted);
+            strategy.solve(problem);
+            TruckLoadingStrategy fresh = StrategyRegistry.newInstance(member);
+            fresh.solve(problem);
+            assertEquals(member == BestFitStrategy.class, strategy.isCacheHit(), member.getSimpleName() + " hit");
+            assertSameTrucks(fresh.getTrucks(), strategy.getTrucks(), member.getSimpleName());
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWithinBudget() {
+        Random random = new Random(15);
+        List<TruckLoadingProblem> problems = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            problems.add(new TruckLoadingProblem(100, parcels(random, 100)));
+        }
+        SolutionCache sizing = new SolutionCache(Long.MAX_VALUE);
+        put(sizing, problems.get(0));
+        long entryBytes = sizing.getUsedBytes();
+
+        // Room for about three entries of this size
+        SolutionCache cache = new SolutionCache(entryBytes * 3 + entryBytes / 2);
+        put(cache, problems.get(0));
+        put(cache, problems.get(1));
+        put(cache, problems.get(2));
+        assertNotNull(get(cache, problems.get(0))); // Now the most recently used
+        put(cache, problems.get(3));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.getUsedBytes() <= entryBytes * 3 + entryBytes / 2);
+        assertNull(get(cache, problems.get(1)), "least recently used entry");
+        assertNotNull(get(cache, problems.get(0)));
+        assertNotNull(get(cache, problems.get(3)));
+
+        SolutionCache tiny = new SolutionCache(entryBytes - 1);
+        put(tiny, problems.get(0));
+        assertEquals(0, tiny.size(), "entry larger than the budget");
+    }
+
+    private static void put(SolutionCache cache, TruckLoadingProblem problem) {
+        BestFitStrategy strategy = new BestFitStrategy();
+        strategy.solve(problem);
+        cache.put(SolutionCache.fingerprint(BestFitStrategy.class, true, problem), problem, strategy.getTrucks());
+    }
+
+    private static List<Truck> get(SolutionCache cache, TruckLoadingProblem problem) {
+        return cache.get(SolutionCache.fingerprint(BestFitStrategy.class, true, problem), problem);
+    }
+
+    private static List<Parcel> parcels(Random random, int count) {
+        List<Parcel> parcels = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            parcels.add(new Parcel(i, "Documents", 1 + random.nextInt(600) / 10.0, random.nextBoolean(),
+                    DESTINATIONS[random.nextInt(DESTINATIONS.length)], random.nextInt(10), random.nextInt(3)));
+        }
+        return parcels;
+    }
+
+    /**
+     * Asserts that two packings hold the same parcels in the same order in
+     * each truck, with the same remaining resources.
+     */
+    private static void assertSameTrucks(List<Truck> expected, List<Truck> actual, String context) {
+        assertEquals(expected.size(), actual.size(), context + ": truck count");
+        for (int t = 0; t < expected.size(); t++) {
+            Truck expectedTruck = expected.get(t);
+            Truck actualTruck = actual.get(t);
+            assertEquals(expectedTruck.getParcels().size(), actualTruck.getParcels().size(), context + ": truck " + t);
+            for (int k = 0; k < expectedTruck.getParcels().size(); k++) {
+                assertSame(expectedTruck.getParcels().get(k), actualTruck.getParcels().get(k),
+                        context + ": parcel " + k + " of truck " + t);
+            }
+            assertEquals(expectedTruck.getRemainingCapacity(), actualTruck.getRemainingCapacity(),
+                    context + ": remaining capacity of truck " + t);
+            assertEquals(expectedTruck.getRemainingVolume(), actualTruck.getRemainingVolume(),
+                    context + ": remaining volume of truck " + t);
+            assertEquals(expectedTruck.getRemainingPalletSlots(), actualTruck.getRemainingPalletSlots(),
+                    context + ": remaining pallet slots of truck " + t);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package app.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.model.Outcome;
+import app.model.Parcel;
+import app.model.Truck;
+import app.model.TruckLoadingProblem;
+import app.model.WeightScale;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link VectorFirstFitStrategy} and {@link VectorBestFitStrategy}
+ * against a plain scan over the trucks, and against the weight-only engines
+ * when weight is the only limit; and that volume and pallet limits are kept,
+ * or the problem rejected, by the strategies and solvers around them.
+ */
+public class VectorPackingTest {
+
+    private static final double CAPACITY = 100;
+    private static final double VOLUME_CAPACITY = 20;
+    private static final int PALLET_CAPACITY = 6;
+
+    @Test
+    void firstFitPacksIntoLowestFittingTruck() {
+        Random random = new Random(4);
+        for (int trial = 0; trial < 50; trial++) {
+            for (WeightScale scale : new WeightScale[] { null, WeightScale.TENTHS }) {
+                TruckLoadingProblem problem = vectorProblem(random, 300, scale);
+                VectorFirstFitStrategy strategy = new VectorFirstFitStrategy();
+                strategy.solve(problem);
+                assertValid(problem, strategy.getTrucks());
+                assertSamePacking(scanFirstFit(problem), strategy.getTrucks());
+            }
+        }
+    }
+
+    @Test
+    void bestFitPacksIntoTightestFittingTruck() {
+        Random random = new Random(6);
+        for (int trial = 0; trial < 50; trial++) {
+            TruckLoadingProblem problem = vectorProblem(random, 300, WeightScale.TENTHS);
+            VectorBestFitStrategy strategy = new VectorBestFitStrategy();
+            strategy.solve(problem);
+            assertValid(problem, strategy.getTrucks());
+            assertSamePacking(scanBestFit(problem), strategy.getTrucks());
+        }
+    }
+
+    @Test
+    void weightOnlyMatchesWeightEngines() {
+        Random random = new Random(8);
+        for (int trial = 0; trial < 20; trial++) {
+            for (WeightScale scale : new WeightScale[] { null, WeightScale.TENTHS }) {
+                List<Parcel> parcels = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                    parcels.add(new Parcel(i, "Documents", 1 + random.nextInt(600) / 10.0, false, "Penang"));
+                }
+                TruckLoadingProblem problem = new TruckLoadingProblem(CAPACITY, parcels, scale);
+                assertSamePacking(solve(new SegmentTreeFirstFitStrategy(), problem), solve(new VectorFirstFitStrategy(), problem));
+                assertSamePacking(solve(new CapacityTreeBestFitStrategy(), problem), solve(new VectorBestFitStrategy(), problem));
+            }
+        }
+    }
+
+    @Test
+    void partitionedStrategyKeepsTruckLimits() {
+        TruckLoadingProblem problem = volumeBoundProblem();
+        DestinationPartitionedStrategy strategy = new DestinationPartitionedStrategy(VectorFirstFitStrategy.class, 2);
+        strategy.solve(problem);
+        assertValid(problem, strategy.getTrucks());
+        assertEquals(20, strategy.getTrucks().size());
+        for (int t = 0; t < 20; t++) {
+            Truck truck = strategy.getTrucks().get(t);
+            assertEquals(t, truck.getIndex());
+            assertEquals(4, truck.getRemainingVolume(), 1e-9);
+            assertEquals(PALLET_CAPACITY - 1, truck.getRemainingPalletSlots());
+        }
+    }
+
+    @Test
+    void weightOnlyStrategiesRejectResourceLimits() {
+        TruckLoadingProblem problem = volumeBoundProblem();
+        for (TruckLoadingStrategy strategy : Arrays.asList(new FirstFitStrategy(), new CapacityTreeBestFitStrategy(),
+                new StreamingTruckLoader(), new BranchAndBoundStrategy(), new GroupingGeneticStrategy())) {
+            assertThrows(IllegalArgumentException.class, () -> strategy.solve(problem), strategy.getName());
+        }
+        List<Truck> trucks = solve(new VectorFirstFitStrategy(), problem);
+        assertThrows(IllegalArgumentException.class, () -> new LocalSearchImprover().improve(trucks), "local search");
+    }
+
+    @Test
+    void portfolioOnlyPicksStrategiesThatHonourLimits() {
+        TruckLoadingProblem problem = volumeBoundProblem();
+        PortfolioSolver portfolio = new PortfolioSolver(
+                Arrays.asList(VectorFirstFitStrategy.class, FirstFitStrategy.class), 0, 2);
+        TruckLoadingStrategy winner = portfolio.solve(problem);
+        assertTrue(winner instanceof VectorFirstFitStrategy, "winner " + winner.getName());
+        assertValid(problem, winner.getTrucks());
+        assertEquals(20, winner.getTrucks().size());
+        assertEquals(Outcome.Status.FAILED, portfolio.getOutcomes().get(1).status);
+    }
+
+    /**
+     * Twenty light parcels of volume 6 in trucks of volume 10: one truck each,
+     * where weight alone would put them all in one.
+     */
+    private static TruckLoadingProblem volumeBoundProblem() {
+        List<Parcel> parcels = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            parcels.add(new Parcel(i, "Furniture", 5, false, i % 2 == 0 ? "Ipoh" : "Penang", 6, 1));
+        }
+        return new TruckLoadingProblem(CAPACITY, 10, PALLET_CAPACITY, parcels, null);
+    }
+
+    private static TruckLoadingProblem vectorProblem(Random random, int count, WeightScale scale) {
+        List<Parcel> parcels = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double weight = 1 + random.nextInt(500) / 10.0;
+            double volume = random.nextInt(20) / 2.0;
+            int pallets = random.nextInt(4);
+            parcels.add(new Parcel(i, "Furniture", weight, false, "Ipoh", volume, pallets));
+        }
+        return new TruckLoadingProblem(CAPACITY, VOLUME_CAPACITY, PALLET_CAPACITY, parcels, scale);
+    }
+
+    private static List<Truck> solve(TruckLoadingStrategy strategy, TruckLoadingProblem problem) {
+        strategy.solve(problem);
+        return strategy.getTrucks();
+    }
+
+    /**
+     * First Fit by scanning the trucks in index order.
+     */
+    private static List<Truck> scanFirstFit(TruckLoadingProblem problem) {
+        List<Truck> trucks = new ArrayList<>();
+        for (Parcel parcel : problem.getParcels()) {
+            Truck target = null;
+            for (Truck truck : trucks) {
+                if (truck.canFit(parcel)) {
+                    target = truck;
+                    break;
+                }
+            }
+            place(problem, trucks, target, parcel);
+        }
+        return trucks;
+    }
+
+    /**
+     * Best Fit by scanning every truck for the smallest slack, the sum of the
+     * free fraction of each resource, ties going to the lowest index.
+     */
+    private static List<Truck> scanBestFit(TruckLoadingProblem problem) {
+        WeightScale scale = problem.getWeightScale();
+        double capacityUnits = scale.toUnits(problem.getBinCapacity());
+        List<Truck> trucks = new ArrayList<>();
+        for (Parcel parcel : problem.getParcels()) {
+            Truck target = null;
+            double targetSlack = Double.POSITIVE_INFINITY;
+            for (Truck truck : trucks) {
+                double slack = truck.getRemainingUnits() / capacityUnits
+                        + truck.getRemainingVolume() / problem.getVolumeCapacity()
+                        + (double) truck.getRemainingPalletSlots() / problem.getPalletCapacity();
+                if (truck.canFit(parcel) && slack < targetSlack) {
+                    target = truck;
+                    targetSlack = slack;
+                }
+            }
+            place(problem, trucks, target, parcel);
+        }
+        return trucks;
+    }
+
+    private static void place(TruckLoadingProblem problem, List<Truck> trucks, Truck target, Parcel parcel) {
+        if (target == null) {
+            target = new Truck(trucks.size(), problem.getBinCapacity(), problem.getVolumeCapacity(),
+                    problem.getPalletCapacity(), problem.getWeightScale());
+            trucks.add(target);
+        }
+        assertTrue(target.addParcel(parcel), "scan picked a truck that cannot fit " + parcel);
+    }
+
+    /**
+     * Asserts that every parcel is packed exactly once and that no truck is
+     * over any of its limits.
+     */
+    private static void assertValid(TruckLoadingProblem problem, List<Truck> trucks) {
+        Set<Parcel> packed = new HashSet<>();
+        for (Truck truck : trucks) {
+            double weight = 0;
+            double volume = 0;
+            int pallets = 0;
+            for (Parcel parcel : truck.getParcels()) {
+                assertTrue(packed.add(parcel), parcel + " packed twice");
+                weight += parcel.getWeight();
+                volume += parcel.getVolume();
+                pallets += parcel.getPalletSlots();
+            }
+            assertTrue(weight <= problem.getBinCapacity() + 1e-9, "truck " + truck.getIndex() + " over weight");
+            assertTrue(volume <= problem.getVolumeCapacity() + 1e-9, "truck " + truck.getIndex() + " over volume");
+            assertTrue(pallets <= problem.getPalletCapacity(), "truck " + truck.getIndex() + " over pallet slots");
+        }
+        assertEquals(problem.getParcels().size(), packed.size(), "parcels packed");
+    }
+
+    private static void assertSamePacking(List<Truck> expected, List<Truck> actual) {
+        assertEquals(expected.size(), actual.size(), "truck count");
+        for (int t = 0; t < expected.size(); t++) {
+            List<Parcel> expectedParcels = expected.get(t).getParcels();
+            List<Parcel> actualParcels = actual.get(t).getParcels();
+            assertEquals(expectedParcels.size(), actualParcels.size(), "parcels in truck " + t);
+            for (int k = 0; k < expectedParcels.size(); k++) {
+                assertSame(expectedParcels.get(k), actualParcels.get(k), "parcel " + k + " of truck " + t);
+            }
+        }
+    }
+}